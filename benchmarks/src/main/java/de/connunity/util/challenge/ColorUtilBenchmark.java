@@ -0,0 +1,51 @@
+package de.connunity.util.challenge;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MiniMessage / legacy parsing as used for the timer action bar and every language message
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorUtilBenchmark {
+
+    private final String timerGradient = "<bold><gradient:light_purple:dark_purple>1h 23m 45s</gradient></bold>";
+    private final String pausedTimer = "<bold><red>⏸ 1h 23m 45s</red></bold>";
+    private final String message = "<red>Team BLUE defeated the Ender Dragon first!";
+    private final String legacy = "&6&lChallenge &7» &aTimer started &8(&e1h 23m&8)";
+
+    @Benchmark
+    public Component parseTimerGradient() {
+        return ColorUtil.parse(timerGradient);
+    }
+
+    @Benchmark
+    public Component parsePausedTimer() {
+        return ColorUtil.parse(pausedTimer);
+    }
+
+    @Benchmark
+    public Component parseMessage() {
+        return ColorUtil.parse(message);
+    }
+
+    @Benchmark
+    public String convertLegacy() {
+        return ColorUtil.convertLegacyToMiniMessage(legacy);
+    }
+}
@@ -0,0 +1,36 @@
+package de.connunity.util.challenge.bench;
+
+import org.bukkit.World;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Lightweight stand-ins for Bukkit interfaces, so plugin code can run without a server.
+ * Only the methods the benchmarked paths call are answered; anything else fails loudly.
+ */
+public final class BukkitStandIns {
+
+    private BukkitStandIns() {
+    }
+
+    /**
+     * A world that only knows its name
+     */
+    public static World world(String name) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "hashCode":
+                            return name.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "World[" + name + "]";
+                        default:
+                            throw new UnsupportedOperationException("Stand-in world does not support " + method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,82 @@
+package de.connunity.util.challenge.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory DataManager paths that run on the main thread: journaling a mutation,
+ * challenge flag checks and Team Race kill counters.
+ * DataManager itself needs a running server (scheduler, plugin config), so its parts are measured directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataStoreBenchmark {
+
+    private static final int DRAIN_EVERY = 1024; // The writer drains the journal once per flush
+
+    private DataJournal journal;
+    private ChallengeRegistry registry;
+    private KillCounters killCounters;
+    private UUID[] playerIds;
+    private long timerSeconds;
+    private int recorded;
+    private int next;
+
+    @Setup
+    public void setup() {
+        journal = new DataJournal(new File("unused.journal"));
+        registry = new ChallengeRegistry();
+        registry.setAll(Challenge.CHUNK_ITEMS.bit() | Challenge.KEEP_RNG.bit());
+
+        killCounters = new KillCounters();
+        playerIds = new UUID[100];
+        for (int i = 0; i < playerIds.length; i++) {
+            playerIds[i] = UUID.randomUUID();
+            killCounters.loadPlayer(playerIds[i], i % 17);
+        }
+    }
+
+    @Benchmark
+    public boolean journalTimerState() {
+        boolean result = journal.record("timer.total-seconds", ++timerSeconds);
+        if (++recorded == DRAIN_EVERY) {
+            recorded = 0;
+            journal.drainPending();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean challengeEnabled() {
+        return registry.isEnabled(Challenge.CHUNK_ITEMS);
+    }
+
+    @Benchmark
+    public void killIncrement() {
+        int i = next;
+        next = i + 1 == playerIds.length ? 0 : i + 1;
+        killCounters.increment(playerIds[i], (i & 1) == 0 ? "red" : "blue");
+    }
+
+    @Benchmark
+    public List<KillCounters.Entry<UUID>> topKillers() {
+        return killCounters.getTopPlayers(3);
+    }
+}
@@ -0,0 +1,104 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writer-thread side of DataManager: one flush worth of journal lines, a full snapshot and a load,
+ * for each storage backend. Files live in a temp directory on the local disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBackendBenchmark {
+
+    private static final int LINES_PER_FLUSH = 40;
+    private static final int PLAYERS = 100;
+
+    @Param({YamlStorageBackend.NAME, SqliteStorageBackend.NAME})
+    private String backendName;
+
+    private File directory;
+    private StorageBackend backend;
+    private DataJournal recorder;
+    private DataSnapshot snapshot;
+    private long timerSeconds;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("challengeutil-bench").toFile();
+        DataJournal journal = new DataJournal(new File(directory, "data.journal"));
+        backend = YamlStorageBackend.NAME.equals(backendName)
+                ? new YamlStorageBackend(new File(directory, "data.yml"), journal, Long.MAX_VALUE)
+                : new SqliteStorageBackend(new File(directory, "data.db"));
+        recorder = new DataJournal(new File(directory, "unused.journal"));
+
+        Map<String, Boolean> challenges = new LinkedHashMap<>();
+        for (Challenge challenge : Challenge.values()) {
+            challenges.put(challenge.getKey(), challenge.ordinal() % 3 == 0);
+        }
+        Map<UUID, String> teams = new LinkedHashMap<>();
+        Map<String, Object> otherValues = new HashMap<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            UUID playerId = UUID.randomUUID();
+            teams.put(playerId, (i & 1) == 0 ? "runner" : "hunter");
+            otherValues.put("teamrace.kills." + playerId, (long) i);
+        }
+        snapshot = new DataSnapshot(1L, new DataSnapshot.TimerState(3600L, true, false, 0L), 12345L,
+                challenges, teams, otherValues);
+        backend.writeSnapshot(snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        backend.close();
+        try (Stream<java.nio.file.Path> files = Files.walk(directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void appendFlush() throws IOException {
+        for (int i = 0; i < LINES_PER_FLUSH; i++) {
+            recorder.record("timer.total-seconds", ++timerSeconds);
+        }
+        backend.append(recorder.drainPending());
+    }
+
+    @Benchmark
+    public void writeSnapshot() throws IOException {
+        backend.writeSnapshot(snapshot);
+    }
+
+    @Benchmark
+    public YamlConfiguration load() throws IOException {
+        YamlConfiguration target = new YamlConfiguration();
+        backend.load(target);
+        return target;
+    }
+}
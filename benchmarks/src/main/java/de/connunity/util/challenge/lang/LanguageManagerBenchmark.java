@@ -0,0 +1,72 @@
+package de.connunity.util.challenge.lang;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message lookup + placeholder replacement + parsing over the bundled language files
+ * (the lookup LanguageManager delegates to)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageManagerBenchmark {
+
+    private MessageCatalog lang;
+    private Map<String, String> placeholders;
+
+    @Setup
+    public void setup() throws IOException {
+        lang = new MessageCatalog("de");
+        lang.put("en", loadBundled("en"));
+        lang.put("de", loadBundled("de"));
+
+        placeholders = new HashMap<>();
+        placeholders.put("team", "BLUE");
+    }
+
+    private static YamlConfiguration loadBundled(String language) throws IOException {
+        try (InputStream in = LanguageManagerBenchmark.class.getClassLoader().getResourceAsStream("lang/" + language + ".yml")) {
+            if (in == null) {
+                throw new IOException("Missing bundled lang/" + language + ".yml");
+            }
+            return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public Component getComponent() {
+        return lang.getComponent("teamrace.game-over-title");
+    }
+
+    @Benchmark
+    public Component getComponentWithPlaceholders() {
+        return lang.getComponent("teamrace.enemy-team-won", placeholders);
+    }
+
+    @Benchmark
+    public String getMessage() {
+        return lang.getMessage("teamrace.enemy-team-won", placeholders);
+    }
+}
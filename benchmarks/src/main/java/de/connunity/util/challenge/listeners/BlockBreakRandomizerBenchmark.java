@@ -0,0 +1,79 @@
+package de.connunity.util.challenge.listeners;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Block break randomizer: rolling the per-match drop table at reset, and the per-break lookup
+ * (one array load by Material ordinal).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBreakRandomizerBenchmark {
+
+    private final long matchSeed = 42L;
+    private List<Material> validItems;
+    private Material[] blocks;
+    private Material[] dropTable;
+    private int next;
+
+    @Setup
+    public void setup() {
+        validItems = new ArrayList<>();
+        List<Material> blockTypes = new ArrayList<>();
+        for (Material material : Material.values()) {
+            if (material.isLegacy() || material.isAir()) {
+                continue;
+            }
+            if (material.isItem()) {
+                validItems.add(material);
+            }
+            if (material.isBlock()) {
+                blockTypes.add(material);
+            }
+        }
+        blocks = blockTypes.toArray(new Material[0]);
+        dropTable = BlockBreakRandomizerListener.buildDropTable(matchSeed, validItems, Set.of(), false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Material[] buildTable() {
+        return BlockBreakRandomizerListener.buildDropTable(matchSeed, validItems, Set.of(), false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Material[] buildBijectiveTable() {
+        return BlockBreakRandomizerListener.buildDropTable(matchSeed, validItems, Set.of(), true);
+    }
+
+    @Benchmark
+    public Material blockBreak() {
+        return dropTable[nextBlock().ordinal()];
+    }
+
+    private Material nextBlock() {
+        int i = next;
+        next = i + 1 == blocks.length ? 0 : i + 1;
+        return blocks[i];
+    }
+}
@@ -0,0 +1,89 @@
+package de.connunity.util.challenge.listeners;
+
+import de.connunity.util.challenge.bench.BukkitStandIns;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk item challenge move path: packed chunk key for the new position plus the per-player last-chunk
+ * check, and the hash-derived item index on a crossing.
+ * Players walk at sprint speed, so most moves stay inside the same chunk like on a real server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkItemBenchmark {
+
+    private static final double BLOCKS_PER_MOVE = 0.28; // Sprinting, one move event per tick
+    private static final int ITEM_COUNT = 1200;          // About the size of the valid item table
+    private static final long MATCH_SEED = 8_675_309L;
+
+    @Param({"1", "20", "100"})
+    private int players;
+
+    private World world;
+    private UUID[] playerIds;
+    private double[] playerX;
+    private ChunkKeys chunkKeys;
+    private PlayerChunkTracker tracker;
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = BukkitStandIns.world("speedrun_world");
+        playerIds = new UUID[players];
+        playerX = new double[players];
+        chunkKeys = new ChunkKeys();
+        tracker = new PlayerChunkTracker();
+        for (int i = 0; i < players; i++) {
+            playerIds[i] = UUID.randomUUID();
+            playerX[i] = i * 100.0;
+        }
+    }
+
+    @Benchmark
+    public long chunkKey() {
+        int i = nextPlayer();
+        return chunkKeys.key(world, (int) playerX[i] >> 4, i);
+    }
+
+    @Benchmark
+    public int itemIndex() {
+        int i = nextPlayer();
+        return ChunkItemChallengeListener.itemIndex(MATCH_SEED, i, 0, (int) playerX[i] >> 4, i, ITEM_COUNT);
+    }
+
+    @Benchmark
+    public int playerMove() {
+        int i = nextPlayer();
+        playerX[i] += BLOCKS_PER_MOVE;
+        int chunkX = (int) playerX[i] >> 4;
+        PlayerChunkTracker.PlayerChunks chunks = tracker.get(playerIds[i]);
+        if (!chunks.enter(chunkKeys.key(world, chunkX, i))) {
+            return -1;
+        }
+        return ChunkItemChallengeListener.itemIndex(MATCH_SEED, chunks.getPlayerHash(), 0, chunkX, i, ITEM_COUNT);
+    }
+
+    private int nextPlayer() {
+        int i = next;
+        next = i + 1 == players ? 0 : i + 1;
+        return i;
+    }
+}
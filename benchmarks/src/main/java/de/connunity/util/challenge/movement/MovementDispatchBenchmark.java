@@ -0,0 +1,75 @@
+package de.connunity.util.challenge.movement;
+
+import de.connunity.util.challenge.bench.BukkitStandIns;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movement dispatcher with the plugin's real subscription layout (two restrict handlers on any
+ * position change, a chunk observer and a Y-crossing observer), fed look-only, walking and
+ * chunk-crossing moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementDispatchBenchmark {
+
+    private MovementDispatcher dispatcher;
+    private PlayerMoveEvent look;
+    private PlayerMoveEvent walk;
+    private PlayerMoveEvent chunkCrossing;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        World world = BukkitStandIns.world("speedrun_world");
+        dispatcher = new MovementDispatcher();
+        MoveHandler sink = (event, type) -> this.blackhole.consume(type);
+        dispatcher.subscribe(MoveType.SAME_BLOCK, MovementDispatcher.Phase.RESTRICT, sink);
+        dispatcher.subscribe(MoveType.SAME_BLOCK, MovementDispatcher.Phase.RESTRICT, sink);
+        dispatcher.subscribe(MoveType.NEW_CHUNK, MovementDispatcher.Phase.OBSERVE, sink);
+        dispatcher.subscribeYCrossing(-10.0, MovementDispatcher.Phase.OBSERVE, sink);
+
+        look = new PlayerMoveEvent(null, new Location(world, 8.5, 64, 8.5, 0f, 0f), new Location(world, 8.5, 64, 8.5, 15f, 0f));
+        walk = new PlayerMoveEvent(null, new Location(world, 8.5, 64, 8.5), new Location(world, 8.78, 64, 8.5));
+        chunkCrossing = new PlayerMoveEvent(null, new Location(world, 15.9, 64, 8.5), new Location(world, 16.18, 64, 8.5));
+    }
+
+    @Benchmark
+    public void lookOnly() {
+        dispatch(look);
+    }
+
+    @Benchmark
+    public void walkInsideChunk() {
+        dispatch(walk);
+    }
+
+    @Benchmark
+    public void crossChunk() {
+        dispatch(chunkCrossing);
+    }
+
+    private void dispatch(PlayerMoveEvent event) {
+        dispatcher.onMoveRestrict(event);
+        dispatcher.onMoveObserve(event);
+    }
+}
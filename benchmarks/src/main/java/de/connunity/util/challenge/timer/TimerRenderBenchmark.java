@@ -0,0 +1,48 @@
+package de.connunity.util.challenge.timer;
+
+import de.connunity.util.challenge.ColorUtil;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer action bar rendering: MiniMessage parsing (previous approach) vs the cached renderer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerRenderBenchmark {
+
+    private final TimerRenderer renderer = new TimerRenderer();
+    private long seconds = 3600;
+    private boolean blink;
+
+    @Benchmark
+    public Component parseGradient() {
+        return ColorUtil.parse("<bold><gradient:light_purple:dark_purple>" + TimerManager.formatTime(++seconds)
+                + "</gradient></bold>");
+    }
+
+    @Benchmark
+    public Component renderRunning() {
+        return renderer.render(++seconds, false, false);
+    }
+
+    @Benchmark
+    public Component renderPausedBlink() {
+        blink = !blink;
+        return renderer.render(seconds, true, blink);
+    }
+}
@@ -2,8 +2,12 @@ package de.connunity.util.challenge;
 
 import de.connunity.util.challenge.commands.*;
 import de.connunity.util.challenge.data.DataManager;
+import de.connunity.util.challenge.data.MatchRandom;
+import de.connunity.util.challenge.hud.HudManager;
 import de.connunity.util.challenge.integration.PlaceholderAPIExpansion;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.movement.MoveType;
+import de.connunity.util.challenge.movement.MovementDispatcher;
 import de.connunity.util.challenge.listeners.BedExplosionPreventionListener;
 import de.connunity.util.challenge.listeners.BlockBreakRandomizerListener;
 import de.connunity.util.challenge.listeners.CompassProtectionListener;
@@ -21,8 +25,10 @@ import de.connunity.util.challenge.listeners.GameStateRestrictionListener;
 import de.connunity.util.challenge.listeners.HeadstartRestrictionListener;
 import de.connunity.util.challenge.listeners.KeepRNGListener;
 import de.connunity.util.challenge.listeners.TimedRandomItemListener;
+import de.connunity.util.challenge.listeners.TimerSplitListener;
 import de.connunity.util.challenge.listeners.HostControlGUIListener;
 import de.connunity.util.challenge.listeners.HostControlItemListener;
+import de.connunity.util.challenge.listeners.InventoryCapacityTracker;
 import de.connunity.util.challenge.listeners.ManhuntChatListener;
 import de.connunity.util.challenge.listeners.ManhuntMovementListener;
 import de.connunity.util.challenge.listeners.ConnunityHuntMovementListener;
@@ -43,8 +49,11 @@ import de.connunity.util.challenge.listeners.WaitingRoomListener;
 import de.connunity.util.challenge.connunityhunt.ConnunityHuntManager;
 import de.connunity.util.challenge.endfight.CustomEndFightManager;
 import de.connunity.util.challenge.manhunt.ManhuntManager;
+import de.connunity.util.challenge.scan.ChunkScanner;
 import de.connunity.util.challenge.teamrace.TeamRaceManager;
 import de.connunity.util.challenge.timer.TimerManager;
+import de.connunity.util.challenge.tracking.PortalIndex;
+import de.connunity.util.challenge.tracking.TrackingEngine;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.GameRule;
@@ -52,6 +61,7 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
@@ -64,13 +74,20 @@ import java.util.Set;
 public class ChallengeUtil extends JavaPlugin {
 
     private TimerManager timerManager;
+    private HudManager hudManager;
+    private MovementDispatcher movementDispatcher;
+    private PortalIndex portalIndex;
+    private ChunkScanner chunkScanner;
+    private TrackingEngine trackingEngine;
     private DataManager dataManager;
+    private MatchRandom matchRandom;
     private LanguageManager languageManager;
     private ManhuntManager manhuntManager;
     private TeamRaceManager teamRaceManager;
     private ConnunityHuntManager connunityHuntManager;
     private CustomEndFightManager customEndFightManager;
     private PlaceholderAPIExpansion placeholderAPIExpansion;
+    private InventoryCapacityTracker inventoryCapacityTracker;
     private ChunkItemChallengeListener chunkItemChallengeListener;
     private FriendlyFireItemListener friendlyFireItemListener;
     private TimedRandomItemListener timedRandomItemListener;
@@ -134,9 +151,26 @@ public class ChallengeUtil extends JavaPlugin {
 
         // Initialize data manager
         dataManager = new DataManager(this);
+        
+        // Players already online (plugin reload) never fire a join event
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            dataManager.createPlayerContext(player);
+        }
+
+        // Initialize the match RNG (every randomness-based challenge draws from its streams)
+        matchRandom = new MatchRandom(resolveMatchSeed());
+
+        // Initialize the HUD pipeline (one per-tick frame for action bars and boss bars)
+        hudManager = new HudManager(this);
 
         // Initialize timer manager
-        timerManager = new TimerManager(this, dataManager);
+        timerManager = new TimerManager(this, dataManager, hudManager);
+
+        // Initialize the portal index (nearest-portal fallback of the hunt compasses)
+        portalIndex = new PortalIndex(this);
+
+        // Initialize the chunk scanner (off-thread block searches for the large End sweeps)
+        chunkScanner = new ChunkScanner(this);
 
         // Initialize manhunt manager
         manhuntManager = new ManhuntManager(this);
@@ -149,6 +183,15 @@ public class ChallengeUtil extends JavaPlugin {
 
         // Initialize custom end fight manager
         customEndFightManager = new CustomEndFightManager(this);
+        hudManager.register(customEndFightManager, CustomEndFightManager.HUD_PRIORITY);
+        hudManager.start();
+
+        // Initialize compass tracking (one shared update for all hunt and race modes)
+        trackingEngine = new TrackingEngine(this);
+        trackingEngine.register(manhuntManager);
+        trackingEngine.register(connunityHuntManager);
+        trackingEngine.register(teamRaceManager);
+        trackingEngine.start();
 
         // Initialize PlaceholderAPI expansion
         if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null) {
@@ -159,6 +202,9 @@ public class ChallengeUtil extends JavaPlugin {
             logWarning("PlaceholderAPI not found! Team prefixes will not work in chat.");
         }
 
+        // Initialize the inventory capacity index shared by the item-granting challenges
+        inventoryCapacityTracker = new InventoryCapacityTracker();
+
         // Initialize chunk item challenge listener
         chunkItemChallengeListener = new ChunkItemChallengeListener(this);
 
@@ -184,8 +230,20 @@ public class ChallengeUtil extends JavaPlugin {
         getCommand("settings").setExecutor(new SettingsCommand(this));
         getCommand("team").setExecutor(new TeamCommand(this));
         getCommand("spectator").setExecutor(new SpectatorCommand(this));
+        getCommand("challengedata").setExecutor(new DataCommand(this));
+
+        // Register movement handlers (one PlayerMoveEvent listener classifies each move once)
+        movementDispatcher = new MovementDispatcher();
+        movementDispatcher.subscribe(MoveType.SAME_BLOCK, MovementDispatcher.Phase.RESTRICT, new ManhuntMovementListener(this));
+        movementDispatcher.subscribe(MoveType.SAME_BLOCK, MovementDispatcher.Phase.RESTRICT, new ConnunityHuntMovementListener(this));
+        movementDispatcher.subscribe(MoveType.NEW_CHUNK, MovementDispatcher.Phase.OBSERVE, chunkItemChallengeListener::onChunkChange);
+        WaitingRoomListener waitingRoomListener = new WaitingRoomListener(this);
+        movementDispatcher.subscribeYCrossing(WaitingRoomListener.WAITING_ROOM_MIN_Y, MovementDispatcher.Phase.OBSERVE,
+                waitingRoomListener::onCrossKillHeight);
 
         // Register listeners
+        getServer().getPluginManager().registerEvents(movementDispatcher, this);
+        getServer().getPluginManager().registerEvents(portalIndex, this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerRespawnListener(this), this);
@@ -196,9 +254,8 @@ public class ChallengeUtil extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PortalTravelListener(this), this);
         getServer().getPluginManager().registerEvents(new ManhuntTeamListener(this), this);
         getServer().getPluginManager().registerEvents(new ManhuntChatListener(this), this);
-        getServer().getPluginManager().registerEvents(new ManhuntMovementListener(this), this);
-        getServer().getPluginManager().registerEvents(new ConnunityHuntMovementListener(this), this);
         getServer().getPluginManager().registerEvents(new HeadstartRestrictionListener(this), this);
+        getServer().getPluginManager().registerEvents(new TimerSplitListener(this), this);
         getServer().getPluginManager().registerEvents(new EnderDragonDeathListener(this), this);
         getServer().getPluginManager().registerEvents(new DragonEggPickupListener(this, customEndFightManager), this);
         getServer().getPluginManager().registerEvents(new EndFightDamageListener(this, customEndFightManager), this);
@@ -213,9 +270,10 @@ public class ChallengeUtil extends JavaPlugin {
         getServer().getPluginManager().registerEvents(teamSelectionItemListener, this);
         getServer().getPluginManager().registerEvents(new CompassTrackingListener(this), this);
         getServer().getPluginManager().registerEvents(new CompassProtectionListener(this), this);
-        getServer().getPluginManager().registerEvents(new WaitingRoomListener(this), this);
+        getServer().getPluginManager().registerEvents(waitingRoomListener, this);
         getServer().getPluginManager().registerEvents(new PreStartPvPListener(this), this);
         getServer().getPluginManager().registerEvents(new GameStateRestrictionListener(this), this);
+        getServer().getPluginManager().registerEvents(inventoryCapacityTracker, this);
         getServer().getPluginManager().registerEvents(chunkItemChallengeListener, this);
         getServer().getPluginManager().registerEvents(friendlyFireItemListener, this);
         getServer().getPluginManager().registerEvents(timedRandomItemListener, this);
@@ -231,7 +289,11 @@ public class ChallengeUtil extends JavaPlugin {
         // just to delete it again a few ticks later, and keeping the world loaded longer makes
         // Windows file-lock issues during the subsequent deletion more likely.
         if (!getConfig().getBoolean("reset.fullreset-on-startup", false)) {
-            Bukkit.getScheduler().runTaskLater(this, () -> loadSpeedrunWorldIfExists(), 20L);
+            Bukkit.getScheduler().runTaskLater(this, () -> {
+                loadSpeedrunWorldIfExists();
+                // Without a saved seed the match RNG could only fall back to 0 in onEnable
+                refreshMatchSeed();
+            }, 20L);
         }
 
         // Apply saved gamerules to speedrun world on startup
@@ -268,9 +330,26 @@ public class ChallengeUtil extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        // Stop the timer if running
+        // Save the exact timer state so it continues where it was on the next start
         if (timerManager != null) {
-            timerManager.stop();
+            timerManager.shutdown();
+        }
+
+        if (hudManager != null) {
+            hudManager.stop();
+        }
+
+        if (trackingEngine != null) {
+            trackingEngine.stop();
+        }
+
+        if (chunkScanner != null) {
+            chunkScanner.shutdown();
+        }
+
+        // Write any pending data.yml changes before the server goes down
+        if (dataManager != null) {
+            dataManager.shutdown();
         }
 
         // Unregister plugin messaging channel
@@ -283,10 +362,58 @@ public class ChallengeUtil extends JavaPlugin {
         return timerManager;
     }
 
+    public HudManager getHudManager() {
+        return hudManager;
+    }
+
+    public MovementDispatcher getMovementDispatcher() {
+        return movementDispatcher;
+    }
+
+    public PortalIndex getPortalIndex() {
+        return portalIndex;
+    }
+
+    public ChunkScanner getChunkScanner() {
+        return chunkScanner;
+    }
+
     public DataManager getDataManager() {
         return dataManager;
     }
 
+    public MatchRandom getMatchRandom() {
+        return matchRandom;
+    }
+
+    /**
+     * Seed of the current match: the saved world seed, or the speedrun world's own seed
+     * if no full reset has recorded one yet
+     */
+    private long resolveMatchSeed() {
+        if (dataManager.hasWorldData()) {
+            return dataManager.getWorldSeed();
+        }
+        World speedrunWorld = Bukkit.getWorld(getConfig().getString("world.speedrun-world", "speedrun_world"));
+        return speedrunWorld != null ? speedrunWorld.getSeed() : 0L;
+    }
+
+    /**
+     * Reseed the match RNG if the match seed resolves differently now (e.g. the speedrun world
+     * was loaded after onEnable and no seed had been saved yet)
+     */
+    private void refreshMatchSeed() {
+        long seed = resolveMatchSeed();
+        if (seed == matchRandom.getMatchSeed()) {
+            return;
+        }
+        logDebug("Match seed resolved to " + seed + " after loading the speedrun world");
+        matchRandom.reseed(seed);
+        if (blockBreakRandomizerListener != null) {
+            blockBreakRandomizerListener.resetForNewMatch();
+        }
+    }
+
     public ManhuntManager getManhuntManager() {
         return manhuntManager;
     }
@@ -307,6 +434,10 @@ public class ChallengeUtil extends JavaPlugin {
         return languageManager;
     }
 
+    public InventoryCapacityTracker getInventoryCapacityTracker() {
+        return inventoryCapacityTracker;
+    }
+
     public ChunkItemChallengeListener getChunkItemChallengeListener() {
         return chunkItemChallengeListener;
     }
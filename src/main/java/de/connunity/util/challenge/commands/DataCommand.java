@@ -0,0 +1,148 @@
+package de.connunity.util.challenge.commands;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.DataManager;
+import de.connunity.util.challenge.data.SqliteStorageBackend;
+import de.connunity.util.challenge.data.StorageBackend;
+import de.connunity.util.challenge.data.YamlStorageBackend;
+import de.connunity.util.challenge.lang.LanguageManager;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin command for the data store: persistence stats, journal compaction, YAML export,
+ * copying the data into another storage backend and exporting the block randomizer drop table
+ */
+public class DataCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = List.of("stats", "compact", "export", "migrate", "drops");
+    private static final List<String> BACKENDS = List.of(YamlStorageBackend.NAME, SqliteStorageBackend.NAME);
+
+    private final ChallengeUtil plugin;
+    private final LanguageManager lang;
+
+    public DataCommand(ChallengeUtil plugin) {
+        this.plugin = plugin;
+        this.lang = plugin.getLanguageManager();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command,
+                             @NotNull String label, @NotNull String[] args) {
+        if (!sender.hasPermission("challenge.host")) {
+            sender.sendMessage(lang.getComponent("commands.no-permission"));
+            return true;
+        }
+
+        DataManager dataManager = plugin.getDataManager();
+        String subcommand = args.length > 0 ? args[0].toLowerCase() : "stats";
+
+        switch (subcommand) {
+            case "stats": {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("coalesced", String.valueOf(dataManager.getWritesCoalesced()));
+                placeholders.put("pending", String.valueOf(dataManager.getPendingMutations()));
+                placeholders.put("lag", String.valueOf(dataManager.getDiskLagMillis()));
+                placeholders.put("journal", String.valueOf(dataManager.getJournalEntries()));
+                placeholders.put("compactions", String.valueOf(dataManager.getCompactions()));
+                StorageBackend backend = dataManager.getStorageBackend();
+                placeholders.put("backend", backend.getName());
+                placeholders.put("write-avg", String.format("%.2f", backend.getWriteLatency().getAverageMillis()));
+                placeholders.put("write-max", String.format("%.2f", backend.getWriteLatency().getMaxMillis()));
+                placeholders.put("writes", String.valueOf(backend.getWriteLatency().getCount()));
+                placeholders.put("read-max", String.format("%.2f", backend.getReadLatency().getMaxMillis()));
+                sender.sendMessage(lang.getComponent("data.stats-header"));
+                sender.sendMessage(lang.getComponent("data.stats-backend", placeholders));
+                sender.sendMessage(lang.getComponent("data.stats-writes", placeholders));
+                sender.sendMessage(lang.getComponent("data.stats-journal", placeholders));
+                return true;
+            }
+            case "compact": {
+                dataManager.compact();
+                sender.sendMessage(lang.getComponent("data.compacted"));
+                return true;
+            }
+            case "export": {
+                File exportFile = new File(plugin.getDataFolder(), "data-export-" + System.currentTimeMillis() + ".yml");
+                try {
+                    dataManager.exportYaml(exportFile);
+                    Map<String, String> placeholders = new HashMap<>();
+                    placeholders.put("file", exportFile.getName());
+                    sender.sendMessage(lang.getComponent("data.exported", placeholders));
+                } catch (IOException e) {
+                    plugin.logWarning("Failed to export data: " + e.getMessage());
+                    sender.sendMessage(lang.getComponent("data.export-failed"));
+                }
+                return true;
+            }
+            case "migrate": {
+                if (args.length < 2) {
+                    sender.sendMessage(lang.getComponent("data.migrate-usage"));
+                    return true;
+                }
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("backend", args[1].toLowerCase());
+                try {
+                    placeholders.put("count", String.valueOf(dataManager.migrateTo(args[1])));
+                    sender.sendMessage(lang.getComponent("data.migrated", placeholders));
+                } catch (IllegalArgumentException e) {
+                    sender.sendMessage(lang.getComponent("data.migrate-usage"));
+                } catch (IOException e) {
+                    plugin.logWarning("Failed to migrate data: " + e.getMessage());
+                    sender.sendMessage(lang.getComponent("data.migrate-failed", placeholders));
+                }
+                return true;
+            }
+            case "drops": {
+                File exportFile = new File(plugin.getDataFolder(), "block-drops-" + System.currentTimeMillis() + ".csv");
+                try {
+                    Map<String, String> placeholders = new HashMap<>();
+                    placeholders.put("count", String.valueOf(plugin.getBlockBreakRandomizerListener().exportDropTable(exportFile)));
+                    placeholders.put("file", exportFile.getName());
+                    sender.sendMessage(lang.getComponent("data.drops-exported", placeholders));
+                } catch (IOException e) {
+                    plugin.logWarning("Failed to export block drop table: " + e.getMessage());
+                    sender.sendMessage(lang.getComponent("data.export-failed"));
+                }
+                return true;
+            }
+            default:
+                sender.sendMessage(lang.getComponent("data.usage"));
+                return true;
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
+                                      @NotNull String alias, @NotNull String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (!sender.hasPermission("challenge.host")) {
+            return completions;
+        }
+        List<String> options;
+        if (args.length == 1) {
+            options = SUBCOMMANDS;
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("migrate")) {
+            options = BACKENDS;
+        } else {
+            return completions;
+        }
+        String partial = args[args.length - 1].toLowerCase();
+        for (String option : options) {
+            if (option.startsWith(partial)) {
+                completions.add(option);
+            }
+        }
+        return completions;
+    }
+}
@@ -97,11 +97,6 @@ public class FullResetCommand implements CommandExecutor {
             plugin.getCustomEndFightManager().deactivate();
         }
         
-        // Reset listeners for new match
-        if (plugin.getBlockBreakRandomizerListener() != null) {
-            plugin.getBlockBreakRandomizerListener().resetForNewMatch();
-        }
-        
         // Reset all players (clear inventory except host item, reset HP, level, achievements)
         for (Player player : Bukkit.getOnlinePlayers()) {
             resetPlayer(player);
@@ -386,6 +381,14 @@ public class FullResetCommand implements CommandExecutor {
             
             // Save seed to persistence
             plugin.getDataManager().saveWorldSeed(seed);
+            // Make sure the new seed is on disk before players are sent into the new world
+            plugin.getDataManager().flush();
+            
+            // Restart the match RNG from the new seed, then reset listeners for the new match
+            plugin.getMatchRandom().reseed(seed);
+            if (plugin.getBlockBreakRandomizerListener() != null) {
+                plugin.getBlockBreakRandomizerListener().resetForNewMatch();
+            }
             
             // PHASE 5: Load spawn chunks and set proper spawn point
             loadSpawnChunksAndSetSpawn(newWorld, players);
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.commands;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -41,8 +42,7 @@ public class RaceTeamCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             player.sendMessage(Component.text("✗ Team Race Modus ist nicht aktiviert!", NamedTextColor.RED));
             player.sendMessage(Component.text("  Aktiviere ihn in /settings > Herausforderungen", NamedTextColor.GRAY));
             return true;
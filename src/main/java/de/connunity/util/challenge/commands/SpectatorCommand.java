@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.commands;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.GameMode;
 import org.bukkit.command.Command;
@@ -39,8 +40,7 @@ public class SpectatorCommand implements CommandExecutor {
         }
         
         // Check if Connunity Hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled == null || !connunityHuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             player.sendMessage(lang.getComponent("spectator.not-connunity-hunt"));
             return true;
         }
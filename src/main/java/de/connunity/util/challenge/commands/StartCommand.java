@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.commands;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import de.connunity.util.challenge.timer.TimerManager;
 import net.kyori.adventure.text.Component;
@@ -61,15 +62,15 @@ public class StartCommand implements CommandExecutor {
         }
         
         // Check if manhunt mode is enabled and all players have selected teams
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
+        boolean manhuntEnabled = plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE);
+        boolean teamRaceEnabled = plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE);
+        boolean connunityHuntEnabled = plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE);
         
         // Prevent multiple team modes from being enabled at the same time
         int activeModes = 0;
-        if (manhuntEnabled != null && manhuntEnabled) activeModes++;
-        if (teamRaceEnabled != null && teamRaceEnabled) activeModes++;
-        if (connunityHuntEnabled != null && connunityHuntEnabled) activeModes++;
+        if (manhuntEnabled) activeModes++;
+        if (teamRaceEnabled) activeModes++;
+        if (connunityHuntEnabled) activeModes++;
         
         if (activeModes > 1) {
             sender.sendMessage(lang.getComponent("start.both-modes-enabled"));
@@ -77,7 +78,7 @@ public class StartCommand implements CommandExecutor {
             return true;
         }
         
-        if (manhuntEnabled != null && manhuntEnabled) {
+        if (manhuntEnabled) {
             // Get all online players
             Collection<? extends Player> allPlayers = Bukkit.getOnlinePlayers();
             java.util.List<String> playersWithoutTeam = new java.util.ArrayList<>();
@@ -133,7 +134,7 @@ public class StartCommand implements CommandExecutor {
         }
         
         // Check if team race mode is enabled and validate team setup
-        if (teamRaceEnabled != null && teamRaceEnabled) {
+        if (teamRaceEnabled) {
             // Get all online players
             Collection<? extends Player> allPlayers = Bukkit.getOnlinePlayers();
             java.util.List<String> playersWithoutTeam = new java.util.ArrayList<>();
@@ -191,7 +192,7 @@ public class StartCommand implements CommandExecutor {
         }
         
         // Check if Connunity Hunt mode is enabled and validate team setup
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (connunityHuntEnabled) {
             // Auto-assign all players to teams based on permissions
             plugin.getConnunityHuntManager().assignAllPlayersToTeams();
             
@@ -267,8 +268,7 @@ public class StartCommand implements CommandExecutor {
         }
         
         // Force keepInventory to true if Keep RNG challenge is enabled
-        Boolean keepRNGEnabled = plugin.getDataManager().getSavedChallenge("keep_rng");
-        if (keepRNGEnabled != null && keepRNGEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.KEEP_RNG)) {
             org.bukkit.GameRule<Boolean> keepInventoryRule = org.bukkit.GameRule.KEEP_INVENTORY;
             speedrunWorld.setGameRule(keepInventoryRule, true);
             plugin.getDataManager().saveGamerule("keep_inventory", true);
@@ -323,8 +323,7 @@ public class StartCommand implements CommandExecutor {
             plugin.getTimedRandomItemListener().start();
             
             // Notify hunters about their restrictions
-            Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-            if (manhuntEnabled != null && manhuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
                 for (UUID hunterId : plugin.getDataManager().getPlayersInTeam("hunter")) {
                     Player hunter = Bukkit.getPlayer(hunterId);
                     if (hunter != null && hunter.isOnline()) {
@@ -338,8 +337,7 @@ public class StartCommand implements CommandExecutor {
             }
             
             // Notify viewers about their restrictions
-            Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-            if (connunityHuntEnabled != null && connunityHuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
                 for (UUID viewerId : plugin.getDataManager().getPlayersInTeam("Viewer")) {
                     Player viewer = Bukkit.getPlayer(viewerId);
                     if (viewer != null && viewer.isOnline()) {
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.commands;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -45,12 +46,10 @@ public class TeamCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check which mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
+        boolean teamRaceEnabled = plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE);
         
         // If Connunity Hunt is enabled, teams are auto-assigned
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             player.sendMessage(Component.text("ⓘ Connunity Hunt: Teams are automatically assigned!", net.kyori.adventure.text.format.NamedTextColor.AQUA));
             player.sendMessage(Component.text("  Streamer team: vup.creator or challenge.creator permission", net.kyori.adventure.text.format.NamedTextColor.GOLD));
             player.sendMessage(Component.text("  Viewer team: everyone else", net.kyori.adventure.text.format.NamedTextColor.BLUE));
@@ -67,14 +66,14 @@ public class TeamCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        if ((manhuntEnabled == null || !manhuntEnabled) && (teamRaceEnabled == null || !teamRaceEnabled)) {
+        if (!teamRaceEnabled && !plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             player.sendMessage(lang.getComponent("team.no-mode-active"));
             player.sendMessage(lang.getComponent("team.no-mode-active-hint"));
             return true;
         }
         
         // If Team Race is enabled, use Team Race logic
-        if (teamRaceEnabled != null && teamRaceEnabled) {
+        if (teamRaceEnabled) {
             return handleTeamRaceMode(player, args);
         }
         
@@ -233,12 +232,8 @@ public class TeamCommand implements CommandExecutor, TabCompleter {
             return new ArrayList<>();
         }
         
-        // Check which mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        
         // Team Race mode - show team names
-        if (teamRaceEnabled != null && teamRaceEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             List<String> teams = plugin.getTeamRaceManager().getAvailableTeamNames();
             List<String> completions = new ArrayList<>();
             
@@ -253,7 +248,7 @@ public class TeamCommand implements CommandExecutor, TabCompleter {
         }
         
         // Manhunt mode - show runner/hunter/spectator
-        if (manhuntEnabled != null && manhuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return Arrays.asList("runner", "hunter", "spectator");
         }
         
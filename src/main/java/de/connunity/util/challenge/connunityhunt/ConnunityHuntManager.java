@@ -1,7 +1,11 @@
 package de.connunity.util.challenge.connunityhunt;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.TeamRoster;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.tracking.TrackingClient;
+import de.connunity.util.challenge.tracking.TrackingFrame;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
@@ -30,13 +34,19 @@ import java.util.UUID;
  * Everyone else → Viewer team (hunters)
  * Viewers get 2-minute headstart blindness/freeze, Streamers don't respawn
  */
-public class ConnunityHuntManager {
+public class ConnunityHuntManager implements TrackingClient {
 
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
+
+    // Online streamers/viewers by interned team id (maintained by DataManager)
+    private final TeamRoster roster;
+    private final int streamerTeam;
+    private final int viewerTeam;
+
     private BukkitRunnable blindnessTask;
     private BukkitRunnable compassChargeTask;
-    private BukkitRunnable compassUpdateTask;
+    private boolean compassTracking = false; // Compasses are pointed by the shared tracking engine
     private long startTime;
     private static final long TWO_MINUTES = 2 * 60 * 1000; // 2 minutes in milliseconds
     private static final long FIRST_CHARGE_DELAY = 4 * 60 * 1000; // 4 minutes (2 min blindness + 2 min wait)
@@ -52,12 +62,8 @@ public class ConnunityHuntManager {
     // Track last known streamer position for each viewer (to prevent compass spinning)
     private final Map<UUID, Location> lastKnownStreamerPosition = new HashMap<>();
 
-    // Cache portal fallback scans to avoid heavy world block scanning every second
-    private final Map<UUID, Location> cachedPortalTarget = new HashMap<>();
-    private final Map<UUID, Location> portalScanOrigin = new HashMap<>();
-    private final Map<UUID, Long> portalScanTime = new HashMap<>();
-    private static final long PORTAL_SCAN_CACHE_MS = 10000; // 10 seconds
-    private static final double PORTAL_SCAN_MOVE_THRESHOLD_SQ = 24 * 24;
+    // Portal fallback radius - lookups go through the shared portal index, so no per-player cache is needed
+    private static final int PORTAL_SEARCH_RADIUS = 128;
     
     public static final String TEAM_STREAMER = "Streamer";
     public static final String TEAM_VIEWER = "Viewer";
@@ -65,6 +71,9 @@ public class ConnunityHuntManager {
     public ConnunityHuntManager(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.roster = plugin.getDataManager().getTeamRoster();
+        this.streamerTeam = roster.intern(TEAM_STREAMER);
+        this.viewerTeam = roster.intern(TEAM_VIEWER);
     }
     
     /**
@@ -100,8 +109,7 @@ public class ConnunityHuntManager {
      */
     public void start() {
         // Check if Connunity Hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled == null || !connunityHuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             return;
         }
 
@@ -123,7 +131,7 @@ public class ConnunityHuntManager {
         startCompassChargeTask();
         
         // Start compass update task (updates compass direction every second)
-        startCompassUpdateTask();
+        compassTracking = true;
     }
 
     /**
@@ -140,14 +148,8 @@ public class ConnunityHuntManager {
             compassChargeTask = null;
         }
 
-        if (compassUpdateTask != null) {
-            compassUpdateTask.cancel();
-            compassUpdateTask = null;
-        }
+        compassTracking = false;
 
-        cachedPortalTarget.clear();
-        portalScanOrigin.clear();
-        portalScanTime.clear();
 
         // Reset start time
         startTime = 0;
@@ -163,9 +165,6 @@ public class ConnunityHuntManager {
         compassCharged.clear();
         compassLastTarget.clear();
         lastKnownStreamerPosition.clear();
-        cachedPortalTarget.clear();
-        portalScanOrigin.clear();
-        portalScanTime.clear();
     }
     
     /**
@@ -183,12 +182,9 @@ public class ConnunityHuntManager {
                     removeBlindnessFromViewers();
 
                     // Notify viewers
-                    Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
-                    for (UUID viewerId : viewers) {
-                        Player viewer = Bukkit.getPlayer(viewerId);
-                        if (viewer != null && viewer.isOnline()) {
-                            viewer.sendMessage(lang.getComponent("connunityhunt.blindness-over"));
-                        }
+                    for (int i = 0; i < roster.size(viewerTeam); i++) {
+                        Player viewer = roster.get(viewerTeam, i);
+                        viewer.sendMessage(lang.getComponent("connunityhunt.blindness-over"));
                     }
 
                     this.cancel();
@@ -196,17 +192,14 @@ public class ConnunityHuntManager {
                 }
 
                 // Reapply blindness to all viewers
-                Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
-                for (UUID viewerId : viewers) {
-                    Player viewer = Bukkit.getPlayer(viewerId);
-                    if (viewer != null && viewer.isOnline()) {
-                        // Apply blindness effect (2 minutes duration, but we reapply every second)
-                        viewer.addPotionEffect(
-                                new PotionEffect(PotionEffectType.BLINDNESS, 60, 0, false, false, false));
-                        
-                        // Make viewer invulnerable to prevent mob deaths
-                        viewer.setInvulnerable(true);
-                    }
+                for (int i = 0; i < roster.size(viewerTeam); i++) {
+                    Player viewer = roster.get(viewerTeam, i);
+                    // Apply blindness effect (2 minutes duration, but we reapply every second)
+                    viewer.addPotionEffect(
+                            new PotionEffect(PotionEffectType.BLINDNESS, 60, 0, false, false, false));
+                    
+                    // Make viewer invulnerable to prevent mob deaths
+                    viewer.setInvulnerable(true);
                 }
             }
         };
@@ -219,13 +212,10 @@ public class ConnunityHuntManager {
      * Remove blindness from all viewers
      */
     private void removeBlindnessFromViewers() {
-        Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
-        for (UUID viewerId : viewers) {
-            Player viewer = Bukkit.getPlayer(viewerId);
-            if (viewer != null && viewer.isOnline()) {
-                viewer.removePotionEffect(PotionEffectType.BLINDNESS);
-                viewer.setInvulnerable(false);
-            }
+        for (int i = 0; i < roster.size(viewerTeam); i++) {
+            Player viewer = roster.get(viewerTeam, i);
+            viewer.removePotionEffect(PotionEffectType.BLINDNESS);
+            viewer.setInvulnerable(false);
         }
     }
 
@@ -234,8 +224,7 @@ public class ConnunityHuntManager {
      */
     public void assignPlayerToTeam(Player player) {
         // Check if Connunity Hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled == null || !connunityHuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             return;
         }
 
@@ -356,12 +345,9 @@ public class ConnunityHuntManager {
      * Give all viewers tracking compasses
      */
     private void giveViewersCompasses() {
-        Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
-        for (UUID viewerId : viewers) {
-            Player viewer = Bukkit.getPlayer(viewerId);
-            if (viewer != null && viewer.isOnline()) {
-                giveCompass(viewer, false);
-            }
+        for (int i = 0; i < roster.size(viewerTeam); i++) {
+            Player viewer = roster.get(viewerTeam, i);
+            giveCompass(viewer, false);
         }
     }
 
@@ -448,14 +434,11 @@ public class ConnunityHuntManager {
         compassChargeTask = new BukkitRunnable() {
             @Override
             public void run() {
-                Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
                 long currentTime = System.currentTimeMillis();
 
-                for (UUID viewerId : viewers) {
-                    Player viewer = Bukkit.getPlayer(viewerId);
-                    if (viewer == null || !viewer.isOnline()) {
-                        continue;
-                    }
+                for (int i = 0; i < roster.size(viewerTeam); i++) {
+                    Player viewer = roster.get(viewerTeam, i);
+                    UUID viewerId = viewer.getUniqueId();
 
                     // Check if compass should be charged (using real-world milliseconds)
                     Long lastCharged = compassLastCharged.get(viewerId);
@@ -497,73 +480,48 @@ public class ConnunityHuntManager {
         compassChargeTask.runTaskTimer(plugin, 0L, 20L);
     }
 
+    @Override
+    public boolean isTracking() {
+        return compassTracking;
+    }
+
     /**
-     * Start task that updates compass direction to point to nearest streamer
-     * OPTIMIZED: Runs less frequently to reduce lag, independent of game ticks
+     * Point every viewer's compass at the nearest streamer (called by the tracking engine every second)
      */
-    private void startCompassUpdateTask() {
-        compassUpdateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Only update compasses while timer is running
-                if (!plugin.getTimerManager().isRunning() || plugin.getTimerManager().isPaused()) {
-                    return;
-                }
-
-                Set<UUID> viewers = plugin.getDataManager().getPlayersInTeam(TEAM_VIEWER);
-                Set<UUID> streamers = plugin.getDataManager().getPlayersInTeam(TEAM_STREAMER);
-
-                if (viewers.isEmpty() || streamers.isEmpty()) {
-                    return;
-                }
-
-                for (UUID viewerId : viewers) {
-                    Player viewer = Bukkit.getPlayer(viewerId);
-                    if (viewer == null || !viewer.isOnline()) {
-                        continue;
-                    }
+    @Override
+    public void onTrackingUpdate(TrackingFrame frame) {
+        // Only update compasses while timer is running
+        if (!plugin.getTimerManager().isRunning() || plugin.getTimerManager().isPaused()) {
+            return;
+        }
 
-                    // Find nearest streamer in same world
-                    Player nearestStreamer = null;
-                    double nearestDistance = Double.MAX_VALUE;
+        if (roster.size(viewerTeam) == 0 || roster.size(streamerTeam) == 0) {
+            return;
+        }
 
-                    for (UUID streamerId : streamers) {
-                        Player streamer = Bukkit.getPlayer(streamerId);
-                        if (streamer == null || !streamer.isOnline()) {
-                            continue;
-                        }
+        for (int i = 0; i < roster.size(viewerTeam); i++) {
+            Player viewer = roster.get(viewerTeam, i);
+            UUID viewerId = viewer.getUniqueId();
 
-                        // Only track streamers in same world
-                        if (viewer.getWorld().equals(streamer.getWorld())) {
-                            double distance = viewer.getLocation().distanceSquared(streamer.getLocation());
-                            if (distance < nearestDistance) {
-                                nearestDistance = distance;
-                                nearestStreamer = streamer;
-                            }
-                        }
-                    }
+            // Find nearest streamer in same world (answered from the shared grid)
+            int nearest = frame.nearest(viewer.getLocation(), streamerTeam);
 
-                    // Update compass to point to nearest streamer or last known position
-                    if (nearestStreamer != null) {
-                        Location targetLoc = nearestStreamer.getLocation();
-                        // Update compass needle (doesn't cause flickering)
-                        viewer.setCompassTarget(targetLoc);
-                        // Store this as the last known position for this viewer
-                        lastKnownStreamerPosition.put(viewerId, targetLoc.clone());
-                    } else {
-                        // No streamer in same dimension - point to last known position or portal
-                        Location fallbackTarget = findFallbackCompassTarget(viewer, viewerId);
-                        if (fallbackTarget != null) {
-                            viewer.setCompassTarget(fallbackTarget);
-                        }
-                        // If no fallback found, compass keeps pointing to last set target
-                    }
+            // Update compass to point to nearest streamer or last known position
+            if (nearest != TrackingFrame.NONE) {
+                Location targetLoc = frame.getLocation(nearest);
+                // Update compass needle (doesn't cause flickering)
+                viewer.setCompassTarget(targetLoc);
+                // Store this as the last known position for this viewer
+                lastKnownStreamerPosition.put(viewerId, targetLoc.clone());
+            } else {
+                // No streamer in same dimension - point to last known position or portal
+                Location fallbackTarget = findFallbackCompassTarget(viewer, viewerId);
+                if (fallbackTarget != null) {
+                    viewer.setCompassTarget(fallbackTarget);
                 }
+                // If no fallback found, compass keeps pointing to last set target
             }
-        };
-
-        // OPTIMIZED: Run every 20 ticks (1 second) - independent of server lag
-        compassUpdateTask.runTaskTimer(plugin, 0L, 20L);
+        }
     }
 
     /**
@@ -578,7 +536,7 @@ public class ConnunityHuntManager {
         }
         
         // Otherwise, try to find a portal to point to
-        Location portalTarget = getCachedNearestPortal(viewer, viewerId);
+        Location portalTarget = plugin.getPortalIndex().findNearest(viewer.getLocation(), PORTAL_SEARCH_RADIUS);
         if (portalTarget != null) {
             return portalTarget;
         }
@@ -592,81 +550,6 @@ public class ConnunityHuntManager {
         return null;
     }
 
-    private Location getCachedNearestPortal(Player viewer, UUID viewerId) {
-        long now = System.currentTimeMillis();
-        Location current = viewer.getLocation();
-        Location scanOrigin = portalScanOrigin.get(viewerId);
-        Long lastScan = portalScanTime.get(viewerId);
-
-        if (lastScan != null && (now - lastScan) < PORTAL_SCAN_CACHE_MS && scanOrigin != null
-                && scanOrigin.getWorld() != null && scanOrigin.getWorld().equals(current.getWorld())
-                && scanOrigin.distanceSquared(current) <= PORTAL_SCAN_MOVE_THRESHOLD_SQ) {
-            return cachedPortalTarget.get(viewerId);
-        }
-
-        Location nearest = findNearestPortal(current, current.getWorld());
-        portalScanTime.put(viewerId, now);
-        portalScanOrigin.put(viewerId, current.clone());
-
-        if (nearest != null) {
-            cachedPortalTarget.put(viewerId, nearest);
-        } else {
-            cachedPortalTarget.remove(viewerId);
-        }
-
-        return nearest;
-    }
-
-    /**
-     * Find the nearest portal (Nether or End) to the viewer
-     * Returns the portal location or null if none found nearby
-     */
-    private Location findNearestPortal(Location viewerLoc, org.bukkit.World world) {
-        
-        // Search radius for portals (in blocks)
-        int searchRadius = 128;
-        int baseX = viewerLoc.getBlockX();
-        int baseY = viewerLoc.getBlockY();
-        int baseZ = viewerLoc.getBlockZ();
-        int minY = Math.max(world.getMinHeight(), baseY - searchRadius);
-        int maxY = Math.min(world.getMaxHeight() - 1, baseY + searchRadius);
-        
-        int nearestX = 0;
-        int nearestY = 0;
-        int nearestZ = 0;
-        double nearestDistanceSq = Double.MAX_VALUE;
-        boolean found = false;
-        
-        // Search for nether portals (obsidian frame)
-        for (int x = baseX - searchRadius; x <= baseX + searchRadius; x += 4) {
-            for (int y = minY; y <= maxY; y += 4) {
-                for (int z = baseZ - searchRadius; z <= baseZ + searchRadius; z += 4) {
-                    Material blockType = world.getBlockAt(x, y, z).getType();
-                    
-                    // Check for nether portal or end portal frame
-                    if (blockType == Material.NETHER_PORTAL || blockType == Material.END_PORTAL_FRAME || blockType == Material.END_PORTAL) {
-                        double distanceSq = (x - baseX) * (double) (x - baseX)
-                                + (y - baseY) * (double) (y - baseY)
-                                + (z - baseZ) * (double) (z - baseZ);
-                        if (distanceSq < nearestDistanceSq) {
-                            nearestDistanceSq = distanceSq;
-                            nearestX = x;
-                            nearestY = y;
-                            nearestZ = z;
-                            found = true;
-                        }
-                    }
-                }
-            }
-        }
-        
-        if (!found) {
-            return null;
-        }
-
-        return new Location(world, nearestX + 0.5, nearestY, nearestZ + 0.5);
-    }
-
     /**
      * Use compass charge (called when viewer right-clicks compass)
      * Returns true if successful, false if not charged
@@ -683,10 +566,8 @@ public class ConnunityHuntManager {
         compassLastCharged.put(viewer.getUniqueId(), System.currentTimeMillis());
         updateCompassInInventory(viewer, false);
 
-        // Get all streamers
-        Set<UUID> streamers = plugin.getDataManager().getPlayersInTeam(TEAM_STREAMER);
-
-        if (streamers.isEmpty()) {
+        // Any streamers online?
+        if (roster.size(streamerTeam) == 0) {
             return true; // Still consume charge even if no streamers
         }
 
@@ -694,23 +575,21 @@ public class ConnunityHuntManager {
         boolean allStreamersInDifferentDimension = true;
         String streamerDimension = null; // Track which dimension streamers are in
         
-        for (UUID streamerId : streamers) {
-            Player streamer = Bukkit.getPlayer(streamerId);
-            if (streamer != null && streamer.isOnline()) {
-                if (viewer.getWorld().equals(streamer.getWorld())) {
-                    allStreamersInDifferentDimension = false;
-                    break;
-                }
-                // Determine which dimension the streamer is in
-                if (streamerDimension == null) {
-                    String worldName = streamer.getWorld().getName().toLowerCase();
-                    if (worldName.contains("nether") || streamer.getWorld().getEnvironment() == org.bukkit.World.Environment.NETHER) {
-                        streamerDimension = "nether";
-                    } else if (worldName.contains("end") || streamer.getWorld().getEnvironment() == org.bukkit.World.Environment.THE_END) {
-                        streamerDimension = "end";
-                    } else {
-                        streamerDimension = "overworld";
-                    }
+        for (int i = 0; i < roster.size(streamerTeam); i++) {
+            Player streamer = roster.get(streamerTeam, i);
+            if (viewer.getWorld().equals(streamer.getWorld())) {
+                allStreamersInDifferentDimension = false;
+                break;
+            }
+            // Determine which dimension the streamer is in
+            if (streamerDimension == null) {
+                String worldName = streamer.getWorld().getName().toLowerCase();
+                if (worldName.contains("nether") || streamer.getWorld().getEnvironment() == org.bukkit.World.Environment.NETHER) {
+                    streamerDimension = "nether";
+                } else if (worldName.contains("end") || streamer.getWorld().getEnvironment() == org.bukkit.World.Environment.THE_END) {
+                    streamerDimension = "end";
+                } else {
+                    streamerDimension = "overworld";
                 }
             }
         }
@@ -761,28 +640,24 @@ public class ConnunityHuntManager {
      * Apply glowing effect to all streamers
      */
     private void applyGlowToStreamers(Player viewer) {
-        Set<UUID> streamers = plugin.getDataManager().getPlayersInTeam(TEAM_STREAMER);
-
-        for (UUID streamerId : streamers) {
-            Player streamer = Bukkit.getPlayer(streamerId);
-            if (streamer != null && streamer.isOnline()) {
-                // Apply glowing effect for 10 seconds
-                streamer.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, 200, 0, false, false, true));
-
-                // Only play sound and notify if viewer is within 25 blocks and in same world
-                boolean isClose = false;
-                if (viewer.getWorld().equals(streamer.getWorld())) {
-                    double distanceSq = viewer.getLocation().distanceSquared(streamer.getLocation());
-                    if (distanceSq <= 625.0) {
-                        isClose = true;
-                    }
+        for (int i = 0; i < roster.size(streamerTeam); i++) {
+            Player streamer = roster.get(streamerTeam, i);
+            // Apply glowing effect for 10 seconds
+            streamer.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, 200, 0, false, false, true));
+
+            // Only play sound and notify if viewer is within 25 blocks and in same world
+            boolean isClose = false;
+            if (viewer.getWorld().equals(streamer.getWorld())) {
+                double distanceSq = viewer.getLocation().distanceSquared(streamer.getLocation());
+                if (distanceSq <= 625.0) {
+                    isClose = true;
                 }
+            }
 
-                if (isClose) {
-                    // Notify streamer they're glowing
-                    streamer.sendMessage(lang.getComponent("connunityhunt.you-are-glowing"));
-                    streamer.playSound(streamer.getLocation(), org.bukkit.Sound.ENTITY_ENDERMAN_STARE, 1.0f, 0.8f);
-                }
+            if (isClose) {
+                // Notify streamer they're glowing
+                streamer.sendMessage(lang.getComponent("connunityhunt.you-are-glowing"));
+                streamer.playSound(streamer.getLocation(), org.bukkit.Sound.ENTITY_ENDERMAN_STARE, 1.0f, 0.8f);
             }
         }
     }
@@ -791,12 +666,9 @@ public class ConnunityHuntManager {
      * Remove glow effect from all streamers
      */
     private void removeGlowFromStreamers() {
-        Set<UUID> streamers = plugin.getDataManager().getPlayersInTeam(TEAM_STREAMER);
-        for (UUID streamerId : streamers) {
-            Player streamer = Bukkit.getPlayer(streamerId);
-            if (streamer != null && streamer.isOnline()) {
-                streamer.removePotionEffect(PotionEffectType.GLOWING);
-            }
+        for (int i = 0; i < roster.size(streamerTeam); i++) {
+            Player streamer = roster.get(streamerTeam, i);
+            streamer.removePotionEffect(PotionEffectType.GLOWING);
         }
     }
 
@@ -0,0 +1,57 @@
+package de.connunity.util.challenge.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All toggleable challenges and game modes, keyed by their name in data.yml
+ */
+public enum Challenge {
+
+    MANHUNT_MODE("manhunt_mode"),
+    TEAM_RACE_MODE("team_race_mode"),
+    CONNUNITY_HUNT_MODE("connunity_hunt_mode"),
+    CUSTOM_END_FIGHT("custom_end_fight"),
+    CHUNK_ITEMS("chunk_items"),
+    TIMED_RANDOM_ITEM("timed_random_item"),
+    FRIENDLY_FIRE_ITEM("friendly_fire_item"),
+    BLOCK_BREAK_RANDOMIZER("block_break_randomizer"),
+    KEEP_RNG("keep_rng");
+
+    private static final Map<String, Challenge> BY_KEY = new HashMap<>();
+
+    static {
+        for (Challenge challenge : values()) {
+            BY_KEY.put(challenge.key, challenge);
+        }
+    }
+
+    private final String key;
+    private final long bit;
+
+    Challenge(String key) {
+        this.key = key;
+        this.bit = 1L << ordinal();
+    }
+
+    /**
+     * Name used in data.yml and the settings GUI
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Bit of this challenge in the registry bitset
+     */
+    long bit() {
+        return bit;
+    }
+
+    /**
+     * Look up a challenge by its data.yml key (returns null for unknown keys)
+     */
+    public static Challenge fromKey(String key) {
+        return BY_KEY.get(key);
+    }
+}
@@ -0,0 +1,76 @@
+package de.connunity.util.challenge.data;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Typed, push-based view of which challenges are enabled.
+ * The state is one bitset indexed by {@link Challenge#ordinal()} held in a volatile field, so a
+ * hot-path check is a single field read. DataManager updates it on every saveChallenge, and
+ * subscribers are notified immediately instead of polling.
+ */
+public class ChallengeRegistry {
+
+    /**
+     * Callback for challenge toggles (invoked on the thread that saved the change - the main thread)
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChallengeChanged(Challenge challenge, boolean enabled);
+    }
+
+    private volatile long enabledBits = 0L;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Check whether a challenge is enabled
+     */
+    public boolean isEnabled(Challenge challenge) {
+        return (enabledBits & challenge.bit()) != 0L;
+    }
+
+    /**
+     * Register a listener that is notified whenever a challenge is toggled
+     */
+    public void subscribe(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Enable or disable a single challenge
+     */
+    void set(Challenge challenge, boolean enabled) {
+        long previous = enabledBits;
+        long updated = enabled ? previous | challenge.bit() : previous & ~challenge.bit();
+        enabledBits = updated;
+        notifyChanges(previous, updated);
+    }
+
+    /**
+     * Replace the whole state at once (after loading or clearing data)
+     */
+    void setAll(long bits) {
+        long previous = enabledBits;
+        enabledBits = bits;
+        notifyChanges(previous, bits);
+    }
+
+    private void notifyChanges(long previous, long updated) {
+        long changed = previous ^ updated;
+        if (changed == 0L || listeners.isEmpty()) {
+            return;
+        }
+        for (Challenge challenge : Challenge.values()) {
+            if ((changed & challenge.bit()) != 0L) {
+                boolean enabled = (updated & challenge.bit()) != 0L;
+                for (ChangeListener listener : listeners) {
+                    listener.onChallengeChanged(challenge, enabled);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package de.connunity.util.challenge.data;
+
+/**
+ * Numeric per-challenge settings, stored under challenge-settings.&lt;challenge&gt;.&lt;setting&gt; in data.yml
+ */
+public enum ChallengeSetting {
+
+    KEEP_RNG_PERCENTAGE(Challenge.KEEP_RNG, "percentage", 50); // Share of inventory kept on death (0-100)
+
+    private final Challenge challenge;
+    private final String key;
+    private final int defaultValue;
+    private final String path;
+
+    ChallengeSetting(Challenge challenge, String key, int defaultValue) {
+        this.challenge = challenge;
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.path = "challenge-settings." + challenge.getKey() + "." + key;
+    }
+
+    public Challenge getChallenge() {
+        return challenge;
+    }
+
+    /**
+     * Name of the setting below its challenge in data.yml
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Value used while the setting has never been saved
+     */
+    public int getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Full data.yml path (precomputed so lookups never build strings)
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Look up a setting by challenge and setting name (returns null for unknown settings)
+     */
+    public static ChallengeSetting fromKeys(String challengeName, String settingName) {
+        for (ChallengeSetting setting : values()) {
+            if (setting.challenge.getKey().equals(challengeName) && setting.key.equals(settingName)) {
+                return setting;
+            }
+        }
+        return null;
+    }
+}
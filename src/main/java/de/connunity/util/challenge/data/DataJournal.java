@@ -0,0 +1,318 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only change log next to the data.yml snapshot.
+ * Every mutation is recorded as one line (path + typed value), so a change costs an O(1) append
+ * instead of rewriting the whole file. On startup the snapshot is loaded and the log replayed on top;
+ * compaction writes a fresh snapshot and starts the log over as the next generation.
+ *
+ * The first line holds the log's generation ({@code G <generation>}); a snapshot stamped with a
+ * newer generation already covers every entry and the log is discarded instead of replayed.
+ * Line format (tab separated): {@code S <path> <type><value>} or {@code D <path>}
+ * Types: b = boolean, i = int, l = long, d = double, s = string (escaped)
+ */
+public class DataJournal {
+
+    private static final String SET = "S";
+    private static final String DELETE = "D";
+    private static final String GENERATION = "G";
+
+    private final File file;
+    private final List<String> pending = new ArrayList<>(); // Main thread only
+    private long entriesSinceCompaction = 0;                 // Main thread only
+    private volatile long generation = 0;                     // Generation of the log file
+
+    public DataJournal(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Record a mutation (main thread). A null value deletes the path.
+     *
+     * @return false if the value has no journal representation and needs a full snapshot instead
+     */
+    public boolean record(String path, Object value) {
+        String line = encode(path, value);
+        if (line == null) {
+            return false;
+        }
+        pending.add(line);
+        return true;
+    }
+
+    /**
+     * Take all recorded lines that have not been handed to the writer yet (main thread)
+     */
+    public List<String> drainPending() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>(pending);
+        pending.clear();
+        entriesSinceCompaction += lines.size();
+        return lines;
+    }
+
+    /**
+     * Number of entries in the log since the last compaction (main thread)
+     */
+    public long getEntriesSinceCompaction() {
+        return entriesSinceCompaction + pending.size();
+    }
+
+    /**
+     * Called when a compaction has been scheduled - the next snapshot covers everything so far (main thread)
+     */
+    public void markCompacted() {
+        entriesSinceCompaction = 0;
+    }
+
+    /**
+     * Append a batch of lines to the log file (writer thread)
+     */
+    public void append(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder(lines.size() * 64);
+        if (!file.exists() || file.length() == 0) {
+            batch.append(GENERATION).append('\t').append(generation).append('\n');
+        }
+        for (String line : lines) {
+            batch.append(line).append('\n');
+        }
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+    }
+
+    /**
+     * Start the log over as a new generation after a snapshot stamped with it has been written
+     * (writer thread, or main thread during startup)
+     */
+    public void startGeneration(long newGeneration) throws IOException {
+        generation = newGeneration;
+        try (FileOutputStream out = new FileOutputStream(file, false)) {
+            out.write((GENERATION + "\t" + newGeneration + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+    }
+
+    /**
+     * Replay the log on top of a freshly loaded snapshot (main thread, startup/reload).
+     * A torn last line from a crash mid-append has no line terminator and is ignored.
+     * A log older than the snapshot (crash right after a compaction) is discarded.
+     *
+     * @param snapshotGeneration generation the snapshot is stamped with (0 if none)
+     * @return number of entries applied
+     */
+    public int replay(ConfigurationSection target, long snapshotGeneration) throws IOException {
+        generation = snapshotGeneration;
+        entriesSinceCompaction = 0;
+        if (!file.exists()) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        String[] lines = end < 0 ? new String[0] : content.substring(0, end).split("\n");
+
+        int first = 0;
+        long logGeneration = 0;
+        if (lines.length > 0 && lines[0].startsWith(GENERATION + "\t")) {
+            try {
+                logGeneration = Long.parseLong(lines[0].substring(GENERATION.length() + 1));
+            } catch (NumberFormatException e) {
+                logGeneration = 0;
+            }
+            first = 1;
+        }
+        if (logGeneration < snapshotGeneration) {
+            // Already covered by the snapshot - start a log the next restart will replay
+            startGeneration(snapshotGeneration);
+            return 0;
+        }
+        generation = logGeneration;
+
+        int applied = 0;
+        for (int i = first; i < lines.length; i++) {
+            if (apply(target, lines[i])) {
+                applied++;
+            }
+        }
+        entriesSinceCompaction = applied;
+        return applied;
+    }
+
+    private static boolean apply(ConfigurationSection target, String line) {
+        Mutation mutation = decode(line);
+        if (mutation == null) {
+            return false;
+        }
+        target.set(mutation.getPath(), mutation.getValue());
+        return true;
+    }
+
+    private static String encode(String path, Object value) {
+        String escapedPath = escape(path);
+        if (value == null) {
+            return DELETE + "\t" + escapedPath;
+        }
+        char type = typeOf(value);
+        if (type == 0) {
+            return null; // Not representable - caller falls back to a full snapshot
+        }
+        String raw = type == 's' ? escape((String) value) : value.toString();
+        return SET + "\t" + escapedPath + "\t" + type + raw;
+    }
+
+    /**
+     * Type tag of a leaf value in the line format, 0 if the value has no line representation
+     */
+    static char typeOf(Object value) {
+        if (value instanceof Boolean) {
+            return 'b';
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return 'i';
+        } else if (value instanceof Long) {
+            return 'l';
+        } else if (value instanceof Number) {
+            return 'd';
+        } else if (value instanceof String) {
+            return 's';
+        }
+        return 0;
+    }
+
+    /**
+     * Parse an unescaped raw value of the given type tag
+     *
+     * @throws NumberFormatException if the value does not match its type
+     */
+    static Object parseValue(char type, String raw) {
+        switch (type) {
+            case 'b': return Boolean.parseBoolean(raw);
+            case 'i': return Integer.parseInt(raw);
+            case 'l': return Long.parseLong(raw);
+            case 'd': return Double.parseDouble(raw);
+            case 's': return raw;
+            default: throw new NumberFormatException("Unknown type tag '" + type + "'");
+        }
+    }
+
+    /**
+     * Decode one journal line, used by replay and by backends that store the same entries elsewhere
+     *
+     * @return the mutation, or null if the line is corrupt
+     */
+    static Mutation decode(String line) {
+        String[] parts = line.split("\t", 3);
+        if (parts.length < 2) {
+            return null;
+        }
+        String path = unescape(parts[1]);
+        if (DELETE.equals(parts[0])) {
+            return new Mutation(path, (char) 0, null);
+        }
+        if (!SET.equals(parts[0]) || parts.length < 3 || parts[2].isEmpty()) {
+            return null;
+        }
+
+        char type = parts[2].charAt(0);
+        String raw = unescape(parts[2].substring(1));
+        try {
+            return new Mutation(path, type, parseValue(type, raw));
+        } catch (NumberFormatException e) {
+            return null; // Corrupt entry - skip it rather than abort the whole replay
+        }
+    }
+
+    /**
+     * One decoded journal entry: a set of a typed leaf value, or a delete (null value) of a path and its children
+     */
+    static final class Mutation {
+        private final String path;
+        private final char type;
+        private final Object value;
+
+        private Mutation(String path, char type, Object value) {
+            this.path = path;
+            this.type = type;
+            this.value = value;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        char getType() {
+            return type;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        boolean isDelete() {
+            return value == null;
+        }
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': result.append("\\\\"); break;
+                case '\t': result.append("\\t"); break;
+                case '\n': result.append("\\n"); break;
+                case '\r': result.append("\\r"); break;
+                default: result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': result.append('\t'); break;
+                    case 'n': result.append('\n'); break;
+                    case 'r': result.append('\r'); break;
+                    default: result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -3,6 +3,7 @@ package de.connunity.util.challenge.data;
 import de.connunity.util.challenge.ChallengeUtil;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
@@ -10,23 +11,41 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 /**
- * Manages persistent data for timer and world state
+ * Manages persistent data for timer and world state.
+ * The live state is kept in memory; every change is journaled and written in the background
+ * through the configured {@link StorageBackend} (data.yml + data.journal, or an SQLite data.db).
  */
 public class DataManager {
     
     private final Plugin plugin;
-    private File dataFile;
     private FileConfiguration dataConfig;
+    private DataJournal journal;
+    private StorageBackend backend;
+    private WriteBehindWriter writer;
 
     // Runtime caches to reduce repeated YAML path lookups in hot event paths
     private final Map<String, Boolean> challengeCache = new HashMap<>();
     private final Map<UUID, String> playerTeamCache = new HashMap<>();
     private final Map<String, Set<UUID>> teamPlayersCache = new HashMap<>();
+    private final ChallengeRegistry challengeRegistry = new ChallengeRegistry();
+
+    // Challenge settings by ordinal, loaded once and updated on write (no YAML access on reads)
+    private final int[] challengeSettingValues = new int[ChallengeSetting.values().length];
+    private final boolean[] challengeSettingSaved = new boolean[ChallengeSetting.values().length];
+
+    // Team Race kill counters, folded into the store once per flush instead of on every kill
+    private final KillCounters killCounters = new KillCounters();
+
+    // Contexts of online players: by UUID for team updates, by Player identity for event handlers
+    private final Map<UUID, PlayerContext> contextsById = new HashMap<>();
+    private final Map<Player, PlayerContext> contextsByPlayer = new IdentityHashMap<>();
+    private final TeamRoster teamRoster = new TeamRoster();
     
     public DataManager(Plugin plugin) {
         this.plugin = plugin;
@@ -34,21 +53,53 @@ public class DataManager {
     }
     
     /**
-     * Load or create the data file
+     * Open the configured storage backend and load the data
      */
     private void loadData() {
-        dataFile = new File(plugin.getDataFolder(), "data.yml");
+        journal = new DataJournal(new File(plugin.getDataFolder(), "data.journal"));
         
-        if (!dataFile.exists()) {
-            try {
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                ((ChallengeUtil) plugin).logWarning("Failed to create data.yml: " + e.getMessage());
+        String backendName = plugin.getConfig().getString("data.backend", YamlStorageBackend.NAME);
+        backend = createBackend(backendName, journal);
+        if (backend == null) {
+            ((ChallengeUtil) plugin).logWarning("Unknown data.backend '" + backendName + "', using yaml");
+            backend = createBackend(YamlStorageBackend.NAME, journal);
+        }
+        
+        // A new SQLite database starts out empty - carry the existing data.yml over instead
+        boolean importYaml = false;
+        if (backend instanceof SqliteStorageBackend && !((SqliteStorageBackend) backend).getDatabaseFile().exists()) {
+            String databaseName = ((SqliteStorageBackend) backend).getDatabaseFile().getName();
+            if (new File(plugin.getDataFolder(), "data.yml").exists()) {
+                ((ChallengeUtil) plugin).logWarning(databaseName + " does not exist yet, importing data.yml into it");
+                importYaml = true;
+            } else {
+                ((ChallengeUtil) plugin).logDebug(databaseName + " does not exist yet, starting with empty data");
             }
         }
         
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
-        rebuildRuntimeCaches();
+        if (importYaml) {
+            StorageBackend yaml = createBackend(YamlStorageBackend.NAME, journal);
+            if (!readFromDisk(yaml)) {
+                ((ChallengeUtil) plugin).logWarning("Falling back to yaml storage for this session");
+                backend.close();
+                backend = yaml;
+                importYaml = false;
+            }
+        } else if (!readFromDisk(backend) && !(backend instanceof YamlStorageBackend)) {
+            // Never run on a backend that cannot be read - its first snapshot would wipe the stored data
+            ((ChallengeUtil) plugin).logWarning("Falling back to yaml storage for this session");
+            backend.close();
+            backend = createBackend(YamlStorageBackend.NAME, journal);
+            readFromDisk(backend);
+        }
+        
+        // Mutations are journaled and written in the background instead of on every setter call
+        writer = new WriteBehindWriter((ChallengeUtil) plugin, backend, journal, this::createSnapshot);
+        writer.setBeforeFlush(this::flushKillCounters);
+        writer.start(plugin.getConfig().getLong("data.flush-interval-ticks", 40L));
+        if (importYaml) {
+            writer.requestSnapshot(); // The first flush writes the imported data into the database
+        }
         
         // Initialize default gamerules if not present
         initializeDefaultGamerules();
@@ -58,13 +109,49 @@ public class DataManager {
      * Reload data from disk (used after full reset to ensure no stale data)
      */
     public void reloadData() {
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
-        rebuildRuntimeCaches();
+        // Make sure no queued write lands after (or races with) the reload
+        writer.flush();
+        readFromDisk(backend);
         ((ChallengeUtil) plugin).logDebug("Data configuration reloaded from disk");
     }
+    
+    /**
+     * Load the stored state from a backend into a fresh in-memory tree
+     *
+     * @return false if the backend could not be read (the state is left empty or partial)
+     */
+    private boolean readFromDisk(StorageBackend source) {
+        dataConfig = new YamlConfiguration();
+        boolean loaded = true;
+        try {
+            source.load(dataConfig);
+            ((ChallengeUtil) plugin).logDebug("Loaded data from " + source.getName() + " storage");
+        } catch (IOException e) {
+            ((ChallengeUtil) plugin).logWarning("Failed to load data from " + source.getName() + " storage: " + e.getMessage());
+            loaded = false;
+        }
+        rebuildRuntimeCaches();
+        return loaded;
+    }
 
     /**
-     * Rebuild in-memory runtime caches from data.yml state
+     * Create a backend by its config name, null if the name is unknown
+     */
+    private StorageBackend createBackend(String name, DataJournal yamlJournal) {
+        switch (name.toLowerCase()) {
+            case YamlStorageBackend.NAME:
+                return new YamlStorageBackend(new File(plugin.getDataFolder(), "data.yml"), yamlJournal,
+                        plugin.getConfig().getLong("data.compact-after-entries", 500L));
+            case SqliteStorageBackend.NAME:
+                return new SqliteStorageBackend(new File(plugin.getDataFolder(),
+                        plugin.getConfig().getString("data.sqlite-file", "data.db")));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Rebuild in-memory runtime caches from the loaded state
      */
     private void rebuildRuntimeCaches() {
         challengeCache.clear();
@@ -72,11 +159,24 @@ public class DataManager {
         teamPlayersCache.clear();
 
         org.bukkit.configuration.ConfigurationSection challengesSection = dataConfig.getConfigurationSection("challenges");
+        long enabledBits = 0L;
         if (challengesSection != null) {
             for (String challengeName : challengesSection.getKeys(false)) {
-                challengeCache.put(challengeName, challengesSection.getBoolean(challengeName));
+                boolean enabled = challengesSection.getBoolean(challengeName);
+                challengeCache.put(challengeName, enabled);
+                Challenge challenge = Challenge.fromKey(challengeName);
+                if (challenge != null && enabled) {
+                    enabledBits |= challenge.bit();
+                }
             }
         }
+        challengeRegistry.setAll(enabledBits);
+
+        for (ChallengeSetting setting : ChallengeSetting.values()) {
+            boolean saved = dataConfig.contains(setting.getPath());
+            challengeSettingSaved[setting.ordinal()] = saved;
+            challengeSettingValues[setting.ordinal()] = saved ? dataConfig.getInt(setting.getPath()) : setting.getDefaultValue();
+        }
 
         org.bukkit.configuration.ConfigurationSection teamsSection = dataConfig.getConfigurationSection("teams");
         if (teamsSection != null) {
@@ -94,6 +194,28 @@ public class DataManager {
                 }
             }
         }
+
+        for (PlayerContext context : contextsById.values()) {
+            moveContext(context, playerTeamCache.get(context.getPlayerId()));
+        }
+
+        killCounters.clear();
+        org.bukkit.configuration.ConfigurationSection killsSection = dataConfig.getConfigurationSection("teamrace.kills");
+        if (killsSection != null) {
+            for (String uuidString : killsSection.getKeys(false)) {
+                try {
+                    killCounters.loadPlayer(UUID.fromString(uuidString), killsSection.getLong(uuidString));
+                } catch (IllegalArgumentException ignored) {
+                    // Skip invalid UUID entries
+                }
+            }
+        }
+        org.bukkit.configuration.ConfigurationSection teamKillsSection = dataConfig.getConfigurationSection("teamrace.team-kills");
+        if (teamKillsSection != null) {
+            for (String team : teamKillsSection.getKeys(false)) {
+                killCounters.loadTeam(team, teamKillsSection.getLong(team));
+            }
+        }
     }
     
     /**
@@ -125,32 +247,228 @@ public class DataManager {
     }
     
     /**
-     * Save data to file
+     * Build an immutable snapshot of the current state for the writer thread (main thread only)
+     */
+    private DataSnapshot createSnapshot(long version) {
+        DataSnapshot.TimerState timer = null;
+        if (dataConfig.contains("timer.total-seconds")) {
+            timer = new DataSnapshot.TimerState(
+                    dataConfig.getLong("timer.total-seconds", 0),
+                    dataConfig.getBoolean("timer.running", false),
+                    dataConfig.getBoolean("timer.paused", false),
+                    dataConfig.getLong("timer.last-saved", 0));
+        }
+        Long worldSeed = dataConfig.contains("world.current-seed") ? dataConfig.getLong("world.current-seed") : null;
+
+        // Everything without a typed field is carried over as plain leaf values
+        Map<String, Object> otherValues = new java.util.LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : dataConfig.getValues(true).entrySet()) {
+            Object value = entry.getValue();
+            String path = entry.getKey();
+            if (value instanceof org.bukkit.configuration.ConfigurationSection || isSnapshotTypedPath(path)) {
+                continue;
+            }
+            if (value instanceof java.util.List) {
+                value = Collections.unmodifiableList(new java.util.ArrayList<>((java.util.List<?>) value));
+            }
+            otherValues.put(path, value);
+        }
+
+        return new DataSnapshot(version, timer, worldSeed, challengeCache, playerTeamCache, otherValues);
+    }
+
+    /**
+     * Paths that DataSnapshot stores as typed fields
+     */
+    private boolean isSnapshotTypedPath(String path) {
+        return path.startsWith("challenges.") || path.startsWith("teams.")
+                || path.equals("world.current-seed")
+                || path.equals("timer.total-seconds") || path.equals("timer.running")
+                || path.equals("timer.paused") || path.equals("timer.last-saved");
+    }
+    
+    /**
+     * Apply a mutation to the in-memory tree and record it in the journal
+     */
+    private void set(String path, Object value) {
+        dataConfig.set(path, value);
+        if (journal.record(path, value)) {
+            writer.markDirty();
+        } else {
+            writer.requestSnapshot();
+        }
+    }
+    
+    /**
+     * Mark data as changed outside the journal - written as a full snapshot on the next flush
      */
     public void save() {
+        writer.requestSnapshot();
+    }
+    
+    /**
+     * Compact the journal into a fresh snapshot and wait for it to be written
+     */
+    public void compact() {
+        writer.compact();
+    }
+    
+    /**
+     * Export the current state as a standalone YAML file (same format as data.yml)
+     */
+    public File exportYaml(File exportFile) throws IOException {
+        WriteBehindWriter.writeAtomically(exportFile, createSnapshot(-1L).toYaml());
+        return exportFile;
+    }
+    
+    /**
+     * Copy the current state into another backend (e.g. yaml to sqlite). The active backend is not
+     * switched - set data.backend in config.yml and restart to use the copy.
+     *
+     * @return number of values copied
+     * @throws IllegalArgumentException if the backend name is unknown or already active
+     */
+    public int migrateTo(String backendName) throws IOException {
+        if (backendName.equalsIgnoreCase(backend.getName())) {
+            throw new IllegalArgumentException(backendName + " storage is already active");
+        }
+        // Hand over the live journal: a yaml target is only possible while sqlite is active, which
+        // never writes data.journal, so the copy is its only user and starts it over with its snapshot
+        StorageBackend target = createBackend(backendName, journal);
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown storage backend: " + backendName);
+        }
+        
+        writer.flush(); // Folds buffered counters into the tree and drains queued writes
+        DataSnapshot snapshot = createSnapshot(-1L);
         try {
-            dataConfig.save(dataFile);
-        } catch (IOException e) {
-            ((ChallengeUtil) plugin).logWarning("Failed to save data.yml: " + e.getMessage());
+            target.writeSnapshot(snapshot);
+        } finally {
+            target.close();
         }
+        ((ChallengeUtil) plugin).logDebug("Copied data from " + backend.getName() + " to " + target.getName() + " storage");
+        return snapshot.toValues().size();
     }
     
     /**
-     * Save timer state
+     * The active storage backend (name and latency for /challengedata stats)
      */
-    public void saveTimerState(long totalSeconds, boolean running, boolean paused) {
-        dataConfig.set("timer.total-seconds", totalSeconds);
-        dataConfig.set("timer.running", running);
-        dataConfig.set("timer.paused", paused);
-        dataConfig.set("timer.last-saved", System.currentTimeMillis());
-        save();
+    public StorageBackend getStorageBackend() {
+        return backend;
     }
     
     /**
-     * Get saved timer seconds
+     * Number of journal entries written since the last compaction
      */
-    public long getTimerSeconds() {
-        return dataConfig.getLong("timer.total-seconds", 0);
+    public long getJournalEntries() {
+        return journal.getEntriesSinceCompaction();
+    }
+    
+    /**
+     * Number of snapshot compactions performed since startup
+     */
+    public long getCompactions() {
+        return writer.getCompactions();
+    }
+    
+    /**
+     * Flush barrier: block until every change made so far is written to disk
+     */
+    public void flush() {
+        writer.flush();
+    }
+    
+    /**
+     * Flush pending changes and stop the background writer (called on plugin disable)
+     */
+    public void shutdown() {
+        writer.shutdown();
+        ((ChallengeUtil) plugin).logDebug(backend.getName() + " storage writer stopped (" + writer.getDiskWrites() + " writes, "
+                + writer.getWritesCoalesced() + " coalesced, " + writer.getCompactions() + " compactions)");
+    }
+    
+    /**
+     * Number of changes that were folded into another disk write
+     */
+    public long getWritesCoalesced() {
+        return writer.getWritesCoalesced();
+    }
+    
+    /**
+     * Number of changes in memory that are not yet on disk
+     */
+    public long getPendingMutations() {
+        return writer.getPendingMutations();
+    }
+    
+    /**
+     * How long (ms) the oldest unwritten change has been waiting, 0 if the storage is up to date
+     */
+    public long getDiskLagMillis() {
+        return writer.getDiskLagMillis();
+    }
+    
+    /**
+     * Save timer state (elapsed run time in milliseconds; whole seconds are kept for older versions)
+     */
+    public void saveTimerState(long elapsedMillis, boolean running, boolean paused) {
+        set("timer.total-seconds", elapsedMillis / 1000);
+        set("timer.elapsed-millis", elapsedMillis);
+        set("timer.running", running);
+        set("timer.paused", paused);
+        set("timer.last-saved", System.currentTimeMillis());
+    }
+    
+    /**
+     * Get saved timer run time in milliseconds (falls back to whole seconds from older data)
+     */
+    public long getTimerMillis() {
+        if (dataConfig.contains("timer.elapsed-millis")) {
+            return dataConfig.getLong("timer.elapsed-millis", 0);
+        }
+        return dataConfig.getLong("timer.total-seconds", 0) * 1000;
+    }
+    
+    /**
+     * Wall-clock time of the last timer save (0 if never saved)
+     */
+    public long getTimerLastSaved() {
+        return dataConfig.getLong("timer.last-saved", 0);
+    }
+    
+    /**
+     * Check if the previous session saved the timer on a clean shutdown
+     */
+    public boolean wasCleanShutdown() {
+        return dataConfig.getBoolean("timer.clean-shutdown", false);
+    }
+    
+    /**
+     * Mark whether the timer state on disk is from a clean shutdown (false while the server runs)
+     */
+    public void setCleanShutdown(boolean clean) {
+        set("timer.clean-shutdown", clean);
+    }
+    
+    /**
+     * Save the run time (ms) at which a split was reached
+     */
+    public void saveTimerSplit(String key, long elapsedMillis) {
+        set("timer.splits." + key, elapsedMillis);
+    }
+    
+    /**
+     * Get the saved run time (ms) of a split, or -1 if it was not reached
+     */
+    public long getTimerSplit(String key) {
+        return dataConfig.getLong("timer.splits." + key, -1);
+    }
+    
+    /**
+     * Forget all splits (a new run starts)
+     */
+    public void clearTimerSplits() {
+        set("timer.splits", null);
     }
     
     /**
@@ -171,8 +489,7 @@ public class DataManager {
      * Save current world seed
      */
     public void saveWorldSeed(long seed) {
-        dataConfig.set("world.current-seed", seed);
-        save();
+        set("world.current-seed", seed);
     }
     
     /**
@@ -193,27 +510,24 @@ public class DataManager {
      * Clear all timer data (called on full reset)
      */
     public void clearTimerData() {
-        dataConfig.set("timer", null);
-        save();
+        set("timer", null);
     }
     
     /**
      * Clear all world data (called on full reset)
      */
     public void clearWorldData() {
-        dataConfig.set("world", null);
-        save();
+        set("world", null);
     }
     
     /**
      * Save challenge settings (persistent across resets)
      */
     public void saveChallengeSettings(String difficulty, boolean structures, boolean allowRespawn) {
-        dataConfig.set("settings.difficulty", difficulty);
-        dataConfig.set("settings.generate-structures", structures);
-        dataConfig.set("settings.allow-respawn", allowRespawn);
-        dataConfig.set("settings.last-modified", System.currentTimeMillis());
-        save();
+        set("settings.difficulty", difficulty);
+        set("settings.generate-structures", structures);
+        set("settings.allow-respawn", allowRespawn);
+        set("settings.last-modified", System.currentTimeMillis());
     }
     
     /**
@@ -254,16 +568,14 @@ public class DataManager {
      * Save a gamerule value (boolean)
      */
     public void saveGamerule(String gameruleName, boolean value) {
-        dataConfig.set("gamerules." + gameruleName, value);
-        save();
+        set("gamerules." + gameruleName, value);
     }
     
     /**
      * Save a gamerule value (integer)
      */
     public void saveGamerule(String gameruleName, int value) {
-        dataConfig.set("gamerules." + gameruleName, value);
-        save();
+        set("gamerules." + gameruleName, value);
     }
     
     /**
@@ -297,29 +609,57 @@ public class DataManager {
      * Clear saved settings (restore to defaults)
      */
     public void clearSettings() {
-        dataConfig.set("settings", null);
-        dataConfig.set("gamerules", null);
-        dataConfig.set("challenges", null);
-        dataConfig.set("challenge-settings", null);
+        set("settings", null);
+        set("gamerules", null);
+        set("challenges", null);
+        set("challenge-settings", null);
         challengeCache.clear();
-        save();
+        challengeRegistry.setAll(0L);
+        for (ChallengeSetting setting : ChallengeSetting.values()) {
+            challengeSettingSaved[setting.ordinal()] = false;
+            challengeSettingValues[setting.ordinal()] = setting.getDefaultValue();
+        }
     }
     
     /**
      * Save a challenge value (boolean)
      */
     public void saveChallenge(String challengeName, boolean value) {
-        dataConfig.set("challenges." + challengeName, value);
+        set("challenges." + challengeName, value);
         challengeCache.put(challengeName, value);
-        save();
+        Challenge challenge = Challenge.fromKey(challengeName);
+        if (challenge != null) {
+            challengeRegistry.set(challenge, value);
+        }
     }
     
     /**
      * Save a challenge setting value (integer)
      */
     public void saveChallengeSetting(String challengeName, String settingName, int value) {
-        dataConfig.set("challenge-settings." + challengeName + "." + settingName, value);
-        save();
+        ChallengeSetting setting = ChallengeSetting.fromKeys(challengeName, settingName);
+        if (setting != null) {
+            saveChallengeSetting(setting, value);
+            return;
+        }
+        set("challenge-settings." + challengeName + "." + settingName, value);
+    }
+    
+    /**
+     * Save a typed challenge setting value
+     */
+    public void saveChallengeSetting(ChallengeSetting setting, int value) {
+        set(setting.getPath(), value);
+        challengeSettingValues[setting.ordinal()] = value;
+        challengeSettingSaved[setting.ordinal()] = true;
+    }
+    
+    /**
+     * Get a typed challenge setting (returns the setting's default if never saved).
+     * Array read - safe to call on every event.
+     */
+    public int getChallengeSetting(ChallengeSetting setting) {
+        return challengeSettingValues[setting.ordinal()];
     }
     
     /**
@@ -332,10 +672,29 @@ public class DataManager {
         return challengeCache.get(challengeName);
     }
     
+    /**
+     * Check whether a challenge is enabled (unset counts as disabled).
+     * Single volatile field read - use this instead of getSavedChallenge in hot paths.
+     */
+    public boolean isChallengeEnabled(Challenge challenge) {
+        return challengeRegistry.isEnabled(challenge);
+    }
+    
+    /**
+     * Registry of enabled challenges, for subscribing to toggles
+     */
+    public ChallengeRegistry getChallengeRegistry() {
+        return challengeRegistry;
+    }
+    
     /**
      * Get saved challenge setting value (returns null if not set)
      */
     public Integer getSavedChallengeSetting(String challengeName, String settingName) {
+        ChallengeSetting setting = ChallengeSetting.fromKeys(challengeName, settingName);
+        if (setting != null) {
+            return challengeSettingSaved[setting.ordinal()] ? challengeSettingValues[setting.ordinal()] : null;
+        }
         if (!dataConfig.contains("challenge-settings." + challengeName + "." + settingName)) {
             return null;
         }
@@ -360,7 +719,7 @@ public class DataManager {
      * Set a player's team for manhunt mode
      */
     public void setPlayerTeam(java.util.UUID playerId, String team) {
-        dataConfig.set("teams." + playerId.toString(), team);
+        set("teams." + playerId.toString(), team);
 
         if (team == null) {
             removePlayerTeam(playerId);
@@ -369,17 +728,10 @@ public class DataManager {
 
         String oldTeam = playerTeamCache.put(playerId, team);
         if (oldTeam != null && !oldTeam.equals(team)) {
-            Set<UUID> oldTeamPlayers = teamPlayersCache.get(oldTeam);
-            if (oldTeamPlayers != null) {
-                oldTeamPlayers.remove(playerId);
-                if (oldTeamPlayers.isEmpty()) {
-                    teamPlayersCache.remove(oldTeam);
-                }
-            }
+            removeFromTeamCache(oldTeam, playerId);
         }
         teamPlayersCache.computeIfAbsent(team, key -> new HashSet<>()).add(playerId);
-
-        save();
+        updateContextTeam(playerId, team);
     }
     
     /**
@@ -393,20 +745,43 @@ public class DataManager {
      * Remove a player from their team
      */
     public void removePlayerTeam(java.util.UUID playerId) {
-        dataConfig.set("teams." + playerId.toString(), null);
+        set("teams." + playerId.toString(), null);
 
         String oldTeam = playerTeamCache.remove(playerId);
         if (oldTeam != null) {
-            Set<UUID> oldTeamPlayers = teamPlayersCache.get(oldTeam);
-            if (oldTeamPlayers != null) {
-                oldTeamPlayers.remove(playerId);
-                if (oldTeamPlayers.isEmpty()) {
-                    teamPlayersCache.remove(oldTeam);
-                }
+            removeFromTeamCache(oldTeam, playerId);
+        }
+        updateContextTeam(playerId, null);
+    }
+
+    private void removeFromTeamCache(String team, UUID playerId) {
+        Set<UUID> teamPlayers = teamPlayersCache.get(team);
+        if (teamPlayers != null) {
+            teamPlayers.remove(playerId);
+            if (teamPlayers.isEmpty()) {
+                teamPlayersCache.remove(team);
             }
         }
+    }
 
-        save();
+    private void updateContextTeam(UUID playerId, String team) {
+        PlayerContext context = contextsById.get(playerId);
+        if (context != null) {
+            moveContext(context, team);
+        }
+    }
+
+    /**
+     * Move an online player's context (and roster entry) to another team
+     */
+    private void moveContext(PlayerContext context, String team) {
+        int teamId = teamRoster.intern(team);
+        if (teamId == context.getTeamId()) {
+            return;
+        }
+        teamRoster.remove(context);
+        context.setTeam(team, teamId);
+        teamRoster.add(context);
     }
     
     /**
@@ -420,14 +795,68 @@ public class DataManager {
         return Collections.unmodifiableSet(players);
     }
     
+    /**
+     * Create the context of a player who just joined
+     */
+    public PlayerContext createPlayerContext(Player player) {
+        String team = playerTeamCache.get(player.getUniqueId());
+        PlayerContext context = new PlayerContext(player, team, teamRoster.intern(team));
+        PlayerContext previous = contextsById.put(player.getUniqueId(), context);
+        if (previous != null) {
+            // Rejoin before the old Player object was cleaned up
+            contextsByPlayer.remove(previous.getPlayer());
+            teamRoster.remove(previous);
+        }
+        contextsByPlayer.put(player, context);
+        teamRoster.add(context);
+        return context;
+    }
+
+    /**
+     * Get the context of an online player (single identity lookup).
+     * Falls back to creating one for players seen before their join event was handled;
+     * players that already left get a detached context so nothing is leaked.
+     */
+    public PlayerContext getPlayerContext(Player player) {
+        PlayerContext context = contextsByPlayer.get(player);
+        if (context != null) {
+            return context;
+        }
+        if (!player.isOnline()) {
+            String team = playerTeamCache.get(player.getUniqueId());
+            return new PlayerContext(player, team, teamRoster.intern(team));
+        }
+        return createPlayerContext(player);
+    }
+
+    /**
+     * Drop the context of a player who left the server
+     */
+    public void removePlayerContext(Player player) {
+        PlayerContext context = contextsByPlayer.remove(player);
+        if (context != null) {
+            contextsById.remove(context.getPlayerId(), context);
+            teamRoster.remove(context);
+        }
+    }
+
+    /**
+     * Online team members by interned team id (allocation-free iteration for periodic tasks)
+     */
+    public TeamRoster getTeamRoster() {
+        return teamRoster;
+    }
+    
     /**
      * Clear all team data
      */
     public void clearTeams() {
-        dataConfig.set("teams", null);
+        set("teams", null);
         playerTeamCache.clear();
         teamPlayersCache.clear();
-        save();
+        for (PlayerContext context : contextsById.values()) {
+            moveContext(context, null);
+        }
     }
     
     /**
@@ -464,51 +893,83 @@ public class DataManager {
         
         // Remove all offline players from teams
         for (String uuidString : uuidsToRemove) {
-            dataConfig.set("teams." + uuidString, null);
+            set("teams." + uuidString, null);
             try {
                 UUID playerId = UUID.fromString(uuidString);
                 String oldTeam = playerTeamCache.remove(playerId);
                 if (oldTeam != null) {
-                    Set<UUID> oldTeamPlayers = teamPlayersCache.get(oldTeam);
-                    if (oldTeamPlayers != null) {
-                        oldTeamPlayers.remove(playerId);
-                        if (oldTeamPlayers.isEmpty()) {
-                            teamPlayersCache.remove(oldTeam);
-                        }
-                    }
+                    removeFromTeamCache(oldTeam, playerId);
                 }
+                updateContextTeam(playerId, null);
             } catch (IllegalArgumentException ignored) {
                 // Invalid UUIDs are already being cleaned from file; no cache entry expected
             }
         }
-        
-        if (!uuidsToRemove.isEmpty()) {
-            save();
-        }
     }
     
     /**
      * Increment kill count for a player in Team Race mode
      */
     public void incrementTeamRaceKills(java.util.UUID playerId) {
-        int currentKills = getTeamRaceKills(playerId);
-        dataConfig.set("teamrace.kills." + playerId.toString(), currentKills + 1);
-        save();
+        incrementTeamRaceKills(playerId, getPlayerTeam(playerId));
+    }
+    
+    /**
+     * Increment kill count for a player and their team in Team Race mode.
+     * Only bumps in-memory counters - they are written with the next flush.
+     */
+    public void incrementTeamRaceKills(java.util.UUID playerId, String team) {
+        killCounters.increment(playerId, team);
+        writer.markDirty();
     }
     
     /**
      * Get kill count for a player in Team Race mode
      */
     public int getTeamRaceKills(java.util.UUID playerId) {
-        return dataConfig.getInt("teamrace.kills." + playerId.toString(), 0);
+        return (int) killCounters.getPlayerKills(playerId);
+    }
+    
+    /**
+     * Get kill count for a team in Team Race mode
+     */
+    public long getTeamRaceTeamKills(String team) {
+        return killCounters.getTeamKills(team);
+    }
+    
+    /**
+     * Players with the most Team Race kills, highest first (answered from memory)
+     */
+    public java.util.List<KillCounters.Entry<UUID>> getTopTeamRaceKillers(int limit) {
+        return killCounters.getTopPlayers(limit);
+    }
+    
+    /**
+     * Teams with the most Team Race kills, highest first (answered from memory)
+     */
+    public java.util.List<KillCounters.Entry<String>> getTopTeamRaceTeams(int limit) {
+        return killCounters.getTopTeams(limit);
+    }
+    
+    /**
+     * Copy kill counters changed since the last flush into the store (runs at the start of each flush)
+     */
+    private void flushKillCounters() {
+        for (UUID playerId : killCounters.drainDirtyPlayers()) {
+            set("teamrace.kills." + playerId, killCounters.getPlayerKills(playerId));
+        }
+        for (String team : killCounters.drainDirtyTeams()) {
+            set("teamrace.team-kills." + team, killCounters.getTeamKills(team));
+        }
     }
     
     /**
      * Clear all Team Race kill data
      */
     public void clearTeamRaceKills() {
-        dataConfig.set("teamrace.kills", null);
-        save();
+        killCounters.clear();
+        set("teamrace.kills", null);
+        set("teamrace.team-kills", null);
     }
     
     /**
@@ -518,26 +979,27 @@ public class DataManager {
      */
     public void clearAllData() {
         // Clear timer data
-        dataConfig.set("timer", null);
+        set("timer", null);
         
         // Clear world data (including seed)
-        dataConfig.set("world", null);
+        set("world", null);
         
-        // Clear team race data
-        dataConfig.set("teamrace", null);
+        // Clear team race data (including buffered kill counters, so the flush cannot write them back)
+        killCounters.clear();
+        set("teamrace", null);
         
         // Clear speedrun milestones (nether/end tracking)
         // This is critical to ensure nether and end portal data is reset
-        dataConfig.set("speedrun", null);
-        dataConfig.set("speedrun.nether-entered", null);
-        dataConfig.set("speedrun.end-entered", null);
-        dataConfig.set("speedrun.first-nether-time", null);
-        dataConfig.set("speedrun.first-end-time", null);
+        set("speedrun", null);
+        set("speedrun.nether-entered", null);
+        set("speedrun.end-entered", null);
+        set("speedrun.first-nether-time", null);
+        set("speedrun.first-end-time", null);
         
         // Deliberately NOT clearing: teams, settings, gamerules, challenges
         
         // Force immediate save to disk to ensure data is cleared before world regeneration
-        save();
+        compact();
         
         // Reload from disk to ensure in-memory config matches disk state
         reloadData();
@@ -0,0 +1,143 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned copy of the persistent plugin state.
+ * Built on the main thread and handed to the writer thread, which is the only place
+ * that serializes it - the live YamlConfiguration is never touched off the main thread.
+ */
+public final class DataSnapshot {
+
+    // data.yml key holding the journal generation the snapshot already covers
+    static final String JOURNAL_GENERATION_KEY = "journal-generation";
+
+    private final long version;
+    private final TimerState timer; // null if no timer data is stored
+    private final Long worldSeed;   // null if no world seed is stored
+    private final Map<String, Boolean> challenges;
+    private final Map<UUID, String> teams;
+    private final Map<String, Object> otherValues; // Remaining leaf values keyed by full YAML path
+
+    public DataSnapshot(long version, TimerState timer, Long worldSeed, Map<String, Boolean> challenges,
+                        Map<UUID, String> teams, Map<String, Object> otherValues) {
+        this.version = version;
+        this.timer = timer;
+        this.worldSeed = worldSeed;
+        this.challenges = Collections.unmodifiableMap(new LinkedHashMap<>(challenges));
+        this.teams = Collections.unmodifiableMap(new LinkedHashMap<>(teams));
+        this.otherValues = Collections.unmodifiableMap(new LinkedHashMap<>(otherValues));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public TimerState getTimer() {
+        return timer;
+    }
+
+    public Long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public Map<String, Boolean> getChallenges() {
+        return challenges;
+    }
+
+    public Map<UUID, String> getTeams() {
+        return teams;
+    }
+
+    public Map<String, Object> getOtherValues() {
+        return otherValues;
+    }
+
+    /**
+     * Serialize into data.yml format. Uses a private YamlConfiguration, so this is safe on any thread.
+     */
+    public String toYaml() {
+        return buildYaml().saveToString();
+    }
+
+    /**
+     * Serialize into data.yml format, stamped with the journal generation this snapshot covers
+     */
+    String toYaml(long journalGeneration) {
+        YamlConfiguration yaml = buildYaml();
+        yaml.set(JOURNAL_GENERATION_KEY, journalGeneration);
+        return yaml.saveToString();
+    }
+
+    private YamlConfiguration buildYaml() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : toValues().entrySet()) {
+            yaml.set(entry.getKey(), entry.getValue());
+        }
+        return yaml;
+    }
+
+    /**
+     * All leaf values keyed by full path, in data.yml order (used by backends that store flat entries)
+     */
+    public Map<String, Object> toValues() {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        if (timer != null) {
+            values.put("timer.total-seconds", timer.totalSeconds);
+            values.put("timer.running", timer.running);
+            values.put("timer.paused", timer.paused);
+            values.put("timer.last-saved", timer.lastSaved);
+        }
+        if (worldSeed != null) {
+            values.put("world.current-seed", worldSeed);
+        }
+        for (Map.Entry<String, Boolean> entry : challenges.entrySet()) {
+            values.put("challenges." + entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<UUID, String> entry : teams.entrySet()) {
+            values.put("teams." + entry.getKey(), entry.getValue());
+        }
+        values.putAll(otherValues);
+
+        return values;
+    }
+
+    /**
+     * Timer part of the snapshot
+     */
+    public static final class TimerState {
+        private final long totalSeconds;
+        private final boolean running;
+        private final boolean paused;
+        private final long lastSaved;
+
+        public TimerState(long totalSeconds, boolean running, boolean paused, long lastSaved) {
+            this.totalSeconds = totalSeconds;
+            this.running = running;
+            this.paused = paused;
+            this.lastSaved = lastSaved;
+        }
+
+        public long getTotalSeconds() {
+            return totalSeconds;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public boolean isPaused() {
+            return paused;
+        }
+
+        public long getLastSaved() {
+            return lastSaved;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package de.connunity.util.challenge.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Team Race kill counters per player and per team.
+ * A kill is a LongAdder increment; DataManager copies the changed counters into data.yml when the
+ * write-behind writer flushes, so PvP never touches the YAML tree or the disk directly.
+ * Leaderboards are answered from memory with a bounded heap (O(N log K) for the top K).
+ */
+public class KillCounters {
+
+    /**
+     * One leaderboard row
+     */
+    public static final class Entry<K> {
+        private final K key;
+        private final long kills;
+
+        Entry(K key, long kills) {
+            this.key = key;
+            this.kills = kills;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getKills() {
+            return kills;
+        }
+    }
+
+    private final Map<UUID, LongAdder> playerKills = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> teamKills = new ConcurrentHashMap<>();
+
+    // Counters changed since the last flush
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtyTeams = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Record a kill for a player and (if not null) their team
+     */
+    public void increment(UUID playerId, String team) {
+        playerKills.computeIfAbsent(playerId, key -> new LongAdder()).increment();
+        dirtyPlayers.add(playerId);
+        if (team != null) {
+            teamKills.computeIfAbsent(team, key -> new LongAdder()).increment();
+            dirtyTeams.add(team);
+        }
+    }
+
+    public long getPlayerKills(UUID playerId) {
+        LongAdder kills = playerKills.get(playerId);
+        return kills == null ? 0L : kills.sum();
+    }
+
+    public long getTeamKills(String team) {
+        LongAdder kills = teamKills.get(team);
+        return kills == null ? 0L : kills.sum();
+    }
+
+    /**
+     * Players with the most kills, highest first
+     */
+    public List<Entry<UUID>> getTopPlayers(int limit) {
+        return top(playerKills, limit);
+    }
+
+    /**
+     * Teams with the most kills, highest first
+     */
+    public List<Entry<String>> getTopTeams(int limit) {
+        return top(teamKills, limit);
+    }
+
+    private static <K> List<Entry<K>> top(Map<K, LongAdder> counters, int limit) {
+        if (limit <= 0 || counters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Min-heap of the best K seen so far - the weakest entry is evicted first
+        PriorityQueue<Entry<K>> heap = new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(a.kills, b.kills));
+        for (Map.Entry<K, LongAdder> counter : counters.entrySet()) {
+            long kills = counter.getValue().sum();
+            if (kills <= 0L) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(new Entry<>(counter.getKey(), kills));
+            } else if (kills > heap.peek().kills) {
+                heap.poll();
+                heap.add(new Entry<>(counter.getKey(), kills));
+            }
+        }
+        List<Entry<K>> result = new ArrayList<>(heap);
+        result.sort((a, b) -> Long.compare(b.kills, a.kills));
+        return result;
+    }
+
+    /**
+     * Take the players whose counters changed since the last call
+     */
+    Set<UUID> drainDirtyPlayers() {
+        return drain(dirtyPlayers);
+    }
+
+    /**
+     * Take the teams whose counters changed since the last call
+     */
+    Set<String> drainDirtyTeams() {
+        return drain(dirtyTeams);
+    }
+
+    private static <K> Set<K> drain(Set<K> dirty) {
+        if (dirty.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<K> drained = new HashSet<>();
+        for (K key : dirty) {
+            drained.add(key);
+            dirty.remove(key);
+        }
+        return drained;
+    }
+
+    /**
+     * Load a persisted player counter (startup/reload)
+     */
+    void loadPlayer(UUID playerId, long kills) {
+        LongAdder counter = new LongAdder();
+        counter.add(kills);
+        playerKills.put(playerId, counter);
+    }
+
+    /**
+     * Load a persisted team counter (startup/reload)
+     */
+    void loadTeam(String team, long kills) {
+        LongAdder counter = new LongAdder();
+        counter.add(kills);
+        teamKills.put(team, counter);
+    }
+
+    /**
+     * Forget all counters (and pending changes)
+     */
+    void clear() {
+        playerKills.clear();
+        teamKills.clear();
+        dirtyPlayers.clear();
+        dirtyTeams.clear();
+    }
+}
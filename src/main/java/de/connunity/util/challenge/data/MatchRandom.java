@@ -0,0 +1,74 @@
+package de.connunity.util.challenge.data;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Randomness for the current match, derived from the world seed.
+ * Every challenge gets its own stream, and every player their own stream per challenge, so the
+ * same seed replays the same outcomes no matter how the rolls of different challenges or players
+ * interleave. Streams are seeded by hashing (match seed, challenge key, player UUID), so they are
+ * independent. Their position is not saved: after a restart every stream starts over from its
+ * seed, so drawn rolls (timed items, friendly fire items) replay from the beginning.
+ *
+ * Not thread-safe: streams are handed out and used on the main thread.
+ */
+public class MatchRandom {
+
+    private long matchSeed;
+    private final Map<Challenge, SplittableRandom> challengeStreams = new EnumMap<>(Challenge.class);
+    private final Map<Challenge, Map<UUID, SplittableRandom>> playerStreams = new EnumMap<>(Challenge.class);
+
+    public MatchRandom(long matchSeed) {
+        this.matchSeed = matchSeed;
+    }
+
+    /**
+     * Start a new match: all streams restart from the new seed
+     */
+    public void reseed(long matchSeed) {
+        this.matchSeed = matchSeed;
+        challengeStreams.clear();
+        playerStreams.clear();
+    }
+
+    public long getMatchSeed() {
+        return matchSeed;
+    }
+
+    /**
+     * Seed of a challenge's stream, for challenges that hash their outcomes instead of drawing them
+     */
+    public long seedFor(Challenge challenge) {
+        // The data.yml key rather than the ordinal, so reordering the enum keeps old seeds valid
+        return mix(matchSeed ^ mix(challenge.getKey().hashCode()));
+    }
+
+    /**
+     * Stream shared by all rolls of a challenge that are not tied to one player
+     */
+    public SplittableRandom forChallenge(Challenge challenge) {
+        return challengeStreams.computeIfAbsent(challenge, c -> new SplittableRandom(seedFor(c)));
+    }
+
+    /**
+     * Stream for one player's rolls in a challenge - unaffected by what other players roll
+     */
+    public SplittableRandom forPlayer(Challenge challenge, UUID playerId) {
+        return playerStreams.computeIfAbsent(challenge, c -> new HashMap<>())
+                .computeIfAbsent(playerId, id -> new SplittableRandom(mix(seedFor(challenge)
+                        ^ mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits())))));
+    }
+
+    /**
+     * SplitMix64 finalizer - every input bit affects every output bit
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
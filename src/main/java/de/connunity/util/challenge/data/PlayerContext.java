@@ -0,0 +1,73 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * Per-session state of an online player, created on join and dropped on quit.
+ * DataManager keeps the team and role up to date whenever the team changes, so event handlers
+ * read them with a single lookup and never see a stale value.
+ */
+public final class PlayerContext {
+
+    private final Player player;
+    private final UUID playerId;
+    private String team;
+    private int teamId = TeamRoster.NO_TEAM;
+    private int rosterSlot = -1; // Index in the team's roster array, -1 if not listed
+    private PlayerRole role;
+
+    PlayerContext(Player player, String team, int teamId) {
+        this.player = player;
+        this.playerId = player.getUniqueId();
+        setTeam(team, teamId);
+    }
+
+    /**
+     * Update the team (DataManager only)
+     */
+    void setTeam(String team, int teamId) {
+        this.team = team;
+        this.teamId = teamId;
+        this.role = PlayerRole.fromTeam(team);
+    }
+
+    int getRosterSlot() {
+        return rosterSlot;
+    }
+
+    void setRosterSlot(int rosterSlot) {
+        this.rosterSlot = rosterSlot;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Team name as stored in data.yml (null if the player has no team)
+     */
+    public String getTeam() {
+        return team;
+    }
+
+    /**
+     * Interned team id, see {@link TeamRoster} (NO_TEAM if the player has no team)
+     */
+    public int getTeamId() {
+        return teamId;
+    }
+
+    public PlayerRole getRole() {
+        return role;
+    }
+
+    public boolean hasRole(PlayerRole role) {
+        return this.role == role;
+    }
+}
@@ -0,0 +1,38 @@
+package de.connunity.util.challenge.data;
+
+/**
+ * Role of a player derived from their team name, so hot paths compare enums instead of strings
+ */
+public enum PlayerRole {
+
+    NONE,       // No team
+    RUNNER,     // Manhunt runner
+    HUNTER,     // Manhunt hunter
+    STREAMER,   // Connunity Hunt streamer
+    VIEWER,     // Connunity Hunt viewer
+    SPECTATOR,
+    RACE_TEAM;  // Member of a Team Race team (team name is the color)
+
+    /**
+     * Map a team name from data.yml to its role
+     */
+    public static PlayerRole fromTeam(String team) {
+        if (team == null || team.isEmpty()) {
+            return NONE;
+        }
+        switch (team) {
+            case "runner":
+                return RUNNER;
+            case "hunter":
+                return HUNTER;
+            case "Streamer":
+                return STREAMER;
+            case "Viewer":
+                return VIEWER;
+            case "spectator":
+                return SPECTATOR;
+            default:
+                return RACE_TEAM;
+        }
+    }
+}
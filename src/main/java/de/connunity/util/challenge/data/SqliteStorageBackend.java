@@ -0,0 +1,242 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded SQLite backend: every leaf value is one row (path, type tag, value) in a local data.db file.
+ * Uses the SQLite JDBC driver bundled with the server, so no external database is needed.
+ *
+ * OPTIMIZED: the database runs in WAL mode, all statements are prepared once, each journal batch is
+ * applied in a single transaction and snapshots are written with JDBC batching. Rows are updated in
+ * place, so unlike data.yml there is no log that needs compacting.
+ */
+public class SqliteStorageBackend implements StorageBackend {
+
+    public static final String NAME = "sqlite";
+
+    private static final char YAML_TYPE = 'y'; // Values the journal line format cannot carry (e.g. lists)
+
+    private final File databaseFile;
+    private final StorageLatency readLatency = new StorageLatency();
+    private final StorageLatency writeLatency = new StorageLatency();
+
+    // Guarded by this - loads run on the main thread, writes on the writer thread
+    private Connection connection;
+    private PreparedStatement upsert;
+    private PreparedStatement deleteExact;
+    private PreparedStatement deleteTree;
+
+    public SqliteStorageBackend(File databaseFile) {
+        this.databaseFile = databaseFile;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public File getDatabaseFile() {
+        return databaseFile;
+    }
+
+    /**
+     * Open the database on first use and prepare the statements
+     */
+    private Connection connection() throws IOException {
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite JDBC driver is not available on this server", e);
+        }
+        try {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS entries ("
+                        + "path TEXT PRIMARY KEY, type TEXT NOT NULL, value TEXT NOT NULL) WITHOUT ROWID");
+            }
+            connection.setAutoCommit(false);
+            upsert = connection.prepareStatement("INSERT OR REPLACE INTO entries (path, type, value) VALUES (?, ?, ?)");
+            deleteExact = connection.prepareStatement("DELETE FROM entries WHERE path = ?");
+            // Children of a path sort between "path." and "path/" ('/' follows '.')
+            deleteTree = connection.prepareStatement("DELETE FROM entries WHERE path >= ? AND path < ?");
+            connection.commit();
+        } catch (SQLException e) {
+            close();
+            throw new IOException("Failed to open " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        return connection;
+    }
+
+    @Override
+    public synchronized void load(FileConfiguration target) throws IOException {
+        long start = System.nanoTime();
+        Connection db = connection();
+        try (Statement statement = db.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT path, type, value FROM entries")) {
+            while (rows.next()) {
+                String path = rows.getString(1);
+                String type = rows.getString(2);
+                try {
+                    target.set(path, decodeValue(type.isEmpty() ? 0 : type.charAt(0), rows.getString(3)));
+                } catch (NumberFormatException | InvalidConfigurationException e) {
+                    // Corrupt row - skip it rather than abort the whole load
+                }
+            }
+            db.commit();
+        } catch (SQLException e) {
+            throw new IOException("Failed to read " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        readLatency.recordSince(start);
+    }
+
+    @Override
+    public synchronized void append(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Connection db = connection();
+        try {
+            // Executed in order so a delete followed by a set of the same path behaves like the YAML tree
+            for (String line : lines) {
+                DataJournal.Mutation mutation = DataJournal.decode(line);
+                if (mutation == null) {
+                    continue;
+                }
+                String path = mutation.getPath();
+                deleteChildren(path);
+                if (mutation.isDelete()) {
+                    deleteExact.setString(1, path);
+                    deleteExact.executeUpdate();
+                } else {
+                    deleteLeafParents(path);
+                    upsert.setString(1, path);
+                    upsert.setString(2, String.valueOf(mutation.getType()));
+                    upsert.setString(3, String.valueOf(mutation.getValue()));
+                    upsert.executeUpdate();
+                }
+            }
+            db.commit();
+        } catch (SQLException e) {
+            rollback(db);
+            throw new IOException("Failed to write " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        writeLatency.recordSince(start);
+    }
+
+    @Override
+    public synchronized void writeSnapshot(DataSnapshot snapshot) throws IOException {
+        long start = System.nanoTime();
+        Connection db = connection();
+        try {
+            try (Statement statement = db.createStatement()) {
+                statement.executeUpdate("DELETE FROM entries");
+            }
+            for (Map.Entry<String, Object> entry : snapshot.toValues().entrySet()) {
+                Object value = entry.getValue();
+                char type = DataJournal.typeOf(value);
+                upsert.setString(1, entry.getKey());
+                upsert.setString(2, String.valueOf(type == 0 ? YAML_TYPE : type));
+                upsert.setString(3, type == 0 ? encodeYaml(value) : String.valueOf(value));
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            db.commit();
+        } catch (SQLException e) {
+            rollback(db);
+            throw new IOException("Failed to write " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        writeLatency.recordSince(start);
+    }
+
+    /**
+     * Setting or deleting a path replaces everything below it
+     */
+    private void deleteChildren(String path) throws SQLException {
+        deleteTree.setString(1, path + ".");
+        deleteTree.setString(2, path + "/");
+        deleteTree.executeUpdate();
+    }
+
+    /**
+     * Setting a nested path turns any leaf value on the way into a section
+     */
+    private void deleteLeafParents(String path) throws SQLException {
+        for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+            deleteExact.setString(1, path.substring(0, dot));
+            deleteExact.executeUpdate();
+        }
+    }
+
+    private static Object decodeValue(char type, String raw) throws InvalidConfigurationException {
+        if (type == YAML_TYPE) {
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.loadFromString(raw);
+            return yaml.get("value");
+        }
+        return DataJournal.parseValue(type, raw);
+    }
+
+    private static String encodeYaml(Object value) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("value", value);
+        return yaml.saveToString();
+    }
+
+    private static void rollback(Connection db) {
+        try {
+            db.rollback();
+        } catch (SQLException ignored) {
+            // The failed transaction is discarded when the connection closes
+        }
+    }
+
+    @Override
+    public boolean isCompactionDue(long entriesSinceCompaction) {
+        return false; // Rows are updated in place
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close(); // Closes the prepared statements and checkpoints the WAL
+        } catch (SQLException ignored) {
+            // Nothing left to do on shutdown
+        }
+        connection = null;
+        upsert = null;
+        deleteExact = null;
+        deleteTree = null;
+    }
+
+    @Override
+    public StorageLatency getReadLatency() {
+        return readLatency;
+    }
+
+    @Override
+    public StorageLatency getWriteLatency() {
+        return writeLatency;
+    }
+}
@@ -0,0 +1,58 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the persistent plugin state lives on disk.
+ * DataManager keeps the live state in memory and records every mutation in the {@link DataJournal};
+ * the {@link WriteBehindWriter} hands batches of journal lines or full snapshots to the backend on its
+ * I/O thread. Loading happens on the main thread (startup and reload, after a flush barrier).
+ *
+ * Implementations: {@link YamlStorageBackend} (data.yml + data.journal) and
+ * {@link SqliteStorageBackend} (embedded data.db file). Selected with {@code data.backend} in config.yml.
+ */
+public interface StorageBackend {
+
+    /**
+     * Short name used in config.yml, commands and log messages
+     */
+    String getName();
+
+    /**
+     * Read the stored state into an empty configuration (main thread)
+     */
+    void load(FileConfiguration target) throws IOException;
+
+    /**
+     * Persist a batch of journal lines in order (I/O thread)
+     */
+    void append(List<String> lines) throws IOException;
+
+    /**
+     * Replace the stored state with a full snapshot (I/O thread)
+     */
+    void writeSnapshot(DataSnapshot snapshot) throws IOException;
+
+    /**
+     * Whether the incremental log has grown enough that the next flush should write a full snapshot instead
+     */
+    boolean isCompactionDue(long entriesSinceCompaction);
+
+    /**
+     * Release files and connections (called once the writer thread has stopped)
+     */
+    void close();
+
+    /**
+     * Latency of {@link #load}
+     */
+    StorageLatency getReadLatency();
+
+    /**
+     * Latency of {@link #append} and {@link #writeSnapshot}
+     */
+    StorageLatency getWriteLatency();
+}
@@ -0,0 +1,38 @@
+package de.connunity.util.challenge.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of one kind of storage operation (count, average and worst case).
+ * Recorded on the writer thread, read on the main thread for /challengedata stats.
+ */
+public class StorageLatency {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record one operation that started at the given System.nanoTime() value
+     */
+    public void recordSince(long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getAverageMillis() {
+        long operations = count.sum();
+        return operations == 0 ? 0.0 : totalNanos.sum() / (double) operations / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
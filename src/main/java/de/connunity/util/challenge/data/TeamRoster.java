@@ -0,0 +1,122 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Online members of every team, indexed by small interned team ids.
+ * Each team keeps a dense array of Player references that DataManager maintains on join, quit and
+ * team change, so walking "all online hunters" is an index loop without allocation or UUID lookups:
+ *
+ * <pre>
+ * int hunters = roster.intern("hunter");
+ * for (int i = 0; i &lt; roster.size(hunters); i++) {
+ *     Player hunter = roster.get(hunters, i);
+ * }
+ * </pre>
+ *
+ * Removal swaps the last member into the freed slot, so do not change teams while walking a team -
+ * collect the players first in that case. Main thread only.
+ */
+public final class TeamRoster {
+
+    public static final int NO_TEAM = -1;
+
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private String[] names = new String[8];
+    private Player[][] members = new Player[8][];
+    private PlayerContext[][] contexts = new PlayerContext[8][];
+    private int[] sizes = new int[8];
+    private int teamCount = 0;
+
+    /**
+     * Get the id of a team, assigning the next free id on first use (NO_TEAM for null)
+     */
+    public int intern(String team) {
+        if (team == null || team.isEmpty()) {
+            return NO_TEAM;
+        }
+        Integer id = idsByName.get(team);
+        if (id != null) {
+            return id;
+        }
+        if (teamCount == names.length) {
+            int capacity = teamCount * 2;
+            names = Arrays.copyOf(names, capacity);
+            members = Arrays.copyOf(members, capacity);
+            contexts = Arrays.copyOf(contexts, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        int newId = teamCount++;
+        names[newId] = team;
+        members[newId] = new Player[4];
+        contexts[newId] = new PlayerContext[4];
+        idsByName.put(team, newId);
+        return newId;
+    }
+
+    /**
+     * Team name for an id (null for NO_TEAM)
+     */
+    public String getName(int teamId) {
+        return teamId == NO_TEAM ? null : names[teamId];
+    }
+
+    /**
+     * Number of online members of a team
+     */
+    public int size(int teamId) {
+        return teamId == NO_TEAM ? 0 : sizes[teamId];
+    }
+
+    /**
+     * Online member at an index between 0 and size(teamId) - 1
+     */
+    public Player get(int teamId, int index) {
+        return members[teamId][index];
+    }
+
+    /**
+     * Add an online player's context to its team (DataManager only)
+     */
+    void add(PlayerContext context) {
+        int teamId = context.getTeamId();
+        if (teamId == NO_TEAM || context.getRosterSlot() >= 0) {
+            return;
+        }
+        int size = sizes[teamId];
+        if (size == members[teamId].length) {
+            members[teamId] = Arrays.copyOf(members[teamId], size * 2);
+            contexts[teamId] = Arrays.copyOf(contexts[teamId], size * 2);
+        }
+        members[teamId][size] = context.getPlayer();
+        contexts[teamId][size] = context;
+        context.setRosterSlot(size);
+        sizes[teamId] = size + 1;
+    }
+
+    /**
+     * Remove a context from its team by swapping the last member into its slot (DataManager only)
+     */
+    void remove(PlayerContext context) {
+        int teamId = context.getTeamId();
+        int slot = context.getRosterSlot();
+        if (teamId == NO_TEAM || slot < 0) {
+            return;
+        }
+        int last = sizes[teamId] - 1;
+        if (slot != last) {
+            PlayerContext moved = contexts[teamId][last];
+            members[teamId][slot] = members[teamId][last];
+            contexts[teamId][slot] = moved;
+            moved.setRosterSlot(slot);
+        }
+        members[teamId][last] = null;
+        contexts[teamId][last] = null;
+        sizes[teamId] = last;
+        context.setRosterSlot(-1);
+    }
+}
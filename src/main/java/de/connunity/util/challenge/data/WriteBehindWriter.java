@@ -0,0 +1,303 @@
+package de.connunity.util.challenge.data;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Write-behind persistence in front of a {@link StorageBackend}.
+ * Mutations are recorded in the journal and only mark the store dirty. A main-thread task runs at
+ * most once per flush interval and hands the batch of new journal lines to a background thread,
+ * which passes them to the backend. Once the backend asks for compaction (or a full snapshot is
+ * requested), an immutable snapshot is published instead and the background thread has the backend
+ * replace its state with it. A snapshot whose version is already on disk is skipped entirely.
+ */
+public class WriteBehindWriter {
+
+    private final ChallengeUtil plugin;
+    private final StorageBackend backend;
+    private final DataJournal journal;
+    private final LongFunction<DataSnapshot> publisher;
+    private final AtomicReference<DataSnapshot> published = new AtomicReference<>();
+    private final ExecutorService ioExecutor;
+    private BukkitTask flushTask;
+    private Runnable beforeFlush; // Copies buffered in-memory state (e.g. counters) into the store
+
+    // Version counters: memory is bumped on every mutation, disk once a write has landed
+    private final AtomicLong memoryVersion = new AtomicLong();
+    private volatile long diskVersion = 0;
+    private volatile long snapshotVersion = -1;
+    private long scheduledVersion = 0;        // Main thread only: last version handed to the I/O thread
+    private boolean snapshotRequested = false; // Main thread only
+    private volatile boolean writeFailed = false;
+
+    // Metrics
+    private final AtomicLong unscheduledSince = new AtomicLong(); // First mutation not yet handed to the I/O thread, 0 = none
+    private final ConcurrentLinkedQueue<long[]> scheduledBatches = new ConcurrentLinkedQueue<>(); // {version, first mutation time}
+    private final AtomicLong writesCoalesced = new AtomicLong();
+    private final AtomicLong diskWrites = new AtomicLong();
+    private final AtomicLong skippedWrites = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    public WriteBehindWriter(ChallengeUtil plugin, StorageBackend backend, DataJournal journal,
+                             LongFunction<DataSnapshot> publisher) {
+        this.plugin = plugin;
+        this.backend = backend;
+        this.journal = journal;
+        this.publisher = publisher;
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChallengeUtil-DataWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the periodic flush task (runs on the main thread, writes on the I/O thread)
+     */
+    public void start(long intervalTicks) {
+        if (flushTask != null) {
+            return; // Already running
+        }
+        long interval = Math.max(1L, intervalTicks);
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> flushAsync(false), interval, interval);
+    }
+
+    /**
+     * Set a hook that runs on the main thread at the start of every flush, before pending changes
+     * are collected - used to fold buffered counters into the store only once per flush interval
+     */
+    public void setBeforeFlush(Runnable beforeFlush) {
+        this.beforeFlush = beforeFlush;
+    }
+
+    /**
+     * Mark the in-memory state as changed. Cheap and safe to call from any thread.
+     */
+    public void markDirty() {
+        memoryVersion.incrementAndGet();
+        unscheduledSince.compareAndSet(0L, System.currentTimeMillis());
+    }
+
+    /**
+     * Mark the state as changed in a way the journal does not capture - the next flush
+     * writes a full snapshot (main thread only)
+     */
+    public void requestSnapshot() {
+        snapshotRequested = true;
+        markDirty();
+    }
+
+    /**
+     * Hand pending changes to the I/O thread (main thread only)
+     */
+    private void flushAsync(boolean forceSnapshot) {
+        if (beforeFlush != null) {
+            beforeFlush.run();
+        }
+        long version = memoryVersion.get();
+        boolean compact = forceSnapshot || snapshotRequested || writeFailed
+                || backend.isCompactionDue(journal.getEntriesSinceCompaction());
+        if (version == scheduledVersion && !compact) {
+            return; // Nothing new since the last scheduled write
+        }
+
+        List<String> lines = journal.drainPending();
+        if (version > scheduledVersion) {
+            writesCoalesced.addAndGet(version - scheduledVersion - 1);
+        }
+        scheduledVersion = version;
+        writeFailed = false;
+        long batchStart = unscheduledSince.getAndSet(0L);
+        if (batchStart != 0L) {
+            scheduledBatches.add(new long[]{version, batchStart});
+        }
+
+        Runnable task;
+        if (compact) {
+            // The snapshot covers everything recorded so far, so the drained lines are not appended
+            published.set(publisher.apply(version));
+            journal.markCompacted();
+            snapshotRequested = false;
+            task = this::writePublished;
+        } else {
+            task = () -> appendJournal(lines, version);
+        }
+
+        if (ioExecutor.isShutdown()) {
+            task.run();
+        } else {
+            ioExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Hand a batch of journal lines to the backend (I/O thread)
+     */
+    private void appendJournal(List<String> lines, long version) {
+        try {
+            backend.append(lines);
+            markWritten(version);
+        } catch (IOException e) {
+            // The lines are lost, so fall back to a full snapshot on the next flush
+            writeFailed = true;
+            plugin.logWarning("Failed to append to " + backend.getName() + " storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the latest published snapshot through the backend (I/O thread).
+     * Several queued writes may find the same snapshot; only the first one touches the disk.
+     */
+    private void writePublished() {
+        DataSnapshot snapshot = published.get();
+        if (snapshot == null || snapshot.getVersion() == snapshotVersion) {
+            skippedWrites.incrementAndGet();
+            return;
+        }
+        try {
+            backend.writeSnapshot(snapshot);
+            snapshotVersion = snapshot.getVersion();
+            compactions.incrementAndGet();
+            markWritten(snapshot.getVersion());
+        } catch (IOException e) {
+            writeFailed = true;
+            plugin.logWarning("Failed to save " + backend.getName() + " storage: " + e.getMessage());
+        }
+    }
+
+    private void markWritten(long version) {
+        diskVersion = version;
+        diskWrites.incrementAndGet();
+        // Batches up to this version are on disk; later ones keep the time of their first mutation
+        long[] batch;
+        while ((batch = scheduledBatches.peek()) != null && batch[0] <= version) {
+            scheduledBatches.poll();
+        }
+    }
+
+    /**
+     * Flush barrier: returns once everything mutated so far is on disk (main thread only).
+     * Used before operations that must observe a consistent file, e.g. full reset or shutdown.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    /**
+     * Flush barrier that also compacts the journal into a fresh snapshot
+     */
+    public void compact() {
+        flush(true);
+    }
+
+    private void flush(boolean forceSnapshot) {
+        flushAsync(forceSnapshot);
+        if (ioExecutor.isShutdown()) {
+            return;
+        }
+        try {
+            // Single-threaded executor is FIFO, so an empty task waits for every queued write
+            ioExecutor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.logWarning("Failed to flush " + backend.getName() + " storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the periodic task, compact everything into the snapshot, shut down the I/O thread and close the backend
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        compact();
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.logWarning("Timed out waiting for " + backend.getName() + " storage writer to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        backend.close();
+    }
+
+    /**
+     * Write to a temp file next to the target and atomically rename it over the target,
+     * so a crash mid-write never leaves a truncated file behind (data.yml snapshots and exports)
+     */
+    static void writeAtomically(File file, String data) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(temp.toPath(), data.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Number of mutations that were folded into another write instead of hitting the disk
+     */
+    public long getWritesCoalesced() {
+        return writesCoalesced.get();
+    }
+
+    /**
+     * Number of queued writes skipped because their snapshot version was already on disk
+     */
+    public long getSkippedWrites() {
+        return skippedWrites.get();
+    }
+
+    /**
+     * Number of physical writes performed (journal appends and snapshots)
+     */
+    public long getDiskWrites() {
+        return diskWrites.get();
+    }
+
+    /**
+     * Number of snapshot compactions performed
+     */
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /**
+     * Number of mutations in memory that are not yet on disk
+     */
+    public long getPendingMutations() {
+        return memoryVersion.get() - diskVersion;
+    }
+
+    /**
+     * How long (ms) the oldest change not yet on disk has been waiting, 0 if disk is up to date
+     */
+    public long getDiskLagMillis() {
+        long[] batch = scheduledBatches.peek();
+        long since = batch != null ? batch[1] : unscheduledSince.get();
+        return since == 0L ? 0L : System.currentTimeMillis() - since;
+    }
+}
@@ -0,0 +1,91 @@
+package de.connunity.util.challenge.data;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Default backend: a data.yml snapshot plus the append-only data.journal.
+ * Journal batches are appended to the log; once it passes the compaction threshold a fresh
+ * data.yml is written atomically and the log is started over as the next generation.
+ * data.yml is stamped with that generation, so a crash between the two steps never replays
+ * older log entries over the newer snapshot.
+ */
+public class YamlStorageBackend implements StorageBackend {
+
+    public static final String NAME = "yaml";
+
+    private final File dataFile;
+    private final DataJournal journal;
+    private final long compactAfterEntries;
+    private final StorageLatency readLatency = new StorageLatency();
+    private final StorageLatency writeLatency = new StorageLatency();
+
+    public YamlStorageBackend(File dataFile, DataJournal journal, long compactAfterEntries) {
+        this.dataFile = dataFile;
+        this.journal = journal;
+        this.compactAfterEntries = Math.max(1L, compactAfterEntries);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void load(FileConfiguration target) throws IOException {
+        long start = System.nanoTime();
+        if (!dataFile.exists()) {
+            dataFile.createNewFile();
+        }
+        try {
+            target.load(dataFile);
+        } catch (InvalidConfigurationException e) {
+            throw new IOException("Invalid " + dataFile.getName() + ": " + e.getMessage(), e);
+        }
+        // The stamp is bookkeeping, not data - take it out before anyone reads the tree
+        long snapshotGeneration = target.getLong(DataSnapshot.JOURNAL_GENERATION_KEY, 0L);
+        target.set(DataSnapshot.JOURNAL_GENERATION_KEY, null);
+        journal.replay(target, snapshotGeneration);
+        readLatency.recordSince(start);
+    }
+
+    @Override
+    public void append(List<String> lines) throws IOException {
+        long start = System.nanoTime();
+        journal.append(lines);
+        writeLatency.recordSince(start);
+    }
+
+    @Override
+    public void writeSnapshot(DataSnapshot snapshot) throws IOException {
+        long start = System.nanoTime();
+        long nextGeneration = journal.getGeneration() + 1;
+        WriteBehindWriter.writeAtomically(dataFile, snapshot.toYaml(nextGeneration));
+        journal.startGeneration(nextGeneration);
+        writeLatency.recordSince(start);
+    }
+
+    @Override
+    public boolean isCompactionDue(long entriesSinceCompaction) {
+        return entriesSinceCompaction >= compactAfterEntries;
+    }
+
+    @Override
+    public void close() {
+        // Every write opens and closes its own stream
+    }
+
+    @Override
+    public StorageLatency getReadLatency() {
+        return readLatency;
+    }
+
+    @Override
+    public StorageLatency getWriteLatency() {
+        return writeLatency;
+    }
+}
@@ -1,7 +1,12 @@
 package de.connunity.util.challenge.endfight;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.hud.HudLayer;
+import de.connunity.util.challenge.timer.Split;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.scan.ChunkScanner;
+import de.connunity.util.challenge.scan.ScanRegion;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -17,15 +22,23 @@ import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
- * Manages the custom end fight mechanics where players chase the dragon egg holder
+ * Manages the custom end fight mechanics where players chase the dragon egg holder.
+ * The egg holder boss bar is a HUD layer: it is shown to every player while it exists and its
+ * health / time left are refreshed in the HUD frame, only when they actually changed.
  */
-public class CustomEndFightManager {
+public class CustomEndFightManager implements HudLayer {
+    
+    public static final int HUD_PRIORITY = 10;
+    
+    private static final int PORTAL_SWEEP_RADIUS = 200; // Blocks around (0, 0) searched for portals and gateways
     
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
@@ -36,8 +49,10 @@ public class CustomEndFightManager {
     private String eggHolderTeam = null;
     private Player lastDamager = null; // Track who last damaged the egg holder
     private BossBar eggHolderBossBar = null;
-    private BukkitTask healthUpdateTask = null;
-    private BukkitTask portalRemovalTask = null;
+    private Player titleHolder = null;     // Holder and time last written to the boss bar title
+    private int titleRemainingTime = -1;
+    private float lastProgress = -1f;
+    private final EndPortalGuard portalGuard;
     private BukkitTask teamTimerTask = null;
     private final Map<UUID, Boolean> immortalPlayers = new HashMap<>();
     private BukkitTask glowEffectTask = null;
@@ -49,10 +64,12 @@ public class CustomEndFightManager {
     private final Set<String> teamsCompletedTenMinutes = new java.util.HashSet<>(); // Teams that survived 10 minutes
     private boolean portalBlocksSpawned = false; // Track if portal blocks are currently spawned
     private Integer spawnedPortalY = null; // Store the Y level where portal was spawned
+    private final Map<UUID, Integer> portalFrameY = new HashMap<>(); // End world -> exit portal Y (found once)
     
     public CustomEndFightManager(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.portalGuard = new EndPortalGuard(plugin, this);
     }
     
     /**
@@ -65,8 +82,8 @@ public class CustomEndFightManager {
         // Remove end portals and gateways to prevent escape
         removeEndPortalsAndGateways();
         
-        // Start continuous portal removal task
-        startPortalRemovalTask();
+        // Keep portals from reappearing while the fight runs
+        portalGuard.start();
     }
     
     /**
@@ -94,27 +111,10 @@ public class CustomEndFightManager {
         }
         this.eggHolder = null;
         
-        // Remove boss bar from all players
-        if (eggHolderBossBar != null) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                try {
-                    player.hideBossBar(eggHolderBossBar);
-                } catch (Exception e) {
-                    // Ignore errors during cleanup
-                }
-            }
-            eggHolderBossBar = null;
-        }
+        // Remove boss bar (the HUD hides it from all players on the next frame)
+        eggHolderBossBar = null;
         
-        if (healthUpdateTask != null) {
-            healthUpdateTask.cancel();
-            healthUpdateTask = null;
-        }
-        
-        if (portalRemovalTask != null) {
-            portalRemovalTask.cancel();
-            portalRemovalTask = null;
-        }
+        portalGuard.stop();
         
         if (teamTimerTask != null) {
             teamTimerTask.cancel();
@@ -142,12 +142,15 @@ public class CustomEndFightManager {
         teamsCompletedTenMinutes.clear();
         portalBlocksSpawned = false;
         spawnedPortalY = null;
+        portalFrameY.clear();
     }
     
     /**
      * Remove all END_PORTAL and END_GATEWAY blocks in the End dimension
      * Note: This only removes the portal/gateway blocks themselves, not the surrounding structures
      * (like END_PORTAL_FRAME blocks or gateway platform blocks)
+     * The loaded chunks around the main island are searched off the main thread by the chunk scanner,
+     * and the blocks found are removed a few per tick.
      */
     private void removeEndPortalsAndGateways() {
         // Find all End worlds
@@ -163,122 +166,52 @@ public class CustomEndFightManager {
             new BukkitRunnable() {
                 @Override
                 public void run() {
-                    int portalCount = 0;
-                    int gatewayCount = 0;
-                    
-                    // Search area around spawn (0,0) where the main island and exit portal are
-                    // Focus on the exit portal area first (0, 64, 0)
-                    Location exitPortalCenter = new Location(end, 0, 64, 0);
-                    
-                    // Load the chunks around the portal area first
+                    // Load the chunks around the exit portal (0, 0) first
                     for (int cx = -1; cx <= 1; cx++) {
                         for (int cz = -1; cz <= 1; cz++) {
                             end.loadChunk(cx, cz);
                         }
                     }
                     
-                    // Remove only END_PORTAL and END_GATEWAY blocks (not frames or other structures)
-                    for (int x = -10; x <= 10; x++) {
-                        for (int z = -10; z <= 10; z++) {
-                            for (int y = 50; y <= 80; y++) {
-                                Block block = end.getBlockAt(exitPortalCenter.getBlockX() + x, y, exitPortalCenter.getBlockZ() + z);
-                                Material type = block.getType();
-                                
-                                if (type == Material.END_PORTAL) {
-                                    dropAttachedBlocks(block);
-                                    block.setType(Material.AIR);
-                                    portalCount++;
-                                } else if (type == Material.END_GATEWAY) {
-                                    dropAttachedBlocks(block);
-                                    block.setType(Material.AIR);
-                                    gatewayCount++;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // Then search the broader area for any other END_PORTAL/END_GATEWAY blocks (only loaded chunks)
-                    int radius = 200;
-                    for (int x = -radius; x <= radius; x += 16) {
-                        for (int z = -radius; z <= radius; z += 16) {
-                            // Only process loaded chunks
-                            if (!end.isChunkLoaded(x >> 4, z >> 4)) {
-                                continue;
-                            }
-                            
-                            // Scan the chunk
-                            for (int dx = 0; dx < 16; dx++) {
-                                for (int dz = 0; dz < 16; dz++) {
-                                    for (int y = 0; y <= 256; y++) {
-                                        Block block = end.getBlockAt(x + dx, y, z + dz);
-                                        Material type = block.getType();
-                                        
-                                        if (type == Material.END_PORTAL) {
-                                            dropAttachedBlocks(block);
-                                            block.setType(Material.AIR);
-                                            portalCount++;
-                                        } else if (type == Material.END_GATEWAY) {
-                                            dropAttachedBlocks(block);
-                                            block.setType(Material.AIR);
-                                            gatewayCount++;
-                                        }
-                                    }
-                                }
+                    // Search the whole height of every loaded chunk around the main island
+                    ScanRegion region = new ScanRegion(end,
+                        -PORTAL_SWEEP_RADIUS, end.getMinHeight(), -PORTAL_SWEEP_RADIUS,
+                        PORTAL_SWEEP_RADIUS, end.getMaxHeight() - 1, PORTAL_SWEEP_RADIUS);
+                    ChunkScanner scanner = plugin.getChunkScanner();
+                    scanner.scan(region, EnumSet.of(Material.END_PORTAL, Material.END_GATEWAY), hits -> {
+                        int[] removed = new int[2]; // END_PORTAL, END_GATEWAY
+                        scanner.applyEdits(hits, block -> {
+                            // Remove only END_PORTAL and END_GATEWAY blocks (not frames or other structures)
+                            Material type = block.getType();
+                            if (type == Material.END_PORTAL || type == Material.END_GATEWAY) {
+                                dropAttachedBlocks(block);
+                                block.setType(Material.AIR);
+                                removed[type == Material.END_PORTAL ? 0 : 1]++;
                             }
-                        }
-                    }
-                    
-                    plugin.logDebug("Removed " + portalCount + " END_PORTAL blocks and " + 
-                                           gatewayCount + " END_GATEWAY blocks from the End dimension (" + end.getName() + ")");
+                        }, () -> plugin.logDebug("Removed " + removed[0] + " END_PORTAL blocks and " +
+                                                removed[1] + " END_GATEWAY blocks from the End dimension (" + end.getName() + ")"));
+                    });
                 }
             }.runTaskLater(plugin, 5L);
         }
     }
     
     /**
-     * Start a continuous task to remove END_PORTAL blocks every tick
-     * This ensures portals NEVER exist while the end fight is active
+     * Report a block that formed (or is about to form) a portal in the End - it is removed on the
+     * next tick unless the portal has been unlocked
      */
-    private void startPortalRemovalTask() {
-        // Find all End worlds
-        for (World world : Bukkit.getWorlds()) {
-            if (world.getEnvironment() != World.Environment.THE_END) {
-                continue;
-            }
-            
-            final World end = world;
-            plugin.logDebug("Starting continuous portal removal task for End world: " + end.getName());
-            
-            portalRemovalTask = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!active) {
-                        this.cancel();
-                        return;
-                    }
-                    
-                    // Only remove portals if they shouldn't exist
-                    // Portals should exist if: portal blocks are spawned (a team completed 10 min)
-                    if (portalBlocksSpawned) {
-                        // Portal is allowed to exist, don't remove it
-                        return;
-                    }
-                    
-                    // Scan the exit portal area continuously
-                    for (int x = -15; x <= 15; x++) {
-                        for (int z = -15; z <= 15; z++) {
-                            for (int y = 50; y <= 85; y++) {
-                                Block block = end.getBlockAt(x, y, z);
-                                Material type = block.getType();
-                                if (type == Material.END_PORTAL || type == Material.END_GATEWAY) {
-                                    dropAttachedBlocks(block);
-                                    block.setType(Material.AIR);
-                                }
-                            }
-                        }
-                    }
-                }
-            }.runTaskTimer(plugin, 0L, 5L); // Run every 5 ticks (4 times per second)
+    public void guardPortalBlock(Block block) {
+        if (active) {
+            portalGuard.track(block);
+        }
+    }
+    
+    /**
+     * Re-check all guarded portal positions on the next tick (e.g. after the dragon lit the exit portal)
+     */
+    public void checkGuardedPortals() {
+        if (active) {
+            portalGuard.cleanupSoon();
         }
     }
     
@@ -286,7 +219,7 @@ public class CustomEndFightManager {
      * Drop items from blocks attached to the given block (like torches, signs, etc.)
      * This prevents items from being destroyed when the supporting block is removed
      */
-    private void dropAttachedBlocks(Block block) {
+    void dropAttachedBlocks(Block block) {
         if (block == null || block.getWorld() == null) {
             return;
         }
@@ -390,6 +323,7 @@ public class CustomEndFightManager {
         
         this.eggCollected = true;
         this.eggHolder = collector;
+        plugin.getTimerManager().recordSplit(Split.EGG_PICKUP);
         
         // Remove end portals immediately when egg is collected
         removeEndPortalsAndGateways();
@@ -629,8 +563,7 @@ public class CustomEndFightManager {
         try {
             // In Team Race mode: remove compass from egg holder's inventory so it is
             // replaced by the dragon egg (prevents a full-inventory bug)
-            Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-            if (teamRaceEnabled != null && teamRaceEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                 eggHolder.getInventory().remove(Material.COMPASS);
             }
         } catch (Exception e) {
@@ -655,7 +588,7 @@ public class CustomEndFightManager {
     }
     
     /**
-     * Create and display the boss bar for the egg holder's health
+     * Create the boss bar for the egg holder's health
      */
     private void createEggHolderBossBar(Player eggHolder) {
         updateBossBarTitle(eggHolder);
@@ -668,17 +601,12 @@ public class CustomEndFightManager {
             teamColor,
             BossBar.Overlay.NOTCHED_10
         );
+        titleHolder = null;
+        lastProgress = 1.0f;
         
+        // Shown to all players by the HUD, which also keeps health and time left up to date
         updateBossBarTitle(eggHolder);
         
-        // Show to all players
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.showBossBar(eggHolderBossBar);
-        }
-        
-        // Start health update task
-        startHealthUpdateTask(eggHolder);
-        
         // Start team timer task
         startTeamTimerTask();
     }
@@ -742,6 +670,11 @@ public class CustomEndFightManager {
         String teamKey = eggHolderTeam != null ? eggHolderTeam : "";
         int totalTeamTime = teamHoldTimes.getOrDefault(teamKey, 0) + currentHoldTime;
         int remainingTime = Math.max(0, WIN_TIME_SECONDS - totalTeamTime);
+        if (eggHolder == titleHolder && remainingTime == titleRemainingTime) {
+            return; // Title unchanged - avoid rebuilding it and resending it to every viewer
+        }
+        titleHolder = eggHolder;
+        titleRemainingTime = remainingTime;
         int minutes = remainingTime / 60;
         int seconds = remainingTime % 60;
         
@@ -754,28 +687,28 @@ public class CustomEndFightManager {
     }
     
     /**
-     * Start a task to continuously update the boss bar with egg holder's health
+     * Keep the boss bar in sync with the egg holder's health and time left (HUD frame).
+     * Only values that changed are written, since every change is sent to all viewers.
      */
-    private void startHealthUpdateTask(Player initialEggHolder) {
-        healthUpdateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Use the current egg holder, not the initial one
-                if (eggHolder == null || !eggHolder.isOnline() || !active) {
-                    this.cancel();
-                    return;
-                }
-                
-                double health = eggHolder.getHealth();
-                double maxHealth = eggHolder.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue();
-                float progress = (float) Math.max(0.0, Math.min(1.0, health / maxHealth));
-                
-                if (eggHolderBossBar != null) {
-                    eggHolderBossBar.progress(progress);
-                    updateBossBarTitle(eggHolder);
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 5L);
+    @Override
+    public void tick(long frame) {
+        if (eggHolderBossBar == null || eggHolder == null || !eggHolder.isOnline() || !active) {
+            return;
+        }
+        
+        double health = eggHolder.getHealth();
+        double maxHealth = eggHolder.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue();
+        float progress = (float) Math.max(0.0, Math.min(1.0, health / maxHealth));
+        if (progress != lastProgress) {
+            eggHolderBossBar.progress(progress);
+            lastProgress = progress;
+        }
+        updateBossBarTitle(eggHolder);
+    }
+    
+    @Override
+    public BossBar bossBar(Player player) {
+        return active ? eggHolderBossBar : null;
     }
     
     /**
@@ -952,7 +885,7 @@ public class CustomEndFightManager {
         }
         
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         // Deactivate the end fight
         deactivate();
@@ -979,83 +912,99 @@ public class CustomEndFightManager {
                 }
             }
             
-            // Find the actual portal frame Y level
-            Integer portalY = findEndPortalFrameY(end);
-            
-            if (portalY == null) {
-                plugin.logWarning("Could not find End portal bedrock platform in End world: " + end.getName());
-                plugin.logWarning("Attempting to spawn at default Y level 64");
-                portalY = 64; // Fallback to typical Y level
-            } else {
-                plugin.logDebug("Found End portal platform at y=" + portalY);
-            }
-            
-            // Spawn portal blocks at the detected Y level
-            Location exitPortalCenter = new Location(end, 0, portalY, 0);
+            // The portal counts as unlocked right away, so the portal guard leaves it alone
+            portalBlocksSpawned = true;
             
-            int portalBlocksPlaced = 0;
-            // Create a 5x5 pattern of portal blocks
-            for (int x = -2; x <= 2; x++) {
-                for (int z = -2; z <= 2; z++) {
-                    Block block = end.getBlockAt(exitPortalCenter.getBlockX() + x, portalY, exitPortalCenter.getBlockZ() + z);
-                    plugin.logDebug("Block at (" + x + ", " + portalY + ", " + z + ") is " + block.getType());
-                    // Only place portal blocks where there's AIR (don't replace bedrock)
-                    if (block.getType() == Material.AIR || block.getType() == Material.END_PORTAL) {
-                        block.setType(Material.END_PORTAL);
-                        portalBlocksPlaced++;
+            // Find the actual portal frame Y level
+            findEndPortalFrameY(end, frameY -> {
+                if (!portalBlocksSpawned) {
+                    return; // Locked again before the search finished
+                }
+                
+                Integer portalY = frameY;
+                if (portalY == null) {
+                    plugin.logWarning("Could not find End portal bedrock platform in End world: " + end.getName());
+                    plugin.logWarning("Attempting to spawn at default Y level 64");
+                    portalY = 64; // Fallback to typical Y level
+                } else {
+                    plugin.logDebug("Found End portal platform at y=" + portalY);
+                }
+                
+                // Spawn portal blocks at the detected Y level
+                Location exitPortalCenter = new Location(end, 0, portalY, 0);
+                
+                int portalBlocksPlaced = 0;
+                // Create a 5x5 pattern of portal blocks
+                for (int x = -2; x <= 2; x++) {
+                    for (int z = -2; z <= 2; z++) {
+                        Block block = end.getBlockAt(exitPortalCenter.getBlockX() + x, portalY, exitPortalCenter.getBlockZ() + z);
+                        plugin.logDebug("Block at (" + x + ", " + portalY + ", " + z + ") is " + block.getType());
+                        // Only place portal blocks where there's AIR (don't replace bedrock)
+                        if (block.getType() == Material.AIR || block.getType() == Material.END_PORTAL) {
+                            block.setType(Material.END_PORTAL);
+                            portalBlocksPlaced++;
+                        }
                     }
                 }
-            }
-            
-            portalBlocksSpawned = true;
-            spawnedPortalY = portalY; // Store the Y level for later removal
-            plugin.logDebug("Portal blocks spawned successfully: " + portalBlocksPlaced + " blocks placed at y=" + portalY);
+                
+                spawnedPortalY = portalY; // Store the Y level for later removal
+                plugin.logDebug("Portal blocks spawned successfully: " + portalBlocksPlaced + " blocks placed at y=" + portalY);
+            });
         }
     }
     
     /**
      * Find the Y level of the End portal frame by searching for bedrock blocks at x=0, z=0
+     * The search runs on the chunk scanner; the result is remembered per world since the frame never moves.
      * @param end The End world to search in
-     * @return The Y level of the portal frame, or null if not found
+     * @param callback Receives the Y level of the portal frame, or null if not found (on the main thread)
      */
-    private Integer findEndPortalFrameY(World end) {
+    void findEndPortalFrameY(World end, Consumer<Integer> callback) {
+        Integer known = portalFrameY.get(end.getUID());
+        if (known != null) {
+            callback.accept(known);
+            return;
+        }
+        
         // The End exit portal is made of bedrock and always spawns at x=0, z=0
         // Search for bedrock blocks at coordinates (0, y, 0) to find the portal platform
         // Check Y levels from 40 to 100 (expanded range to catch all possibilities)
         plugin.logDebug("Searching for End portal bedrock platform...");
+        for (int cx = -1; cx <= 0; cx++) {
+            for (int cz = -1; cz <= 0; cz++) {
+                end.loadChunk(cx, cz);
+            }
+        }
         
-        for (int y = 40; y <= 100; y++) {
-            // Check if this Y level has bedrock in the 5x5 area
-            int bedrockCount = 0;
-            int airCount = 0;
-            
-            for (int x = -2; x <= 2; x++) {
-                for (int z = -2; z <= 2; z++) {
-                    Block block = end.getBlockAt(x, y, z);
-                    Material type = block.getType();
-                    
-                    if (type == Material.BEDROCK) {
-                        bedrockCount++;
-                    } else if (type == Material.AIR || type == Material.END_PORTAL) {
-                        airCount++;
-                    }
-                    
-                    plugin.logDebug("  Block at (" + x + ", " + y + ", " + z + ") = " + type);
+        ScanRegion region = new ScanRegion(end, -2, 40, -2, 2, 100, 2);
+        Set<Material> types = EnumSet.of(Material.BEDROCK, Material.AIR, Material.END_PORTAL);
+        plugin.getChunkScanner().scan(region, types, hits -> {
+            int[] bedrockCount = new int[61];
+            int[] airCount = new int[61];
+            for (int i = 0; i < hits.size(); i++) {
+                if (hits.getType(i) == Material.BEDROCK) {
+                    bedrockCount[hits.getY(i) - 40]++;
+                } else {
+                    airCount[hits.getY(i) - 40]++;
                 }
             }
             
-            plugin.logDebug("Y=" + y + ": Bedrock=" + bedrockCount + ", Air=" + airCount);
-            
-            // The portal platform should have some bedrock (the frame) and some air (the middle)
-            // Typical structure: bedrock around edges, air in middle (or portal blocks if already spawned)
-            if (bedrockCount >= 5 && airCount >= 5) {
-                plugin.logDebug("Found portal platform at Y=" + y);
-                return y;
+            for (int y = 40; y <= 100; y++) {
+                plugin.logDebug("Y=" + y + ": Bedrock=" + bedrockCount[y - 40] + ", Air=" + airCount[y - 40]);
+                
+                // The portal platform should have some bedrock (the frame) and some air (the middle)
+                // Typical structure: bedrock around edges, air in middle (or portal blocks if already spawned)
+                if (bedrockCount[y - 40] >= 5 && airCount[y - 40] >= 5) {
+                    plugin.logDebug("Found portal platform at Y=" + y);
+                    portalFrameY.put(end.getUID(), y);
+                    callback.accept(y);
+                    return;
+                }
             }
-        }
-        
-        plugin.logDebug("Portal platform not found in range Y=40-100");
-        return null; // Portal platform not found
+            
+            plugin.logDebug("Portal platform not found in range Y=40-100");
+            callback.accept(null); // Portal platform not found
+        });
     }
     
     /**
@@ -1066,6 +1015,10 @@ public class CustomEndFightManager {
             return;
         }
         
+        Integer storedY = spawnedPortalY;
+        portalBlocksSpawned = false;
+        spawnedPortalY = null;
+        
         // Find all End worlds
         for (World world : Bukkit.getWorlds()) {
             if (world.getEnvironment() != World.Environment.THE_END) {
@@ -1075,35 +1028,22 @@ public class CustomEndFightManager {
             final World end = world;
             plugin.logDebug("Removing spawned portal blocks from End world: " + end.getName());
             
-            Integer portalY = spawnedPortalY;
+            // If we don't have the stored Y level (spawn still pending), use the known frame level
+            Integer portalY = storedY != null ? storedY : portalFrameY.get(end.getUID());
             
-            // If we don't have the stored Y level, try to find it
             if (portalY == null) {
-                plugin.logDebug("Stored portal Y level is null, attempting to find it...");
-                portalY = findEndPortalFrameY(end);
-            }
-            
-            if (portalY == null) {
-                plugin.logWarning("Could not find End portal frame when removing blocks, searching for portal blocks directly...");
-                // Fallback: search for portal blocks directly in a range
-                for (int y = 40; y <= 100; y++) {
-                    boolean foundPortal = false;
-                    for (int x = -2; x <= 2; x++) {
-                        for (int z = -2; z <= 2; z++) {
-                            Block block = end.getBlockAt(x, y, z);
-                            if (block.getType() == Material.END_PORTAL) {
-                                block.setType(Material.AIR);
-                                foundPortal = true;
-                            }
-                        }
-                    }
-                    if (foundPortal) {
-                        plugin.logDebug("Found and removed portal blocks at y=" + y);
+                plugin.logDebug("Stored portal Y level is null, searching for portal blocks directly...");
+                // Fallback: search for portal blocks directly in a range, off the main thread
+                ScanRegion region = new ScanRegion(end, -2, 40, -2, 2, 100, 2);
+                ChunkScanner scanner = plugin.getChunkScanner();
+                scanner.scan(region, EnumSet.of(Material.END_PORTAL), hits -> scanner.applyEdits(hits, block -> {
+                    // Leave the portal alone if it was unlocked again meanwhile
+                    if (!portalBlocksSpawned && block.getType() == Material.END_PORTAL) {
+                        block.setType(Material.AIR);
+                        plugin.logDebug("Found and removed portal block at y=" + block.getY());
                     }
-                }
-                portalBlocksSpawned = false;
-                spawnedPortalY = null;
-                return;
+                }, null));
+                continue;
             }
             
             // Remove portal blocks at the known Y level
@@ -1121,8 +1061,6 @@ public class CustomEndFightManager {
                 }
             }
             
-            portalBlocksSpawned = false;
-            spawnedPortalY = null;
             plugin.logDebug("Portal blocks removed successfully: " + blocksRemoved + " blocks removed from y=" + portalY);
         }
     }
@@ -1200,23 +1138,10 @@ public class CustomEndFightManager {
         this.eggCollected = false;
         currentHoldTime = 0;
         
-        // Remove boss bar
-        if (eggHolderBossBar != null) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                try {
-                    player.hideBossBar(eggHolderBossBar);
-                } catch (Exception e) {
-                    // Ignore errors
-                }
-            }
-            eggHolderBossBar = null;
-        }
+        // Remove boss bar (the HUD hides it from all players on the next frame)
+        eggHolderBossBar = null;
         
         // Stop tasks
-        if (healthUpdateTask != null) {
-            healthUpdateTask.cancel();
-            healthUpdateTask = null;
-        }
         if (teamTimerTask != null) {
             teamTimerTask.cancel();
             teamTimerTask = null;
@@ -1286,8 +1211,7 @@ public class CustomEndFightManager {
             if (previousHolder != null && previousHolder.isOnline()) {
                 previousHolder.getInventory().remove(Material.DRAGON_EGG);
                 // Give tracking compass back to the previous holder
-                Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-                if (teamRaceEnabled != null && teamRaceEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                     String prevTeam = plugin.getDataManager().getPlayerTeam(previousHolder.getUniqueId());
                     if (prevTeam != null) {
                         plugin.getTeamRaceManager().giveCompassToPlayer(previousHolder, prevTeam);
@@ -1297,8 +1221,7 @@ public class CustomEndFightManager {
             // Replace the new holder's tracking compass with the dragon egg so the
             // inventory never overflows and the egg lands in a known slot.
             boolean compassReplaced = false;
-            Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-            if (teamRaceEnabled != null && teamRaceEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                 for (int i = 0; i < newHolder.getInventory().getSize(); i++) {
                     org.bukkit.inventory.ItemStack invItem = newHolder.getInventory().getItem(i);
                     if (invItem != null && invItem.getType() == Material.COMPASS) {
@@ -1433,9 +1356,6 @@ public class CustomEndFightManager {
         // Keep original team - no team assignment
         // Players joining during end fight keep their existing teams
         
-        // Show boss bar
-        if (eggHolderBossBar != null) {
-            player.showBossBar(eggHolderBossBar);
-        }
+        // The boss bar is shown by the HUD on the next frame
     }
 }
@@ -0,0 +1,260 @@
+package de.connunity.util.challenge.endfight;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.boss.DragonBattle;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps END_PORTAL / END_GATEWAY blocks out of the End while the custom end fight is running.
+ * OPTIMIZED: replaces a 31x31x36 getBlockAt sweep every 5 ticks. The guard knows the few places a
+ * portal can appear (the exit portal footprint, the 20 gateway spots around the main island and
+ * anything reported by portal/form events) and only ever looks at those. Events trigger a cleanup
+ * on the next tick; a verification pass every few seconds reads the known positions from
+ * ChunkSnapshots off the main thread and only touches blocks that really turned into portals.
+ *
+ * Main thread only, apart from the snapshot reads.
+ */
+class EndPortalGuard {
+
+    private static final long VERIFY_INTERVAL_TICKS = 100L;
+    private static final int GATEWAY_COUNT = 20;
+    private static final int GATEWAY_RADIUS = 96;
+    private static final int GATEWAY_Y = 75;
+
+    private final ChallengeUtil plugin;
+    private final CustomEndFightManager manager;
+
+    // World -> packed positions where a portal block may appear
+    private final Map<UUID, Set<Long>> knownPositions = new HashMap<>();
+    private BukkitTask verifyTask = null;
+    private boolean cleanupScheduled = false;
+    private boolean verifying = false;
+
+    EndPortalGuard(ChallengeUtil plugin, CustomEndFightManager manager) {
+        this.plugin = plugin;
+        this.manager = manager;
+    }
+
+    /**
+     * Seed the known positions of every End world and start the verification pass
+     */
+    void start() {
+        stop();
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getEnvironment() == World.Environment.THE_END) {
+                seed(world);
+            }
+        }
+        verifyTask = Bukkit.getScheduler().runTaskTimer(plugin, this::verify, 0L, VERIFY_INTERVAL_TICKS);
+    }
+
+    void stop() {
+        if (verifyTask != null) {
+            verifyTask.cancel();
+            verifyTask = null;
+        }
+        knownPositions.clear();
+    }
+
+    /**
+     * Remember a block that became (or is about to become) a portal and clear it on the next tick
+     */
+    void track(Block block) {
+        positions(block.getWorld()).add(pack(block.getX(), block.getY(), block.getZ()));
+        cleanupSoon();
+    }
+
+    /**
+     * Check all known positions on the next tick (e.g. the dragon just died and lit the exit portal)
+     */
+    void cleanupSoon() {
+        if (cleanupScheduled || verifyTask == null) {
+            return;
+        }
+        cleanupScheduled = true;
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            cleanupScheduled = false;
+            cleanup();
+        });
+    }
+
+    private Set<Long> positions(World world) {
+        return knownPositions.computeIfAbsent(world.getUID(), id -> new HashSet<>());
+    }
+
+    /**
+     * The exit portal (5x5 around 0,0 at the podium's portal layer) and the gateway ring
+     */
+    private void seed(World end) {
+        Set<Long> positions = positions(end);
+
+        DragonBattle battle = end.getEnderDragonBattle();
+        Location portalLocation = battle != null ? battle.getEndPortalLocation() : null;
+        if (portalLocation != null) {
+            seedExitPortal(positions, portalLocation.getBlockY());
+        } else {
+            manager.findEndPortalFrameY(end, portalY -> {
+                if (verifyTask != null) {
+                    // Same fallback as when the portal is spawned
+                    seedExitPortal(positions(end), portalY != null ? portalY : 64);
+                    cleanupSoon();
+                }
+            });
+        }
+
+        // Gateways spawn at fixed spots on a circle around the main island (same math as the server)
+        for (int i = 0; i < GATEWAY_COUNT; i++) {
+            double angle = 2.0 * (-Math.PI + 0.15707963267948966 * i);
+            int x = (int) Math.floor(GATEWAY_RADIUS * Math.cos(angle));
+            int z = (int) Math.floor(GATEWAY_RADIUS * Math.sin(angle));
+            positions.add(pack(x, GATEWAY_Y, z));
+        }
+        plugin.logDebug("Guarding " + positions.size() + " possible portal positions in " + end.getName());
+    }
+
+    private static void seedExitPortal(Set<Long> positions, int portalY) {
+        for (int x = -2; x <= 2; x++) {
+            for (int z = -2; z <= 2; z++) {
+                positions.add(pack(x, portalY, z));
+            }
+        }
+    }
+
+    /**
+     * O(k) pass over the known positions in loaded chunks
+     */
+    private void cleanup() {
+        if (manager.isPortalUnlocked()) {
+            return;
+        }
+        for (Map.Entry<UUID, Set<Long>> entry : knownPositions.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                continue;
+            }
+            for (long packed : entry.getValue()) {
+                int x = unpackX(packed);
+                int z = unpackZ(packed);
+                if (world.isChunkLoaded(x >> 4, z >> 4)) {
+                    removeIfPortal(world.getBlockAt(x, unpackY(packed), z));
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot the chunks holding known positions, check them async, clear the hits on the main thread
+     */
+    private void verify() {
+        if (verifying || manager.isPortalUnlocked()) {
+            return;
+        }
+        List<World> worlds = new ArrayList<>();
+        List<ChunkSnapshot> snapshots = new ArrayList<>();
+        List<long[]> chunkPositions = new ArrayList<>();
+        for (Map.Entry<UUID, Set<Long>> entry : knownPositions.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                continue;
+            }
+            Map<Long, List<Long>> byChunk = new HashMap<>();
+            for (long packed : entry.getValue()) {
+                int chunkX = unpackX(packed) >> 4;
+                int chunkZ = unpackZ(packed) >> 4;
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    byChunk.computeIfAbsent(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL), key -> new ArrayList<>())
+                            .add(packed);
+                }
+            }
+            for (Map.Entry<Long, List<Long>> chunk : byChunk.entrySet()) {
+                int chunkX = (int) (chunk.getKey() >> 32);
+                int chunkZ = (int) (long) chunk.getKey();
+                worlds.add(world);
+                snapshots.add(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+                chunkPositions.add(chunk.getValue().stream().mapToLong(Long::longValue).toArray());
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        verifying = true;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<long[]> hits = new ArrayList<>(snapshots.size());
+            for (int i = 0; i < snapshots.size(); i++) {
+                hits.add(findPortals(snapshots.get(i), chunkPositions.get(i)));
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                verifying = false;
+                if (verifyTask == null || manager.isPortalUnlocked()) {
+                    return;
+                }
+                int removed = 0;
+                for (int i = 0; i < hits.size(); i++) {
+                    for (long packed : hits.get(i)) {
+                        if (removeIfPortal(worlds.get(i).getBlockAt(unpackX(packed), unpackY(packed), unpackZ(packed)))) {
+                            removed++;
+                        }
+                    }
+                }
+                if (removed > 0) {
+                    plugin.logDebug("Portal verification removed " + removed + " portal blocks");
+                }
+            });
+        });
+    }
+
+    /**
+     * Known positions of one chunk that hold a portal block in the snapshot (runs async)
+     */
+    static long[] findPortals(ChunkSnapshot snapshot, long[] positions) {
+        return Arrays.stream(positions)
+                .filter(packed -> isPortal(snapshot.getBlockType(unpackX(packed) & 15, unpackY(packed), unpackZ(packed) & 15)))
+                .toArray();
+    }
+
+    private boolean removeIfPortal(Block block) {
+        if (!isPortal(block.getType())) {
+            return false;
+        }
+        manager.dropAttachedBlocks(block);
+        block.setType(Material.AIR);
+        return true;
+    }
+
+    static boolean isPortal(Material type) {
+        return type == Material.END_PORTAL || type == Material.END_GATEWAY;
+    }
+
+    // Absolute position: 26 bits x | 12 bits y | 26 bits z (same layout as Minecraft's BlockPos)
+    static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+}
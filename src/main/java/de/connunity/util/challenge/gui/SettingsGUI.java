@@ -1,6 +1,8 @@
 package de.connunity.util.challenge.gui;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeSetting;
 import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -538,10 +540,7 @@ public class SettingsGUI {
         // For keep_rng, also get the percentage setting
         Integer keepPercentage = null;
         if (challengeName.equals("keep_rng")) {
-            keepPercentage = plugin.getDataManager().getSavedChallengeSetting("keep_rng", "percentage");
-            if (keepPercentage == null) {
-                keepPercentage = 50; // Default
-            }
+            keepPercentage = plugin.getDataManager().getChallengeSetting(ChallengeSetting.KEEP_RNG_PERCENTAGE);
         }
         
         // Display name
@@ -587,14 +586,12 @@ public class SettingsGUI {
         
         // Add mutual exclusivity warning for Manhunt and Team Race
         if (challengeName.equals("manhunt_mode")) {
-            Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-            Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-            if (teamRaceEnabled != null && teamRaceEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                 lore.add(Component.text("⚠ Manhunt Race is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
             }
-            if (connunityHuntEnabled != null && connunityHuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
                 lore.add(Component.text("⚠ Connunity Hunt is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
@@ -603,14 +600,12 @@ public class SettingsGUI {
             lore.add(Component.text("Choose teams before /start", NamedTextColor.GRAY, TextDecoration.ITALIC));
             lore.add(Component.text("Hunters immobilized for 2 minutes", NamedTextColor.GRAY, TextDecoration.ITALIC));
         } else if (challengeName.equals("team_race_mode")) {
-            Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-            Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-            if (manhuntEnabled != null && manhuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
                 lore.add(Component.text("⚠ Manhunt Mode is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
             }
-            if (connunityHuntEnabled != null && connunityHuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
                 lore.add(Component.text("⚠ Connunity Hunt is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
@@ -619,14 +614,12 @@ public class SettingsGUI {
             lore.add(Component.text("2-10 teams race to the Ender Dragon", NamedTextColor.GRAY, TextDecoration.ITALIC));
             lore.add(Component.text("Compasses point to nearest team", NamedTextColor.GOLD, TextDecoration.ITALIC));
         } else if (challengeName.equals("connunity_hunt_mode")) {
-            Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-            Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-            if (manhuntEnabled != null && manhuntEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
                 lore.add(Component.text("⚠ Manhunt Mode is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
             }
-            if (teamRaceEnabled != null && teamRaceEnabled) {
+            if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                 lore.add(Component.text("⚠ Manhunt Race is active!", NamedTextColor.RED, TextDecoration.BOLD));
                 lore.add(Component.text("Will be automatically disabled", NamedTextColor.YELLOW, TextDecoration.ITALIC));
                 lore.add(Component.text(""));
@@ -0,0 +1,34 @@
+package de.connunity.util.challenge.hud;
+
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+/**
+ * A feature's contribution to the per-player HUD (timer, egg holder boss bar, ...).
+ * All methods are called by {@link HudManager} on the main thread once per frame (tick).
+ */
+public interface HudLayer {
+
+    /**
+     * Update shared state once per frame, before any player is rendered
+     */
+    default void tick(long frame) {
+    }
+
+    /**
+     * Action bar this layer wants the player to see, or null if it has nothing to show.
+     * Return the same instance while the content is unchanged - unchanged bars are not resent.
+     */
+    default Component actionBar(Player player) {
+        return null;
+    }
+
+    /**
+     * Boss bar the player should see, or null for none. Content changes are made on the
+     * bar itself (e.g. in {@link #tick}); the HUD only shows and hides it per player.
+     */
+    default BossBar bossBar(Player player) {
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+package de.connunity.util.challenge.hud;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single HUD pipeline: one task per tick renders every registered layer and pushes at most one
+ * action bar and one boss bar change per player per frame.
+ * OPTIMIZED: replaces the separate timer, blink and boss bar tasks that each walked the online players;
+ * an action bar is only sent when the rendered Component changed (or to keep it from fading).
+ */
+public class HudManager {
+
+    // The client fades an action bar out after about 3 seconds, so unchanged content is refreshed before that
+    private static final long ACTION_BAR_REFRESH_FRAMES = 40L;
+
+    private final ChallengeUtil plugin;
+    private final List<HudLayer> layers = new ArrayList<>(); // Highest priority first
+    private final List<Integer> priorities = new ArrayList<>();
+    private final Map<Player, PlayerHud> players = new IdentityHashMap<>();
+    private BukkitTask frameTask;
+    private long frame = 0;
+
+    // Metrics
+    private long actionBarsSent = 0;
+    private long actionBarsSkipped = 0;
+
+    public HudManager(ChallengeUtil plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Add a layer. For each player the highest priority layer with content wins the action bar
+     * and the boss bar slot.
+     */
+    public void register(HudLayer layer, int priority) {
+        int index = 0;
+        while (index < priorities.size() && priorities.get(index) >= priority) {
+            index++;
+        }
+        layers.add(index, layer);
+        priorities.add(index, priority);
+    }
+
+    public void unregister(HudLayer layer) {
+        int index = layers.indexOf(layer);
+        if (index >= 0) {
+            layers.remove(index);
+            priorities.remove(index);
+        }
+    }
+
+    /**
+     * Start the per-tick frame task
+     */
+    public void start() {
+        if (frameTask != null) {
+            return; // Already running
+        }
+        frameTask = Bukkit.getScheduler().runTaskTimer(plugin, this::renderFrame, 1L, 1L);
+    }
+
+    /**
+     * Stop the frame task and hide every boss bar shown by the HUD
+     */
+    public void stop() {
+        if (frameTask != null) {
+            frameTask.cancel();
+            frameTask = null;
+        }
+        for (Map.Entry<Player, PlayerHud> entry : players.entrySet()) {
+            if (entry.getValue().bossBar != null) {
+                entry.getKey().hideBossBar(entry.getValue().bossBar);
+            }
+        }
+        players.clear();
+        plugin.logDebug("HUD stopped (" + actionBarsSent + " action bars sent, " + actionBarsSkipped + " unchanged skipped)");
+    }
+
+    /**
+     * Forget a player's HUD state (called on quit - the client drops its bars on disconnect)
+     */
+    public void removePlayer(Player player) {
+        players.remove(player);
+    }
+
+    private void renderFrame() {
+        frame++;
+        int layerCount = layers.size();
+        for (int i = 0; i < layerCount; i++) {
+            layers.get(i).tick(frame);
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerHud hud = players.computeIfAbsent(player, key -> new PlayerHud());
+
+            Component actionBar = null;
+            BossBar bossBar = null;
+            for (int i = 0; i < layerCount && (actionBar == null || bossBar == null); i++) {
+                HudLayer layer = layers.get(i);
+                if (actionBar == null) {
+                    actionBar = layer.actionBar(player);
+                }
+                if (bossBar == null) {
+                    bossBar = layer.bossBar(player);
+                }
+            }
+
+            if (actionBar == null) {
+                hud.actionBar = null; // Let the last bar fade out on its own
+            } else if (actionBar != hud.actionBar || frame - hud.actionBarFrame >= ACTION_BAR_REFRESH_FRAMES) {
+                player.sendActionBar(actionBar);
+                hud.actionBar = actionBar;
+                hud.actionBarFrame = frame;
+                actionBarsSent++;
+            } else {
+                actionBarsSkipped++;
+            }
+
+            if (bossBar != hud.bossBar) {
+                if (hud.bossBar != null) {
+                    player.hideBossBar(hud.bossBar);
+                }
+                if (bossBar != null) {
+                    player.showBossBar(bossBar);
+                }
+                hud.bossBar = bossBar;
+            }
+        }
+    }
+
+    /**
+     * Number of action bars sent since startup
+     */
+    public long getActionBarsSent() {
+        return actionBarsSent;
+    }
+
+    /**
+     * Number of frames where a player's action bar was unchanged and not resent
+     */
+    public long getActionBarsSkipped() {
+        return actionBarsSkipped;
+    }
+
+    /**
+     * What was last pushed to one player
+     */
+    private static final class PlayerHud {
+        private Component actionBar;
+        private long actionBarFrame;
+        private BossBar bossBar;
+    }
+}
@@ -1,7 +1,6 @@
 package de.connunity.util.challenge.lang;
 
 import de.connunity.util.challenge.ChallengeUtil;
-import de.connunity.util.challenge.ColorUtil;
 import net.kyori.adventure.text.Component;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -11,7 +10,6 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,12 +19,11 @@ import java.util.Set;
 public class LanguageManager {
     
     private final ChallengeUtil plugin;
-    private final Map<String, YamlConfiguration> languages = new HashMap<>();
-    private String currentLanguage;
+    private final MessageCatalog messages;
     
     public LanguageManager(ChallengeUtil plugin) {
         this.plugin = plugin;
-        this.currentLanguage = plugin.getConfig().getString("language", "en");
+        this.messages = new MessageCatalog(plugin.getConfig().getString("language", "en"));
         loadLanguages();
     }
     
@@ -39,7 +36,7 @@ public class LanguageManager {
         // Load English
         loadLanguage("en");
         
-        plugin.logInfo("Loaded " + languages.size() + " language(s). Current: " + currentLanguage);
+        plugin.logInfo("Loaded " + messages.size() + " language(s). Current: " + messages.getCurrentLanguage());
     }
     
     /**
@@ -90,7 +87,7 @@ public class LanguageManager {
             langConfig.setDefaults(defConfig);
         }
         
-        languages.put(lang, langConfig);
+        messages.put(lang, langConfig);
     }
     
     /**
@@ -133,68 +130,43 @@ public class LanguageManager {
      * Get a translated message
      */
     public String getMessage(String key) {
-        YamlConfiguration langConfig = languages.get(currentLanguage);
-        if (langConfig == null) {
-            langConfig = languages.get("en"); // Fallback to English
-        }
-        
-        String message = langConfig.getString(key);
-        if (message == null) {
-            // Try fallback language
-            YamlConfiguration fallback = languages.get("en");
-            if (fallback != null) {
-                message = fallback.getString(key);
-            }
-            if (message == null) {
-                return "Missing translation: " + key;
-            }
-        }
-        
-        return message;
+        return messages.getMessage(key);
     }
     
     /**
      * Get a translated message with placeholders replaced
      */
     public String getMessage(String key, Map<String, String> placeholders) {
-        String message = getMessage(key);
-        
-        if (placeholders != null) {
-            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-                message = message.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
-        }
-        
-        return message;
+        return messages.getMessage(key, placeholders);
     }
     
     /**
      * Get a translated message as a Component
      */
     public Component getComponent(String key) {
-        return ColorUtil.parse(getMessage(key));
+        return messages.getComponent(key);
     }
     
     /**
      * Get a translated message as a Component with placeholders
      */
     public Component getComponent(String key, Map<String, String> placeholders) {
-        return ColorUtil.parse(getMessage(key, placeholders));
+        return messages.getComponent(key, placeholders);
     }
     
     /**
      * Get current language code
      */
     public String getCurrentLanguage() {
-        return currentLanguage;
+        return messages.getCurrentLanguage();
     }
     
     /**
      * Set current language
      */
     public void setLanguage(String lang) {
-        if (languages.containsKey(lang)) {
-            this.currentLanguage = lang;
+        if (messages.contains(lang)) {
+            messages.setCurrentLanguage(lang);
             plugin.getConfig().set("language", lang);
             plugin.saveConfig();
             plugin.logInfo("Language changed to: " + lang);
@@ -207,8 +179,8 @@ public class LanguageManager {
      * Reload all language files
      */
     public void reload() {
-        languages.clear();
-        this.currentLanguage = plugin.getConfig().getString("language", "en");
+        messages.clear();
+        messages.setCurrentLanguage(plugin.getConfig().getString("language", "en"));
         loadLanguages();
     }
 }
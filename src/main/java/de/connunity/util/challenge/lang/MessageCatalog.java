@@ -0,0 +1,93 @@
+package de.connunity.util.challenge.lang;
+
+import de.connunity.util.challenge.ColorUtil;
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loaded language files and the message lookup over them (current language, English fallback).
+ * Needs no plugin, so the lookup also runs without a server (benchmarks).
+ */
+final class MessageCatalog {
+
+    private final Map<String, YamlConfiguration> languages = new HashMap<>();
+    private String currentLanguage;
+
+    MessageCatalog(String currentLanguage) {
+        this.currentLanguage = currentLanguage;
+    }
+
+    void put(String lang, YamlConfiguration langConfig) {
+        languages.put(lang, langConfig);
+    }
+
+    boolean contains(String lang) {
+        return languages.containsKey(lang);
+    }
+
+    int size() {
+        return languages.size();
+    }
+
+    void clear() {
+        languages.clear();
+    }
+
+    String getCurrentLanguage() {
+        return currentLanguage;
+    }
+
+    void setCurrentLanguage(String currentLanguage) {
+        this.currentLanguage = currentLanguage;
+    }
+
+    /**
+     * Get a translated message
+     */
+    String getMessage(String key) {
+        YamlConfiguration langConfig = languages.get(currentLanguage);
+        if (langConfig == null) {
+            langConfig = languages.get("en"); // Fallback to English
+        }
+        
+        String message = langConfig.getString(key);
+        if (message == null) {
+            // Try fallback language
+            YamlConfiguration fallback = languages.get("en");
+            if (fallback != null) {
+                message = fallback.getString(key);
+            }
+            if (message == null) {
+                return "Missing translation: " + key;
+            }
+        }
+        
+        return message;
+    }
+    
+    /**
+     * Get a translated message with placeholders replaced
+     */
+    String getMessage(String key, Map<String, String> placeholders) {
+        String message = getMessage(key);
+        
+        if (placeholders != null) {
+            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+                message = message.replace("{" + entry.getKey() + "}", entry.getValue());
+            }
+        }
+        
+        return message;
+    }
+
+    Component getComponent(String key) {
+        return ColorUtil.parse(getMessage(key));
+    }
+
+    Component getComponent(String key, Map<String, String> placeholders) {
+        return ColorUtil.parse(getMessage(key, placeholders));
+    }
+}
@@ -1,6 +1,9 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeRegistry;
+import de.connunity.util.challenge.data.PlayerRole;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -12,6 +15,10 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.inventory.ItemStack;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -19,13 +26,18 @@ import java.util.*;
  * - Every block broken drops a random item instead of normal drops
  * - Same randomization for ALL players (seed-based)
  * - Different each match (seed resets with /fullreset)
+ * - Reproducible: the seed is derived from the world seed, so the same world gives the same drops
  * - No OP loot - only regular obtainable items
+ *
+ * OPTIMIZED: the whole block -> drop table is rolled once per match into an array indexed by
+ * Material ordinal, so a break is a single array load. With bijective mode enabled the valid
+ * items are shuffled and dealt out so no two block types share a drop.
  */
 public class BlockBreakRandomizerListener implements Listener {
     
     private final ChallengeUtil plugin;
     
-    // Seed for this match - same for all players, changes each match
+    // Seed for this match - same for all players, derived from the world seed
     private long matchSeed;
     
     // Cache of valid items (excluding OP/technical items)
@@ -37,73 +49,66 @@ public class BlockBreakRandomizerListener implements Listener {
     // Containers that should keep their normal drops (preserve contents)
     private final Set<Material> containerBlocks = new HashSet<>();
     
-    // Map to store what each block type drops (deterministic based on seed)
-    private final Map<Material, Material> blockDropMapping = new HashMap<>();
+    // What each block type drops, indexed by Material ordinal (null = not a block, keep vanilla drops)
+    private Material[] dropTable = new Material[0];
 
-    // Cache challenge flags for high-frequency events
-    private boolean randomizerEnabled = false;
-    private boolean connunityHuntEnabled = false;
-    private long lastCacheUpdate = 0;
-    private static final long CACHE_REFRESH_INTERVAL = 5000; // 5 seconds
+    // Whether the current table was dealt as a permutation (no two blocks share a drop)
+    private boolean bijective;
 
-    // Cache player team lookup for Connunity Hunt mode
-    private final Map<UUID, String> teamCache = new HashMap<>();
-    private final Map<UUID, Long> teamCacheTime = new HashMap<>();
-    private static final long TEAM_CACHE_DURATION = 10000; // 10 seconds
+    private final ChallengeRegistry challenges;
     
     public BlockBreakRandomizerListener(ChallengeUtil plugin) {
         this.plugin = plugin;
+        this.challenges = plugin.getDataManager().getChallengeRegistry();
         initializeMatchSeed();
         initializeNoDropBlocks();
         initializeContainerBlocks();
         initializeValidItems();
+        rebuildDropTable();
     }
     
     /**
      * Initialize the match seed - called on plugin startup and reset
      */
     private void initializeMatchSeed() {
-        // Use current world seed + timestamp for uniqueness each match
-        // This will be the same for all players in this match
-        matchSeed = System.currentTimeMillis();
+        // The randomizer's stream of the match RNG - same for all players, same after a restart
+        matchSeed = plugin.getMatchRandom().seedFor(Challenge.BLOCK_BREAK_RANDOMIZER);
     }
     
     /**
      * Reset the randomizer for a new match
-     * Called by ChallengeUtil when /fullreset happens
+     * Called by FullResetCommand once the new world's seed is known
      */
     public void resetForNewMatch() {
-        matchSeed = System.currentTimeMillis();
-        blockDropMapping.clear(); // Clear cached mappings
-        teamCache.clear();
-        teamCacheTime.clear();
-        lastCacheUpdate = 0;
-    }
-
-    private void refreshChallengeCache() {
-        Boolean randomizer = plugin.getDataManager().getSavedChallenge("block_break_randomizer");
-        randomizerEnabled = randomizer != null && randomizer;
-
-        Boolean connunity = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        connunityHuntEnabled = connunity != null && connunity;
-
-        lastCacheUpdate = System.currentTimeMillis();
+        initializeMatchSeed();
+        rebuildDropTable();
     }
 
-    private String getCachedTeam(UUID playerId) {
-        long now = System.currentTimeMillis();
-        Long cacheTime = teamCacheTime.get(playerId);
-
-        if (cacheTime == null || (now - cacheTime) > TEAM_CACHE_DURATION) {
-            String team = plugin.getDataManager().getPlayerTeam(playerId);
-            teamCache.put(playerId, team);
-            teamCacheTime.put(playerId, now);
-            return team;
+    /**
+     * Roll the drop table for the current match seed
+     */
+    private void rebuildDropTable() {
+        long start = System.nanoTime();
+        bijective = plugin.getConfig().getBoolean("challenge.block_break_randomizer.bijective", false);
+        Set<Material> keepDrops = new HashSet<>(noDropBlocks);
+        keepDrops.addAll(containerBlocks);
+        dropTable = buildDropTable(matchSeed, validItems, keepDrops, bijective);
+        if (bijective) {
+            int blocks = 0;
+            for (Material material : Material.values()) {
+                if (dealsDrop(material, keepDrops)) {
+                    blocks++;
+                }
+            }
+            if (blocks > validItems.size()) {
+                plugin.logWarning("Block Break Randomizer: " + blocks + " breakable block types but only "
+                        + validItems.size() + " valid items - some blocks will share a drop");
+            }
         }
-
-        return teamCache.get(playerId);
+        plugin.logDebug("Block Break Randomizer: Rolled " + (bijective ? "bijective " : "") + "drop table in "
+                + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
     }
-    
+
     /**
      * Initialize blocks that should never drop items
      */
@@ -221,29 +226,90 @@ public class BlockBreakRandomizerListener implements Listener {
      * Same block type always drops the same item (based on match seed)
      */
     private Material getRandomizedDrop(Material blockType) {
-        // Check cache first
-        if (blockDropMapping.containsKey(blockType)) {
-            return blockDropMapping.get(blockType);
+        return dropTable[blockType.ordinal()];
+    }
+
+    /**
+     * Build the drop table for a match seed: one entry per breakable block type, indexed by Material ordinal.
+     * In bijective mode the valid items are shuffled once and dealt out in order, so every block
+     * type gets a different item (the deck is reshuffled only if there are more blocks than items).
+     * Blocks in keepDrops are left out, so they don't use up items from the deck.
+     */
+    static Material[] buildDropTable(long matchSeed, List<Material> validItems, Set<Material> keepDrops, boolean bijective) {
+        Material[] materials = Material.values();
+        Material[] table = new Material[materials.length];
+        if (validItems.isEmpty()) {
+            return table;
+        }
+        SplittableRandom random = new SplittableRandom(matchSeed);
+        Material[] deck = validItems.toArray(new Material[0]);
+        int dealt = deck.length;
+        for (Material material : materials) {
+            if (!dealsDrop(material, keepDrops)) {
+                continue;
+            }
+            if (!bijective) {
+                table[material.ordinal()] = deck[random.nextInt(deck.length)];
+                continue;
+            }
+            if (dealt == deck.length) {
+                shuffle(deck, random);
+                dealt = 0;
+            }
+            table[material.ordinal()] = deck[dealt++];
+        }
+        return table;
+    }
+
+    /**
+     * Whether a block type gets an entry in the drop table: a block that can be broken in survival
+     * (no air, bedrock, barriers, portals, moving pistons, ...) and doesn't keep its own drops
+     */
+    static boolean dealsDrop(Material material, Set<Material> keepDrops) {
+        return material.isBlock() && !material.isLegacy() && !material.isAir()
+                && material.getHardness() >= 0 && !keepDrops.contains(material);
+    }
+
+    /**
+     * Fisher-Yates shuffle
+     */
+    private static void shuffle(Material[] deck, SplittableRandom random) {
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Material swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
         }
-        
-        // Generate deterministic random item based on block type and match seed
-        Random random = new Random(matchSeed + blockType.ordinal());
-        Material randomItem = validItems.get(random.nextInt(validItems.size()));
-        
-        // Cache the result
-        blockDropMapping.put(blockType, randomItem);
-        
-        return randomItem;
+    }
+
+    /**
+     * Write the current drop table as CSV (block,drop), sorted by block name, for spectators and streamers
+     *
+     * @return number of block types written
+     */
+    public int exportDropTable(File file) throws IOException {
+        Material[] table = dropTable;
+        List<String> lines = new ArrayList<>();
+        for (Material material : Material.values()) {
+            Material drop = material.ordinal() < table.length ? table[material.ordinal()] : null;
+            if (drop != null && !noDropBlocks.contains(material) && !containerBlocks.contains(material)) {
+                lines.add(material.name() + "," + drop.name());
+            }
+        }
+        Collections.sort(lines);
+        StringBuilder csv = new StringBuilder("# seed=").append(plugin.getMatchRandom().getMatchSeed())
+                .append(", mode=").append(bijective ? "bijective" : "random").append('\n')
+                .append("block,drop\n");
+        for (String line : lines) {
+            csv.append(line).append('\n');
+        }
+        Files.writeString(file.toPath(), csv.toString(), StandardCharsets.UTF_8);
+        return lines.size();
     }
     
     @EventHandler(priority = EventPriority.HIGH)
     public void onBlockDropItem(BlockDropItemEvent event) {
-        long now = System.currentTimeMillis();
-        if (now - lastCacheUpdate > CACHE_REFRESH_INTERVAL) {
-            refreshChallengeCache();
-        }
-
-        if (!randomizerEnabled) {
+        if (!challenges.isEnabled(Challenge.BLOCK_BREAK_RANDOMIZER)) {
             return; // Challenge not enabled
         }
         
@@ -257,9 +323,8 @@ public class BlockBreakRandomizerListener implements Listener {
         Material blockType = event.getBlockState().getType();
         
         // In Connunity Hunt mode, only apply randomizer to Streamers
-        if (connunityHuntEnabled) {
-            String team = getCachedTeam(player.getUniqueId());
-            if (!"Streamer".equals(team)) {
+        if (challenges.isEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
+            if (!plugin.getDataManager().getPlayerContext(player).hasRole(PlayerRole.STREAMER)) {
                 return; // Viewers get normal block drops
             }
         }
@@ -281,6 +346,9 @@ public class BlockBreakRandomizerListener implements Listener {
         
         // Get randomized drop for this block type
         Material randomDrop = getRandomizedDrop(blockType);
+        if (randomDrop == null) {
+            return; // Not in the table (no valid items) - keep vanilla drops
+        }
         
         // Clear all existing drops
         event.getItems().clear();
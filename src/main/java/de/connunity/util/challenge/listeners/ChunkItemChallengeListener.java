@@ -1,12 +1,15 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeRegistry;
+import de.connunity.util.challenge.data.MatchRandom;
+import de.connunity.util.challenge.data.PlayerRole;
 import de.connunity.util.challenge.lang.LanguageManager;
-import org.bukkit.Chunk;
+import de.connunity.util.challenge.movement.MoveType;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -17,27 +20,22 @@ import java.util.*;
 /**
  * Handles the chunk item challenge:
  * - When entering a new chunk, players receive a random item
- * - Each chunk gives the same item to a player on re-entry
+ * - Each chunk gives the same item to a player on re-entry, also after a relog or restart
  * - Different players get different items from the same chunk
  * - In manhunt mode, hunters only start receiving items 10 minutes after /start
+ * The item is derived from a hash of (match seed, player, world, chunk) instead of being stored,
+ * so only the player's last chunk is kept in memory.
  */
 public class ChunkItemChallengeListener implements Listener {
     
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
     
-    // Track the last chunk each player was in
-    private final Map<UUID, String> playerLastChunk = new HashMap<>();
+    // Chunks are packed into longs (world index + coordinates) instead of String keys
+    private final ChunkKeys chunkKeys = new ChunkKeys();
     
-    // Track which item each player gets in each chunk (player -> chunk -> item)
-    private final Map<UUID, Map<String, Material>> playerChunkItems = new HashMap<>();
-    
-    // Track number of items given per player to prevent memory leaks
-    private final Map<UUID, Integer> playerItemCount = new HashMap<>();
-    private static final int MAX_CHUNKS_PER_PLAYER = 1000; // Limit to prevent memory issues
-    
-    // Random generator for items
-    private final Random random = new Random();
+    // Last chunk of each player
+    private final PlayerChunkTracker playerChunks = new PlayerChunkTracker();
     
     // Start time for manhunt mode delay
     private long manhuntStartTime = 0;
@@ -49,23 +47,22 @@ public class ChunkItemChallengeListener implements Listener {
     // Cache valid items to avoid recreating list every time
     private List<Material> validItemsCache = null;
     
-    // OPTIMIZATION: Cache challenge/manhunt enabled status to avoid constant disk reads
-    private boolean challengeEnabled = false;
-    private boolean manhuntEnabled = false;
-    private boolean connunityHuntEnabled = false;
-    private long lastCacheUpdate = 0;
-    private static final long CACHE_REFRESH_INTERVAL = 5000; // 5 seconds
-    
-    // OPTIMIZATION: Cache player teams to avoid constant disk reads
-    private final Map<UUID, String> teamCache = new HashMap<>();
-    private final Map<UUID, Long> teamCacheTime = new HashMap<>();
-    private static final long TEAM_CACHE_DURATION = 10000; // 10 seconds
+    private final ChallengeRegistry challenges;
     
     public ChunkItemChallengeListener(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.challenges = plugin.getDataManager().getChallengeRegistry();
         initializeExcludedItems();
         initializeValidItemsCache();
+        
+        // Forget chunk positions when the challenge is switched off, so re-enabling it
+        // gives an item on the next chunk entered instead of relying on stale positions
+        challenges.subscribe((challenge, enabled) -> {
+            if (challenge == Challenge.CHUNK_ITEMS && !enabled) {
+                playerChunks.clearPositions();
+            }
+        });
     }
     
     /**
@@ -138,60 +135,18 @@ public class ChunkItemChallengeListener implements Listener {
      * Reset all tracking data when challenge is reset
      */
     public void reset() {
-        playerLastChunk.clear();
-        playerChunkItems.clear();
-        playerItemCount.clear();
+        playerChunks.clear();
         manhuntStartTime = 0;
-        teamCache.clear();
-        teamCacheTime.clear();
-        lastCacheUpdate = 0;
     }
     
     /**
      * Start the challenge (called when /start is executed)
      */
     public void start() {
-        // Refresh cache when challenge starts
-        refreshChallengeCache();
-        
         // Set start time for manhunt mode delay
         manhuntStartTime = System.currentTimeMillis();
     }
     
-    /**
-     * OPTIMIZATION: Refresh challenge enabled cache from disk (called periodically)
-     */
-    private void refreshChallengeCache() {
-        Boolean chunkItems = plugin.getDataManager().getSavedChallenge("chunk_items");
-        challengeEnabled = chunkItems != null && chunkItems;
-        
-        Boolean manhunt = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        manhuntEnabled = manhunt != null && manhunt;
-
-        Boolean connunityHunt = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        connunityHuntEnabled = connunityHunt != null && connunityHunt;
-        
-        lastCacheUpdate = System.currentTimeMillis();
-    }
-    
-    /**
-     * OPTIMIZATION: Get cached team for player (avoid constant disk reads)
-     */
-    private String getCachedTeam(UUID playerId) {
-        long currentTime = System.currentTimeMillis();
-        Long cacheTime = teamCacheTime.get(playerId);
-        
-        // Refresh cache if expired or missing
-        if (cacheTime == null || (currentTime - cacheTime) > TEAM_CACHE_DURATION) {
-            String team = plugin.getDataManager().getPlayerTeam(playerId);
-            teamCache.put(playerId, team);
-            teamCacheTime.put(playerId, currentTime);
-            return team;
-        }
-        
-        return teamCache.get(playerId);
-    }
-    
     /**
      * Stop the challenge (called when timer is stopped/reset)
      */
@@ -199,27 +154,12 @@ public class ChunkItemChallengeListener implements Listener {
         reset();
     }
     
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (event.getTo() == null) {
-            return;
-        }
-
-        // Check chunk transition using coordinates (avoids chunk object creation)
-        if (event.getFrom().getWorld() == event.getTo().getWorld()
-                && (event.getFrom().getBlockX() >> 4) == (event.getTo().getBlockX() >> 4)
-                && (event.getFrom().getBlockZ() >> 4) == (event.getTo().getBlockZ() >> 4)) {
-            return; // Player is still in the same chunk - skip all processing
-        }
-        
-        // OPTIMIZATION: Refresh cache periodically (avoid constant disk reads)
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCacheUpdate > CACHE_REFRESH_INTERVAL) {
-            refreshChallengeCache();
-        }
-        
-        // Check cached challenge enabled status (no disk I/O)
-        if (!challengeEnabled) {
+    /**
+     * Chunk and world changes from the movement dispatcher (observe phase) - moves inside a chunk never get here
+     */
+    public void onChunkChange(PlayerMoveEvent event, MoveType type) {
+        // Check challenge enabled status
+        if (!challenges.isEnabled(Challenge.CHUNK_ITEMS)) {
             return;
         }
         
@@ -235,18 +175,16 @@ public class ChunkItemChallengeListener implements Listener {
             return;
         }
         
-        String chunkKey = getChunkKey(event.getTo().getWorld(), event.getTo().getBlockX() >> 4, event.getTo().getBlockZ() >> 4);
+        // Packed key and primitive per-player state - no allocation on a chunk crossing
+        org.bukkit.World world = event.getTo().getWorld();
+        int chunkX = event.getTo().getBlockX() >> 4;
+        int chunkZ = event.getTo().getBlockZ() >> 4;
+        PlayerChunkTracker.PlayerChunks chunks = playerChunks.get(player.getUniqueId());
         
         // Check if player moved to a new chunk
-        UUID playerId = player.getUniqueId();
-        String lastChunk = playerLastChunk.get(playerId);
-        
-        if (!chunkKey.equals(lastChunk)) {
-            // Player entered a new chunk
-            playerLastChunk.put(playerId, chunkKey);
-            
+        if (chunks.enter(chunkKeys.key(world, chunkX, chunkZ))) {
             // Give item to player
-            giveChunkItem(player, chunkKey);
+            giveChunkItem(player, getChunkItem(chunks.getPlayerHash(), world, chunkX, chunkZ));
         }
     }
     
@@ -255,41 +193,37 @@ public class ChunkItemChallengeListener implements Listener {
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        UUID playerId = event.getPlayer().getUniqueId();
-        
         // Remove player's data to free memory
-        playerLastChunk.remove(playerId);
-        playerChunkItems.remove(playerId);
-        playerItemCount.remove(playerId);
+        playerChunks.remove(event.getPlayer().getUniqueId());
     }
     
     /**
      * Check if player can receive items based on manhunt mode and delay
-     * OPTIMIZED: Uses cached values instead of disk reads
+     * OPTIMIZED: Uses registry flags and the player context instead of disk reads
      */
     private boolean canPlayerReceiveItems(Player player) {
-        // Get player's cached team (minimal disk I/O)
-        String team = getCachedTeam(player.getUniqueId());
+        // Role is kept up to date by DataManager on every team change
+        PlayerRole role = plugin.getDataManager().getPlayerContext(player).getRole();
         
         // Check for Connunity Hunt mode - only Streamers receive items
-        if (connunityHuntEnabled) {
+        if (challenges.isEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             // In Connunity Hunt mode, only Streamers get challenge items
-            return "Streamer".equals(team);
+            return role == PlayerRole.STREAMER;
         }
         
-        // Check cached manhunt mode status (no disk I/O)
-        if (!manhuntEnabled) {
+        // Check manhunt mode status
+        if (!challenges.isEnabled(Challenge.MANHUNT_MODE)) {
             // Not in manhunt mode, everyone can receive items
             return true;
         }
         
         // Runners always receive items
-        if ("runner".equals(team)) {
+        if (role == PlayerRole.RUNNER) {
             return true;
         }
         
         // Hunters need to wait 10 minutes
-        if ("hunter".equals(team)) {
+        if (role == PlayerRole.HUNTER) {
             if (manhuntStartTime == 0) {
                 return false; // Challenge hasn't started yet
             }
@@ -304,41 +238,24 @@ public class ChunkItemChallengeListener implements Listener {
     }
     
     /**
-     * Give a random item to the player for this chunk
-     * OPTIMIZED: Memory leak prevention and entity spawn reduction
+     * Give the chunk's item to the player
+     * OPTIMIZED: Entity spawn reduction
      */
-    private void giveChunkItem(Player player, String chunkKey) {
-        UUID playerId = player.getUniqueId();
-        
-        // Get or create the player's chunk-item mapping
-        Map<String, Material> chunkItems = playerChunkItems.computeIfAbsent(playerId, k -> new HashMap<>());
-        
-        // MEMORY LEAK PREVENTION: Check if player has too many stored chunks
-        Integer itemCount = playerItemCount.getOrDefault(playerId, 0);
-        if (itemCount >= MAX_CHUNKS_PER_PLAYER) {
-            // Clear old entries to prevent memory leak
-            chunkItems.clear();
-            playerItemCount.put(playerId, 0);
-            plugin.logDebug("Cleared chunk item cache for " + player.getName() + " (reached limit)");
-        }
-        
-        // Check if player has already received an item for this chunk
-        Material item = chunkItems.get(chunkKey);
-        
-        if (item == null) {
-            // Generate a new random item for this chunk
-            item = getRandomItem();
-            chunkItems.put(chunkKey, item);
-            playerItemCount.put(playerId, itemCount + 1);
-        }
-        
+    private void giveChunkItem(Player player, Material item) {
         // Give the item to the player
         ItemStack itemStack = new ItemStack(item, 1);
         
-        // OPTIMIZATION: Check if item can be added (either empty slot or stackable)
-        if (canAddItemToInventory(player, itemStack)) {
+        // OPTIMIZATION: Check if item can be added (either empty slot or stackable) from the shared capacity index
+        InventoryCapacityTracker capacity = plugin.getInventoryCapacityTracker();
+        if (capacity.canFit(player, itemStack)) {
             // Add to inventory (fast operation)
-            player.getInventory().addItem(itemStack);
+            HashMap<Integer, ItemStack> leftover = player.getInventory().addItem(itemStack);
+            capacity.recordAdded(player, itemStack, !leftover.isEmpty());
+
+            // Index was out of date - hand the item over anyway (at most this one item is dropped)
+            for (ItemStack drop : leftover.values()) {
+                player.getWorld().dropItemNaturally(player.getLocation(), drop);
+            }
             /* Commented out to reduce chat spam
             Map<String, String> placeholders = new HashMap<>();
             placeholders.put("item", getItemName(item));
@@ -354,56 +271,31 @@ public class ChunkItemChallengeListener implements Listener {
     }
     
     /**
-     * Check if an item can be added to the player's inventory
-     * This includes checking for empty slots AND stackable items
-     */
-    private boolean canAddItemToInventory(Player player, ItemStack itemToAdd) {
-        // First check if there's an empty slot
-        if (player.getInventory().firstEmpty() != -1) {
-            return true;
-        }
-        
-        // No empty slots - check if item can be stacked with existing items
-        for (ItemStack inventoryItem : player.getInventory().getStorageContents()) {
-            if (inventoryItem != null && inventoryItem.getType() == itemToAdd.getType()) {
-                // Check if items are similar (same type, same meta)
-                if (inventoryItem.isSimilar(itemToAdd)) {
-                    // Check if there's room to stack
-                    int maxStackSize = inventoryItem.getMaxStackSize();
-                    if (inventoryItem.getAmount() < maxStackSize) {
-                        return true; // Can stack with this item
-                    }
-                }
-            }
-        }
-        
-        return false; // No empty slots and can't stack
-    }
-    
-    /**
-     * Get a random item that is not excluded (using cached list for performance)
+     * Get the item a player receives in a chunk (using cached list for performance).
+     * Stateless: the same match, player, world and chunk always give the same item.
      */
-    private Material getRandomItem() {
+    private Material getChunkItem(long playerHash, org.bukkit.World world, int chunkX, int chunkZ) {
         if (validItemsCache == null || validItemsCache.isEmpty()) {
             // Fallback to dirt if cache is empty (should never happen)
             return Material.DIRT;
         }
         
-        return validItemsCache.get(random.nextInt(validItemsCache.size()));
+        // Read from the match RNG each time, so a reseed (new world, seed resolved after startup) applies at once.
+        // World names are stable across restarts (unlike the session's world index)
+        long matchSeed = plugin.getMatchRandom().seedFor(Challenge.CHUNK_ITEMS);
+        return validItemsCache.get(itemIndex(matchSeed, playerHash, world.getName().hashCode(), chunkX, chunkZ,
+                validItemsCache.size()));
     }
     
     /**
-     * Get a unique key for a chunk (optimized to reduce string allocation)
+     * Map (match seed, player hash, world hash, chunk) onto [0, itemCount)
      */
-    private String getChunkKey(org.bukkit.World world, int chunkX, int chunkZ) {
-        // Use StringBuilder to reduce string allocation garbage
-        return new StringBuilder(32)
-            .append(world.getName())
-            .append('_')
-            .append(chunkX)
-            .append('_')
-            .append(chunkZ)
-            .toString();
+    static int itemIndex(long matchSeed, long playerHash, int worldHash, int chunkX, int chunkZ, int itemCount) {
+        long hash = MatchRandom.mix(matchSeed ^ playerHash);
+        hash = MatchRandom.mix(hash ^ worldHash);
+        hash = MatchRandom.mix(hash ^ (((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL)));
+        // Multiply-shift instead of modulo: uniform enough for a few thousand items and branch-free
+        return (int) (((hash >>> 32) * itemCount) >>> 32);
     }
     
     /**
@@ -0,0 +1,50 @@
+package de.connunity.util.challenge.listeners;
+
+import org.bukkit.World;
+
+/**
+ * Packs (world, chunkX, chunkZ) into a single long so chunk positions can be compared and stored
+ * without building String keys. Worlds get a small index by name the first time they are seen, so a
+ * world that is recreated under the same name (e.g. after a world reset) keeps its index and the old
+ * world is not kept reachable.
+ *
+ * Layout: 8 bits world index | 28 bits chunkX | 28 bits chunkZ. Chunk coordinates on a vanilla
+ * world border stay within +-1,875,000, well inside 28 bits.
+ */
+final class ChunkKeys {
+
+    private static final int MAX_WORLDS = 127;
+    private static final int COORD_BITS = 28;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    // Main thread only; a handful of worlds, so a linear scan beats any map and allocates nothing
+    private final String[] worldNames = new String[MAX_WORLDS];
+    private int worldCount = 0;
+
+    /**
+     * Packed key of a chunk
+     */
+    long key(World world, int chunkX, int chunkZ) {
+        return pack(worldIndex(world), chunkX, chunkZ);
+    }
+
+    static long pack(int worldIndex, int chunkX, int chunkZ) {
+        return ((long) worldIndex << (2 * COORD_BITS))
+                | ((chunkX & COORD_MASK) << COORD_BITS)
+                | (chunkZ & COORD_MASK);
+    }
+
+    private int worldIndex(World world) {
+        String name = world.getName();
+        for (int i = 0; i < worldCount; i++) {
+            if (worldNames[i].equals(name)) {
+                return i;
+            }
+        }
+        if (worldCount == MAX_WORLDS) {
+            return MAX_WORLDS; // Shared overflow index; never reached with normal world counts
+        }
+        worldNames[worldCount] = name;
+        return worldCount++;
+    }
+}
@@ -2,6 +2,7 @@ package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
 import de.connunity.util.challenge.connunityhunt.ConnunityHuntManager;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -39,8 +40,7 @@ public class CompassProtectionListener implements Listener {
         String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
         
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled && "hunter".equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE) && "hunter".equals(team)) {
             // Prevent hunters from dropping compass in manhunt mode
             event.setCancelled(true);
             player.sendMessage(lang.getComponent("compass.cannot-drop"));
@@ -48,8 +48,7 @@ public class CompassProtectionListener implements Listener {
         }
         
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled != null && teamRaceEnabled && team != null && !team.isEmpty()) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE) && team != null && !team.isEmpty()) {
             // Prevent team race players from dropping compass
             event.setCancelled(true);
             player.sendMessage(lang.getComponent("compass.cannot-drop"));
@@ -57,8 +56,7 @@ public class CompassProtectionListener implements Listener {
         }
         
         // Check if connunity hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE) && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
             // Prevent viewers from dropping compass in connunity hunt mode
             event.setCancelled(true);
             player.sendMessage(lang.getComponent("compass.cannot-drop"));
@@ -72,24 +70,21 @@ public class CompassProtectionListener implements Listener {
         String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
         
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled && "hunter".equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE) && "hunter".equals(team)) {
             // Remove compass from drops for hunters in manhunt mode
             event.getDrops().removeIf(item -> item.getType() == Material.COMPASS);
             return;
         }
         
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled != null && teamRaceEnabled && team != null && !team.isEmpty()) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE) && team != null && !team.isEmpty()) {
             // Remove compass from drops for team race players
             event.getDrops().removeIf(item -> item.getType() == Material.COMPASS);
             return;
         }
         
         // Check if connunity hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE) && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
             // Remove compass from drops for viewers in connunity hunt mode
             event.getDrops().removeIf(item -> item.getType() == Material.COMPASS);
             return;
@@ -102,8 +97,7 @@ public class CompassProtectionListener implements Listener {
         String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
         
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled && "hunter".equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE) && "hunter".equals(team)) {
             // Give compass back to hunters in manhunt mode
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
                 // Check if hunter already has a compass
@@ -123,8 +117,7 @@ public class CompassProtectionListener implements Listener {
         }
         
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled != null && teamRaceEnabled && team != null && !team.isEmpty()) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE) && team != null && !team.isEmpty()) {
             // Give compass back to team race players
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
                 // Check if player already has a compass
@@ -144,8 +137,7 @@ public class CompassProtectionListener implements Listener {
         }
         
         // Check if connunity hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE) && ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
             // Give compass back to viewers in connunity hunt mode
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
                 // Check if viewer already has a compass
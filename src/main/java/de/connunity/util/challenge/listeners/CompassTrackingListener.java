@@ -2,14 +2,19 @@ package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
 import de.connunity.util.challenge.connunityhunt.ConnunityHuntManager;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import de.connunity.util.challenge.manhunt.ManhuntManager;
 import org.bukkit.Material;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
 
@@ -17,7 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Handles compass right-click interactions for manhunt and connunity hunt tracking
+ * Handles compass right-click interactions for manhunt and connunity hunt tracking,
+ * and tells the team race compass updates when a compass changed slots
  */
 public class CompassTrackingListener implements Listener {
     
@@ -44,13 +50,8 @@ public class CompassTrackingListener implements Listener {
             return;
         }
         
-        // Check if modes are enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        
         // Handle Team Race mode
-        if (teamRaceEnabled != null && teamRaceEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             if (team != null && !team.isEmpty()) {
                 // Check if timer is running
@@ -68,7 +69,7 @@ public class CompassTrackingListener implements Listener {
         }
         
         // Handle Connunity Hunt mode
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             // Check if player is a viewer
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             if (ConnunityHuntManager.TEAM_VIEWER.equals(team)) {
@@ -106,7 +107,7 @@ public class CompassTrackingListener implements Listener {
         }
         
         // Handle Manhunt mode
-        if (manhuntEnabled == null || !manhuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
         
@@ -146,4 +147,36 @@ public class CompassTrackingListener implements Listener {
         // Cancel the event to prevent normal compass behavior
         event.setCancelled(true);
     }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCompassPickup(EntityPickupItemEvent event) {
+        if (event.getItem().getItemStack().getType() == Material.COMPASS) {
+            markCompassesMoved(event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        // Hotbar swaps move the hotbar item without it being the clicked or cursor item
+        if (isCompass(event.getCurrentItem()) || isCompass(event.getCursor()) || event.getHotbarButton() >= 0) {
+            markCompassesMoved(event.getWhoClicked());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getOldCursor().getType() == Material.COMPASS) {
+            markCompassesMoved(event.getWhoClicked());
+        }
+    }
+
+    private void markCompassesMoved(Entity entity) {
+        if (entity instanceof Player) {
+            plugin.getTeamRaceManager().markCompassesMoved((Player) entity);
+        }
+    }
+
+    private static boolean isCompass(ItemStack item) {
+        return item != null && item.getType() == Material.COMPASS;
+    }
 }
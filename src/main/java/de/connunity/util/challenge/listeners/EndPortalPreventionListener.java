@@ -1,20 +1,24 @@
 package de.connunity.util.challenge.listeners;
 
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import de.connunity.util.challenge.ChallengeUtil;
 import de.connunity.util.challenge.endfight.CustomEndFightManager;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockFormEvent;
 import org.bukkit.event.block.BlockFromToEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.world.PortalCreateEvent;
 
 /**
  * Prevents END_PORTAL and END_GATEWAY blocks from forming in the End dimension
- * when custom end fight is active
+ * when custom end fight is active. Blocks that form anyway are handed to the end fight
+ * manager's portal guard, which clears them on the next tick.
  */
 public class EndPortalPreventionListener implements Listener {
     
@@ -62,19 +66,48 @@ public class EndPortalPreventionListener implements Listener {
         Material newType = event.getNewState().getType();
         if (newType == Material.END_PORTAL || newType == Material.END_GATEWAY) {
             event.setCancelled(true);
-            // Schedule a task to ensure the block is AIR
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (event.getBlock().getType() == Material.END_PORTAL || 
-                        event.getBlock().getType() == Material.END_GATEWAY) {
-                        event.getBlock().setType(Material.AIR);
-                    }
-                }
-            }.runTaskLater(plugin, 1L);
+            // Make sure the block is AIR on the next tick
+            endFightManager.guardPortalBlock(event.getBlock());
         }
     }
     
+    /**
+     * Guard the blocks of any portal created in the End (gateways, re-lit exit portal)
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
+    public void onPortalCreate(PortalCreateEvent event) {
+        if (!endFightManager.isActive()) {
+            return;
+        }
+        
+        if (event.getWorld().getEnvironment() != World.Environment.THE_END) {
+            return;
+        }
+        
+        for (BlockState state : event.getBlocks()) {
+            if (state.getType() == Material.END_PORTAL || state.getType() == Material.END_GATEWAY) {
+                endFightManager.guardPortalBlock(state.getBlock());
+            }
+        }
+    }
+    
+    /**
+     * The exit portal is lit without a block event when the dragon's death animation ends
+     * (the moment it is removed from the world) - check the guarded positions right after
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDragonRemoved(EntityRemoveFromWorldEvent event) {
+        if (!endFightManager.isActive() || event.getEntityType() != EntityType.ENDER_DRAGON) {
+            return;
+        }
+        
+        if (event.getEntity().getWorld().getEnvironment() != World.Environment.THE_END) {
+            return;
+        }
+        
+        endFightManager.checkGuardedPortals();
+    }
+    
     /**
      * Prevent END_PORTAL or END_GATEWAY blocks from spreading/flowing
      */
@@ -1,7 +1,10 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.scan.ChunkScanner;
+import de.connunity.util.challenge.scan.ScanRegion;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -21,6 +24,9 @@ import org.bukkit.event.world.PortalCreateEvent.CreateReason;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Handles Ender Dragon death in Manhunt mode and Custom End Fight
@@ -49,25 +55,21 @@ public class EnderDragonDeathListener implements Listener {
         }
         
         // Check if custom end fight is enabled AND team race mode is enabled
-        Boolean customEndFightEnabled = plugin.getDataManager().getSavedChallenge("custom_end_fight");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (customEndFightEnabled != null && customEndFightEnabled && 
-            teamRaceEnabled != null && teamRaceEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CUSTOM_END_FIGHT)
+                && plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             handleCustomEndFight(event);
             return;
         }
         
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             // Runners win!
             announceWinner("RUNNER");
             return;
         }
         
         // Check if connunity hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             // Streamers win!
             announceWinner("STREAMER");
             return;
@@ -144,74 +146,70 @@ public class EnderDragonDeathListener implements Listener {
         new BukkitRunnable() {
             int attempts = 0;
             final int maxAttempts = 200; // Try for 10 seconds
+            boolean searching = false;
             
             @Override
             public void run() {
+                if (searching) {
+                    return; // Previous search still running
+                }
                 attempts++;
+                searching = true;
                 
                 // Search for dragon egg in the area (check portal area specifically)
-                Location eggLocation = findDragonEgg(dragonLocation);
-                
-                if (eggLocation != null) {
-                    plugin.logDebug("Found dragon egg at: " + eggLocation);
-                    // Start continuous glow effect
-                    startEggGlowEffect(eggLocation);
-                    this.cancel();
-                } else if (attempts >= maxAttempts) {
-                    // Give up after max attempts
-                    plugin.logWarning("Could not find dragon egg to add glow effect after " + attempts + " attempts!");
-                    this.cancel();
-                }
+                findDragonEgg(dragonLocation, eggLocation -> {
+                    searching = false;
+                    if (isCancelled()) {
+                        return;
+                    }
+                    
+                    if (eggLocation != null) {
+                        plugin.logDebug("Found dragon egg at: " + eggLocation);
+                        // Start continuous glow effect
+                        startEggGlowEffect(eggLocation);
+                        this.cancel();
+                    } else if (attempts >= maxAttempts) {
+                        // Give up after max attempts
+                        plugin.logWarning("Could not find dragon egg to add glow effect after " + attempts + " attempts!");
+                        this.cancel();
+                    }
+                });
             }
         }.runTaskTimer(plugin, 20L, 5L);
     }
     
     /**
-     * Find the dragon egg in the area
+     * Find the dragon egg in the area (searched off the main thread by the chunk scanner)
+     * The callback receives the egg location, or null if there is none (on the main thread)
      */
-    private Location findDragonEgg(Location center) {
+    private void findDragonEgg(Location center, Consumer<Location> callback) {
         World world = center.getWorld();
-        if (world == null) return null;
+        if (world == null) {
+            callback.accept(null);
+            return;
+        }
+        
+        ChunkScanner scanner = plugin.getChunkScanner();
+        Set<Material> egg = EnumSet.of(Material.DRAGON_EGG);
         
         // First check the exit portal area (0, 64, 0) where the egg always spawns
         Location portalCenter = new Location(world, 0, 64, 0);
         int portalRadius = 10;
+        ScanRegion portalArea = new ScanRegion(world,
+            portalCenter.getBlockX() - portalRadius, portalCenter.getBlockY() - 5, portalCenter.getBlockZ() - portalRadius,
+            portalCenter.getBlockX() + portalRadius, portalCenter.getBlockY() + 10, portalCenter.getBlockZ() + portalRadius);
         
-        for (int x = -portalRadius; x <= portalRadius; x++) {
-            for (int y = -5; y <= 10; y++) {
-                for (int z = -portalRadius; z <= portalRadius; z++) {
-                    Block block = world.getBlockAt(
-                        portalCenter.getBlockX() + x,
-                        portalCenter.getBlockY() + y,
-                        portalCenter.getBlockZ() + z
-                    );
-                    
-                    if (block.getType() == Material.DRAGON_EGG) {
-                        return block.getLocation();
-                    }
-                }
-            }
-        }
-        
-        // Fallback: search around dragon death location
-        int radius = 30;
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    Block block = world.getBlockAt(
-                        center.getBlockX() + x,
-                        center.getBlockY() + y,
-                        center.getBlockZ() + z
-                    );
-                    
-                    if (block.getType() == Material.DRAGON_EGG) {
-                        return block.getLocation();
-                    }
-                }
+        scanner.scan(portalArea, egg, portalHits -> {
+            if (!portalHits.isEmpty()) {
+                callback.accept(portalHits.getBlock(0).getLocation());
+                return;
             }
-        }
-        
-        return null;
+            
+            // Fallback: search around dragon death location
+            int radius = 30;
+            scanner.scan(ScanRegion.around(center, radius, radius), egg, hits ->
+                callback.accept(hits.isEmpty() ? null : hits.getBlock(0).getLocation()));
+        });
     }
     
     /**
@@ -226,10 +224,8 @@ public class EnderDragonDeathListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
     public void onPortalCreate(PortalCreateEvent event) {
-        Boolean customEndFightEnabled = plugin.getDataManager().getSavedChallenge("custom_end_fight");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (customEndFightEnabled == null || !customEndFightEnabled || 
-            teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CUSTOM_END_FIGHT)
+                || !plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
@@ -266,10 +262,8 @@ public class EnderDragonDeathListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
     public void onPortalForm(BlockFromToEvent event) {
-        Boolean customEndFightEnabled = plugin.getDataManager().getSavedChallenge("custom_end_fight");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (customEndFightEnabled == null || !customEndFightEnabled || 
-            teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CUSTOM_END_FIGHT)
+                || !plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
@@ -296,7 +290,7 @@ public class EnderDragonDeathListener implements Listener {
      */
     private void announceWinner(String winningTeam) {
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         // Stop manhunt manager
         plugin.getManhuntManager().stop();
@@ -364,7 +358,7 @@ public class EnderDragonDeathListener implements Listener {
      */
     private void announceEveryoneWins() {
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         Component title = lang.getComponent("dragon.everyone-wins-title");
         Component subtitle = lang.getComponent("dragon.everyone-wins-subtitle");
@@ -1,6 +1,8 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.MatchRandom;
 import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
@@ -29,7 +31,7 @@ public class FriendlyFireItemListener implements Listener {
     
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
-    private final Random random = new Random();
+    private final MatchRandom matchRandom; // Seed-derived streams: same world seed, same items
     
     // Loot pools based on health percentage
     private final Map<String, List<LootItem>> lootPools = new HashMap<>();
@@ -46,6 +48,7 @@ public class FriendlyFireItemListener implements Listener {
     public FriendlyFireItemListener(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.matchRandom = plugin.getMatchRandom();
         initializeLootPools();
     }
     
@@ -283,8 +286,7 @@ public class FriendlyFireItemListener implements Listener {
     @EventHandler
     public void onPlayerDamage(EntityDamageByEntityEvent event) {
         // Check if friendly fire challenge is enabled
-        Boolean challengeEnabled = plugin.getDataManager().getSavedChallenge("friendly_fire_item");
-        if (challengeEnabled == null || !challengeEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.FRIENDLY_FIRE_ITEM)) {
             return;
         }
         
@@ -381,14 +383,12 @@ public class FriendlyFireItemListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerDeath(PlayerDeathEvent event) {
         // Check if friendly fire challenge is enabled
-        Boolean challengeEnabled = plugin.getDataManager().getSavedChallenge("friendly_fire_item");
-        if (challengeEnabled == null || !challengeEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.FRIENDLY_FIRE_ITEM)) {
             return;
         }
         
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled == null || !manhuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
         
@@ -436,8 +436,7 @@ public class FriendlyFireItemListener implements Listener {
      */
     private void giveHealthBasedItem(Player player) {
         // In Connunity Hunt mode, only Streamers can receive friendly fire items
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             if (!"Streamer".equals(team)) {
                 // Viewers cannot use friendly fire items in Connunity Hunt mode
@@ -495,6 +494,9 @@ public class FriendlyFireItemListener implements Listener {
             return;
         }
         
+        // Each player rolls from their own stream, so other players' rolls never shift their loot
+        SplittableRandom random = matchRandom.forPlayer(Challenge.FRIENDLY_FIRE_ITEM, player.getUniqueId());
+        
         // Try to get an item that should drop (respect drop chances)
         LootItem lootItem = null;
         int maxAttempts = 10; // Try up to 10 times to find an item that should drop
@@ -513,14 +515,18 @@ public class FriendlyFireItemListener implements Listener {
         
         ItemStack item = lootItem.createItemStack(random);
         
-        // Try to add to inventory
-        int emptySlot = player.getInventory().firstEmpty();
-        if (emptySlot == -1) {
+        // Try to add to inventory (capacity index shared with the other item challenges)
+        InventoryCapacityTracker capacity = plugin.getInventoryCapacityTracker();
+        if (!capacity.canFit(player, item)) {
             // Inventory full, drop at player's location
             player.getWorld().dropItemNaturally(player.getLocation(), item);
         } else {
             // Add to inventory silently
-            player.getInventory().addItem(item);
+            Map<Integer, ItemStack> leftover = player.getInventory().addItem(item);
+            capacity.recordAdded(player, item, !leftover.isEmpty());
+            for (ItemStack drop : leftover.values()) {
+                player.getWorld().dropItemNaturally(player.getLocation(), drop);
+            }
             
             // Play sound based on loot tier
             org.bukkit.Sound sound;
@@ -598,11 +604,11 @@ public class FriendlyFireItemListener implements Listener {
             return this;
         }
         
-        public boolean shouldDrop(Random random) {
+        public boolean shouldDrop(SplittableRandom random) {
             return random.nextInt(dropChance) == 0;
         }
         
-        public ItemStack createItemStack(Random random) {
+        public ItemStack createItemStack(SplittableRandom random) {
             int amount = minAmount == maxAmount ? minAmount : 
                          minAmount + random.nextInt(maxAmount - minAmount + 1);
             ItemStack item = new ItemStack(material, amount);
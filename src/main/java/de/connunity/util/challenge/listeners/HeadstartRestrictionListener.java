@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -37,8 +38,7 @@ public class HeadstartRestrictionListener implements Listener {
         }
 
         // Check manhunt mode - prevent hunters from breaking blocks during headstart
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             if ("hunter".equals(team) && plugin.getManhuntManager().isHunterMovementRestricted()) {
@@ -56,8 +56,7 @@ public class HeadstartRestrictionListener implements Listener {
         }
 
         // Check connunity hunt mode - prevent viewers from breaking blocks during headstart
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             if ("Viewer".equals(team) && plugin.getConnunityHuntManager().isViewerMovementRestricted()) {
@@ -88,8 +87,7 @@ public class HeadstartRestrictionListener implements Listener {
         }
 
         // Check manhunt mode - prevent hunters from picking up items during headstart
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled != null && manhuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             if ("hunter".equals(team) && plugin.getManhuntManager().isHunterMovementRestricted()) {
@@ -107,8 +105,7 @@ public class HeadstartRestrictionListener implements Listener {
         }
 
         // Check connunity hunt mode - prevent viewers from picking up items during headstart
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled != null && connunityHuntEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             if ("Viewer".equals(team) && plugin.getConnunityHuntManager().isViewerMovementRestricted()) {
@@ -0,0 +1,228 @@
+package de.connunity.util.challenge.listeners;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player index of free inventory capacity, shared by the item-granting challenges
+ * (chunk items, timed random items, friendly fire items).
+ * OPTIMIZED: "can this fit?" is an array read instead of firstEmpty() plus a copy of the storage
+ * contents with an isSimilar check per slot. The index is rebuilt lazily: inventory events only
+ * mark it stale, grants made through {@link #recordAdded} update it in place, and it is rebuilt
+ * anyway after REBUILD_AFTER_TICKS in case another plugin changed the inventory. A "does not fit"
+ * answer is confirmed against the live inventory once per tick, so only full inventories pay for a scan.
+ *
+ * Only stacks without item meta are counted as room for a plain item; callers still handle
+ * leftovers from addItem, so a stale index can never lose an item.
+ */
+public class InventoryCapacityTracker implements Listener {
+
+    private static final long REBUILD_AFTER_TICKS = 200L; // 10 seconds
+    private static final int MATERIAL_COUNT = Material.values().length;
+
+    private final Map<UUID, Capacity> players = new HashMap<>();
+
+    /**
+     * Check if an item fits into a player's storage slots (empty slot or room on a matching stack)
+     */
+    public boolean canFit(Player player, ItemStack item) {
+        return check(player, item, false);
+    }
+
+    /**
+     * Check if at least part of an item fits (empty slot or any room on a matching stack).
+     * Use this before addItem when the leftover is dropped anyway.
+     */
+    public boolean hasRoom(Player player, ItemStack item) {
+        return check(player, item, true);
+    }
+
+    private boolean check(Player player, ItemStack item, boolean partial) {
+        Capacity capacity = players.computeIfAbsent(player.getUniqueId(), id -> new Capacity());
+        int tick = Bukkit.getCurrentTick();
+        if (capacity.stale || tick - capacity.builtAtTick >= REBUILD_AFTER_TICKS) {
+            capacity.rebuild(player.getInventory().getStorageContents(), tick);
+        }
+        if (capacity.fits(item, partial)) {
+            return true;
+        }
+        if (capacity.builtAtTick != tick) {
+            // A "full" answer is always confirmed against the live inventory, so a missed event can't withhold items
+            capacity.rebuild(player.getInventory().getStorageContents(), tick);
+            return capacity.fits(item, partial);
+        }
+        return false;
+    }
+
+    /**
+     * Update the index after an item was added with addItem (which fills matching stacks first,
+     * then empty slots). Items with meta or leftovers make the index stale instead.
+     */
+    public void recordAdded(Player player, ItemStack item, boolean hadLeftover) {
+        Capacity capacity = players.get(player.getUniqueId());
+        if (capacity == null || capacity.stale) {
+            return;
+        }
+        if (hadLeftover || item.hasItemMeta()) {
+            capacity.stale = true;
+            return;
+        }
+        int ordinal = item.getType().ordinal();
+        int maxStack = item.getMaxStackSize();
+        int remaining = item.getAmount();
+        int stacked = Math.min(remaining, capacity.stackRoom[ordinal]);
+        capacity.stackRoom[ordinal] -= stacked;
+        remaining -= stacked;
+        while (remaining > 0 && capacity.emptySlots > 0) {
+            int placed = Math.min(remaining, maxStack);
+            capacity.emptySlots--;
+            capacity.stackRoom[ordinal] += maxStack - placed;
+            remaining -= placed;
+        }
+    }
+
+    /**
+     * Mark a player's index as stale (e.g. after a plugin changed the inventory directly)
+     */
+    public void invalidate(HumanEntity player) {
+        Capacity capacity = players.get(player.getUniqueId());
+        if (capacity != null) {
+            capacity.stale = true;
+        }
+    }
+
+    // Anything that can change a player's storage contents marks the index stale
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        invalidate(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        invalidate(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player) {
+            invalidate((Player) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        // Throwing, bone meal, spawn eggs... (interactions with air arrive cancelled, so no ignoreCancelled)
+        if (event.getItem() != null) {
+            invalidate(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onConsume(PlayerItemConsumeEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Free capacity of one player's storage slots
+     */
+    private static final class Capacity {
+
+        private int emptySlots;
+        private final int[] stackRoom = new int[MATERIAL_COUNT]; // Items that still fit on meta-less stacks, by Material ordinal
+        private boolean stale = true;
+        private int builtAtTick;
+
+        boolean fits(ItemStack item, boolean partial) {
+            if (emptySlots > 0) {
+                return true;
+            }
+            int room = item.hasItemMeta() ? 0 : stackRoom[item.getType().ordinal()];
+            return partial ? room > 0 : room >= item.getAmount();
+        }
+
+        void rebuild(ItemStack[] contents, int tick) {
+            Arrays.fill(stackRoom, 0);
+            emptySlots = 0;
+            for (ItemStack stack : contents) {
+                if (stack == null || stack.getType().isAir()) {
+                    emptySlots++;
+                } else if (!stack.hasItemMeta()) {
+                    stackRoom[stack.getType().ordinal()] += Math.max(0, stack.getMaxStackSize() - stack.getAmount());
+                }
+            }
+            stale = false;
+            builtAtTick = tick;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeSetting;
+import de.connunity.util.challenge.data.MatchRandom;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,6 +14,7 @@ import org.bukkit.inventory.ItemStack;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Keep RNG Challenge - Randomly keep 50% of inventory on death
@@ -20,16 +24,17 @@ import java.util.List;
 public class KeepRNGListener implements Listener {
     
     private final ChallengeUtil plugin;
+    private final MatchRandom matchRandom; // Seed-derived streams: same world seed, same deaths
     
     public KeepRNGListener(ChallengeUtil plugin) {
         this.plugin = plugin;
+        this.matchRandom = plugin.getMatchRandom();
     }
     
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerDeath(PlayerDeathEvent event) {
         // Check if the challenge is enabled
-        Boolean keepRNGEnabled = plugin.getDataManager().getSavedChallenge("keep_rng");
-        if (keepRNGEnabled == null || !keepRNGEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.KEEP_RNG)) {
             return; // Challenge not enabled
         }
         
@@ -71,10 +76,7 @@ public class KeepRNGListener implements Listener {
         }
         
         // Get Keep RNG percentage setting (0-100, default 50)
-        Integer keepPercentage = plugin.getDataManager().getSavedChallengeSetting("keep_rng", "percentage");
-        if (keepPercentage == null) {
-            keepPercentage = 50; // Default to 50%
-        }
+        int keepPercentage = plugin.getDataManager().getChallengeSetting(ChallengeSetting.KEEP_RNG_PERCENTAGE);
         
         // If percentage is 0, challenge is effectively disabled (keep nothing)
         if (keepPercentage == 0) {
@@ -85,8 +87,11 @@ public class KeepRNGListener implements Listener {
         int totalItems = occupiedSlots.size();
         int itemsToKeep = (totalItems * keepPercentage) / 100;
         
-        // Randomly shuffle the slot indices to decide which ones to keep
-        Collections.shuffle(occupiedSlots);
+        // Randomly shuffle the slot indices to decide which ones to keep (Fisher-Yates on the player's stream)
+        SplittableRandom random = matchRandom.forPlayer(Challenge.KEEP_RNG, player.getUniqueId());
+        for (int i = totalItems - 1; i > 0; i--) {
+            Collections.swap(occupiedSlots, i, random.nextInt(i + 1));
+        }
         
         // The first half are slots to keep, the second half are slots to drop
         List<Integer> slotsToKeep = new ArrayList<>(occupiedSlots.subList(0, itemsToKeep));
@@ -1,11 +1,13 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeRegistry;
+import de.connunity.util.challenge.data.PlayerRole;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.movement.MoveHandler;
+import de.connunity.util.challenge.movement.MoveType;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 
 import java.util.HashMap;
@@ -13,43 +15,26 @@ import java.util.Map;
 
 /**
  * Prevents hunters from moving for the first 2 minutes in Manhunt mode
- * OPTIMIZED: Uses caching to avoid constant disk reads on every player movement
+ * OPTIMIZED: Uses the challenge registry and player context, no disk reads on player movement.
+ * Subscribed to position changes on the movement dispatcher (restrict phase), so head rotation never reaches it.
  */
-public class ManhuntMovementListener implements Listener {
+public class ManhuntMovementListener implements MoveHandler {
     
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
     
-    // OPTIMIZATION: Cache challenge enabled status to avoid constant disk reads
-    private boolean manhuntEnabled = false;
-    private long lastCacheUpdate = 0;
-    private static final long CACHE_REFRESH_INTERVAL = 5000; // 5 seconds
-    
-    // OPTIMIZATION: Cache player teams to avoid constant disk reads
-    private final java.util.Map<java.util.UUID, String> teamCache = new java.util.HashMap<>();
-    private final java.util.Map<java.util.UUID, Long> teamCacheTime = new java.util.HashMap<>();
-    private static final long TEAM_CACHE_DURATION = 10000; // 10 seconds
+    private final ChallengeRegistry challenges;
     
     public ManhuntMovementListener(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.challenges = plugin.getDataManager().getChallengeRegistry();
     }
     
-    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        // PERFORMANCE: Check if player actually moved position first (not just head rotation)
-        if (!hasPlayerMoved(event)) {
-            return; // Player didn't move, just rotated head - skip all checks
-        }
-        
-        // OPTIMIZATION: Refresh cache periodically (avoid constant disk reads)
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCacheUpdate > CACHE_REFRESH_INTERVAL) {
-            refreshManhuntCache();
-        }
-        
-        // Check cached manhunt mode status (no disk I/O)
-        if (!manhuntEnabled) {
+    @Override
+    public void onMove(PlayerMoveEvent event, MoveType type) {
+        // Check manhunt mode status
+        if (!challenges.isEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
         
@@ -60,11 +45,8 @@ public class ManhuntMovementListener implements Listener {
         
         Player player = event.getPlayer();
         
-        // Get player's cached team (minimal disk I/O)
-        String team = getCachedTeam(player.getUniqueId());
-        
-        // Only restrict hunters
-        if (!"hunter".equals(team)) {
+        // Only restrict hunters (role is kept up to date by DataManager, no stale window)
+        if (!plugin.getDataManager().getPlayerContext(player).hasRole(PlayerRole.HUNTER)) {
             return;
         }
         
@@ -90,41 +72,4 @@ public class ManhuntMovementListener implements Listener {
             }
         }
     }
-    
-    /**
-     * OPTIMIZATION: Refresh manhunt enabled cache from disk (called periodically)
-     */
-    private void refreshManhuntCache() {
-        Boolean manhunt = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        manhuntEnabled = manhunt != null && manhunt;
-        lastCacheUpdate = System.currentTimeMillis();
-    }
-    
-    /**
-     * OPTIMIZATION: Get cached team for player (avoid constant disk reads)
-     */
-    private String getCachedTeam(java.util.UUID playerId) {
-        long currentTime = System.currentTimeMillis();
-        Long cacheTime = teamCacheTime.get(playerId);
-        
-        // Refresh cache if expired or missing
-        if (cacheTime == null || (currentTime - cacheTime) > TEAM_CACHE_DURATION) {
-            String team = plugin.getDataManager().getPlayerTeam(playerId);
-            teamCache.put(playerId, team);
-            teamCacheTime.put(playerId, currentTime);
-            return team;
-        }
-        
-        return teamCache.get(playerId);
-    }
-    
-    /**
-     * Check if player actually moved position (not just head rotation)
-     */
-    private boolean hasPlayerMoved(PlayerMoveEvent event) {
-        if (event.getFrom().getX() != event.getTo().getX()) return true;
-        if (event.getFrom().getY() != event.getTo().getY()) return true;
-        if (event.getFrom().getZ() != event.getTo().getZ()) return true;
-        return false;
-    }
 }
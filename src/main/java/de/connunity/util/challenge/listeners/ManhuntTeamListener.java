@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -23,14 +24,12 @@ public class ManhuntTeamListener implements Listener {
     @EventHandler
     public void onPlayerDamage(EntityDamageByEntityEvent event) {
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled == null || !manhuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
         
         // Check if friendly fire challenge is enabled - if so, allow team damage
-        Boolean friendlyFireEnabled = plugin.getDataManager().getSavedChallenge("friendly_fire_item");
-        if (friendlyFireEnabled != null && friendlyFireEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.FRIENDLY_FIRE_ITEM)) {
             return; // Allow damage when friendly fire challenge is active
         }
         
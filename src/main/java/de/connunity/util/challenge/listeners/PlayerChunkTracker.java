@@ -0,0 +1,74 @@
+package de.connunity.util.challenge.listeners;
+
+import de.connunity.util.challenge.data.MatchRandom;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player chunk state for the chunk item challenge: the last chunk seen (to detect chunk
+ * changes on move) and a hash of the player's UUID for deriving their chunk items. Chunks are
+ * packed keys from {@link ChunkKeys}, so a chunk crossing allocates nothing.
+ */
+class PlayerChunkTracker {
+
+    private final Map<UUID, PlayerChunks> players = new HashMap<>();
+
+    /**
+     * State of one player (created on first use)
+     */
+    PlayerChunks get(UUID playerId) {
+        return players.computeIfAbsent(playerId, PlayerChunks::new);
+    }
+
+    void remove(UUID playerId) {
+        players.remove(playerId);
+    }
+
+    /**
+     * Forget where players are
+     */
+    void clearPositions() {
+        for (PlayerChunks chunks : players.values()) {
+            chunks.hasChunk = false;
+        }
+    }
+
+    void clear() {
+        players.clear();
+    }
+
+    /**
+     * Chunk state of one player, kept in primitive fields
+     */
+    static final class PlayerChunks {
+
+        private final long playerHash;
+        private boolean hasChunk = false;
+        private long lastChunk;
+
+        PlayerChunks(UUID playerId) {
+            this.playerHash = MatchRandom.mix(
+                    playerId.getMostSignificantBits() ^ Long.rotateLeft(playerId.getLeastSignificantBits(), 32));
+        }
+
+        long getPlayerHash() {
+            return playerHash;
+        }
+
+        /**
+         * Record the chunk the player is in
+         *
+         * @return true if the player entered a different chunk than last time
+         */
+        boolean enter(long chunkKey) {
+            if (hasChunk && lastChunk == chunkKey) {
+                return false;
+            }
+            hasChunk = true;
+            lastChunk = chunkKey;
+            return true;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.TeamRoster;
 import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -16,8 +18,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 
 import java.time.Duration;
-import java.util.Set;
-import java.util.UUID;
 
 /**
  * Handles player death based on respawn settings
@@ -41,10 +41,8 @@ public class PlayerDeathListener implements Listener {
         boolean isTimerPaused = plugin.getTimerManager().isPaused();
         
         // Check if custom end fight is active and this is the egg holder dying
-        Boolean customEndFightEnabled = plugin.getDataManager().getSavedChallenge("custom_end_fight");
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (customEndFightEnabled != null && customEndFightEnabled && 
-            teamRaceEnabled != null && teamRaceEnabled && isTimerRunning && !isTimerPaused) {
+        if (isTimerRunning && !isTimerPaused && plugin.getDataManager().isChallengeEnabled(Challenge.CUSTOM_END_FIGHT)
+                && plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             if (plugin.getCustomEndFightManager().isActive() && 
                 plugin.getCustomEndFightManager().getEggHolder() != null &&
                 plugin.getCustomEndFightManager().getEggHolder().equals(player)) {
@@ -76,9 +74,7 @@ public class PlayerDeathListener implements Listener {
         }
         
         // Check if manhunt mode is enabled and timer is running
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        
-        if (manhuntEnabled != null && manhuntEnabled && isTimerRunning && !isTimerPaused) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE) && isTimerRunning && !isTimerPaused) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             // Spectators should remain in spectator mode (they shouldn't die anyway, but just in case)
@@ -126,9 +122,7 @@ public class PlayerDeathListener implements Listener {
         }
         
         // Check if connunity hunt mode is enabled and timer is running
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        
-        if (connunityHuntEnabled != null && connunityHuntEnabled && isTimerRunning && !isTimerPaused) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE) && isTimerRunning && !isTimerPaused) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             // If a streamer dies, put them in spectator mode at their death location
@@ -199,12 +193,13 @@ public class PlayerDeathListener implements Listener {
      * Check if all runners are dead (hunters win)
      */
     private void checkManhuntWinCondition() {
-        Set<UUID> runners = plugin.getDataManager().getPlayersInTeam("runner");
+        TeamRoster roster = plugin.getDataManager().getTeamRoster();
+        int runnerTeam = roster.intern("runner");
         
         boolean allRunnersDead = true;
-        for (UUID runnerId : runners) {
-            Player runner = Bukkit.getPlayer(runnerId);
-            if (runner != null && runner.isOnline() && runner.getGameMode() != GameMode.SPECTATOR) {
+        for (int i = 0; i < roster.size(runnerTeam); i++) {
+            Player runner = roster.get(runnerTeam, i);
+            if (runner.getGameMode() != GameMode.SPECTATOR) {
                 allRunnersDead = false;
                 break;
             }
@@ -221,7 +216,7 @@ public class PlayerDeathListener implements Listener {
      */
     private void announceWinner(String winningTeam) {
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         // Stop manhunt manager
         plugin.getManhuntManager().stop();
@@ -276,12 +271,13 @@ public class PlayerDeathListener implements Listener {
      * Check if all streamers are dead (viewers win)
      */
     private void checkConnunityHuntWinCondition() {
-        Set<UUID> streamers = plugin.getDataManager().getPlayersInTeam("Streamer");
+        TeamRoster roster = plugin.getDataManager().getTeamRoster();
+        int streamerTeam = roster.intern("Streamer");
         
         boolean allStreamersDead = true;
-        for (UUID streamerId : streamers) {
-            Player streamer = Bukkit.getPlayer(streamerId);
-            if (streamer != null && streamer.isOnline() && streamer.getGameMode() != GameMode.SPECTATOR) {
+        for (int i = 0; i < roster.size(streamerTeam); i++) {
+            Player streamer = roster.get(streamerTeam, i);
+            if (streamer.getGameMode() != GameMode.SPECTATOR) {
                 allStreamersDead = false;
                 break;
             }
@@ -298,7 +294,7 @@ public class PlayerDeathListener implements Listener {
      */
     private void announceConnunityHuntWinner(String winningTeam) {
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         // Stop connunity hunt manager
         plugin.getConnunityHuntManager().stop();
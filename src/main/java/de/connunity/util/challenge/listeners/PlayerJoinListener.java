@@ -2,6 +2,7 @@ package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
 import de.connunity.util.challenge.VersionChecker;
+import de.connunity.util.challenge.data.Challenge;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
@@ -30,6 +31,14 @@ public class PlayerJoinListener implements Listener {
         this.plugin = plugin;
     }
     
+    /**
+     * Create the player's context before any other join handler needs it
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoinContext(PlayerJoinEvent event) {
+        plugin.getDataManager().createPlayerContext(event.getPlayer());
+    }
+    
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
@@ -203,8 +212,7 @@ public class PlayerJoinListener implements Listener {
      */
     private void assignConnunityHuntTeamIfNeeded(Player player) {
         // Check if Connunity Hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        if (connunityHuntEnabled == null || !connunityHuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
             return;
         }
         
@@ -223,8 +231,7 @@ public class PlayerJoinListener implements Listener {
      */
     private void giveCompassToHunterIfNeeded(Player player) {
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled == null || !manhuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
         
@@ -249,8 +256,7 @@ public class PlayerJoinListener implements Listener {
      */
     private void giveTeamMenuItemIfNeeded(Player player) {
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
@@ -20,7 +20,10 @@ public class PlayerQuitListener implements Listener {
     
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        // Player cleanup on quit
+        // Player cleanup on quit (MONITOR runs last, so other quit handlers still see the context)
+        plugin.getDataManager().removePlayerContext(event.getPlayer());
+        plugin.getHudManager().removePlayer(event.getPlayer());
+        plugin.getTeamRaceManager().removePlayer(event.getPlayer());
         plugin.logDebug(event.getPlayer().getName() + " left the server");
     }
     
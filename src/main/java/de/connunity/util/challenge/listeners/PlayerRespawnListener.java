@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -33,13 +34,12 @@ public class PlayerRespawnListener implements Listener {
         String deathWorldName = deathWorld.getName();
         
         // Check if manhunt mode is enabled and timer is running
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
         boolean isTimerRunning = plugin.getTimerManager().isRunning();
         boolean isTimerPaused = plugin.getTimerManager().isPaused();
         boolean allowRespawn = plugin.getConfig().getBoolean("challenge.allow-respawn", true);
         
         // In manhunt mode, handle team-specific respawn logic
-        if (manhuntEnabled != null && manhuntEnabled && isTimerRunning && !isTimerPaused) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE) && isTimerRunning && !isTimerPaused) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             // Hunters: Use bed spawn if available, otherwise world spawn
@@ -74,9 +74,7 @@ public class PlayerRespawnListener implements Listener {
         }
         
         // Check if connunity hunt mode is enabled and timer is running
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-        
-        if (connunityHuntEnabled != null && connunityHuntEnabled && isTimerRunning && !isTimerPaused) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE) && isTimerRunning && !isTimerPaused) {
             String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
             
             // Viewers: Use bed spawn if available, otherwise world spawn
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -126,8 +127,8 @@ public class PortalTravelListener implements Listener {
                 event.setTo(to);
                 
                 // Check if team race mode is enabled and notify TeamRaceManager
-                Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-                if (teamRaceEnabled != null && teamRaceEnabled && plugin.getTimerManager().isRunning() && !plugin.getTimerManager().isPaused()) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)
+                        && plugin.getTimerManager().isRunning() && !plugin.getTimerManager().isPaused()) {
                     // Store the portal location (in the overworld) for compass tracking
                     plugin.getTeamRaceManager().setEndPortalLocation(event.getFrom());
                 }
@@ -1,6 +1,8 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.ChallengeSetting;
 import de.connunity.util.challenge.gui.HostControlGUI;
 import de.connunity.util.challenge.gui.SettingsGUI;
 import de.connunity.util.challenge.lang.LanguageManager;
@@ -452,8 +454,7 @@ public class SettingsGUIListener implements Listener {
             
             // Prevent disabling keepInventory if Keep RNG is enabled
             if (gameruleName.equals("keep_inventory") && !newValue) {
-                Boolean keepRNGEnabled = plugin.getDataManager().getSavedChallenge("keep_rng");
-                if (keepRNGEnabled != null && keepRNGEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.KEEP_RNG)) {
                     player.sendMessage(lang.getComponent("settings.keep-inventory-locked"));
                     player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
                     return;
@@ -613,10 +614,7 @@ public class SettingsGUIListener implements Listener {
         // Special handling for keep_rng percentage adjustment
         if (challengeName.equals("keep_rng")) {
             // Get current percentage
-            Integer currentPercentage = plugin.getDataManager().getSavedChallengeSetting("keep_rng", "percentage");
-            if (currentPercentage == null) {
-                currentPercentage = 50; // Default
-            }
+            int currentPercentage = plugin.getDataManager().getChallengeSetting(ChallengeSetting.KEEP_RNG_PERCENTAGE);
             
             int newPercentage;
             if (isRightClick) {
@@ -631,7 +629,7 @@ public class SettingsGUIListener implements Listener {
             }
             
             // Save the new percentage
-            plugin.getDataManager().saveChallengeSetting("keep_rng", "percentage", newPercentage);
+            plugin.getDataManager().saveChallengeSetting(ChallengeSetting.KEEP_RNG_PERCENTAGE, newPercentage);
             
             // Automatically toggle challenge based on percentage
             boolean newEnabled = newPercentage > 0;
@@ -676,15 +674,13 @@ public class SettingsGUIListener implements Listener {
         if (newValue) { // Only check if we're enabling a mode
             if (challengeName.equals("manhunt_mode")) {
                 // If enabling Manhunt, disable Team Race and Connunity Hunt
-                Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-                if (teamRaceEnabled != null && teamRaceEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                     plugin.getDataManager().saveChallenge("team_race_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Manhunt Race");
                     player.sendMessage(lang.getComponent("settings.mode-switched-warning", placeholders));
                 }
-                Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-                if (connunityHuntEnabled != null && connunityHuntEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
                     plugin.getDataManager().saveChallenge("connunity_hunt_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Connunity Hunt");
@@ -695,15 +691,13 @@ public class SettingsGUIListener implements Listener {
                 player.sendMessage(lang.getComponent("settings.teams-reset"));
             } else if (challengeName.equals("team_race_mode")) {
                 // If enabling Team Race, disable Manhunt and Connunity Hunt
-                Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-                if (manhuntEnabled != null && manhuntEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
                     plugin.getDataManager().saveChallenge("manhunt_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Manhunt");
                     player.sendMessage(lang.getComponent("settings.mode-switched-warning", placeholders));
                 }
-                Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
-                if (connunityHuntEnabled != null && connunityHuntEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE)) {
                     plugin.getDataManager().saveChallenge("connunity_hunt_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Connunity Hunt");
@@ -720,15 +714,13 @@ public class SettingsGUIListener implements Listener {
                 plugin.getTeamRaceManager().giveTeamMenuItems();
             } else if (challengeName.equals("connunity_hunt_mode")) {
                 // If enabling Connunity Hunt, disable Manhunt and Team Race
-                Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-                if (manhuntEnabled != null && manhuntEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
                     plugin.getDataManager().saveChallenge("manhunt_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Manhunt");
                     player.sendMessage(lang.getComponent("settings.mode-switched-warning", placeholders));
                 }
-                Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-                if (teamRaceEnabled != null && teamRaceEnabled) {
+                if (plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
                     plugin.getDataManager().saveChallenge("team_race_mode", false);
                     Map<String, String> placeholders = new HashMap<>();
                     placeholders.put("mode", "Manhunt Race");
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
@@ -29,17 +30,15 @@ public class TeamRaceEnderDragonListener implements Listener {
         }
         
         // Check if team race mode is enabled and timer is running
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
         boolean isTimerRunning = plugin.getTimerManager().isRunning();
         boolean isTimerPaused = plugin.getTimerManager().isPaused();
         
-        if (teamRaceEnabled == null || !teamRaceEnabled || !isTimerRunning || isTimerPaused) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE) || !isTimerRunning || isTimerPaused) {
             return;
         }
         
         // Check if custom end fight is enabled - it takes priority
-        Boolean customEndFightEnabled = plugin.getDataManager().getSavedChallenge("custom_end_fight");
-        if (customEndFightEnabled != null && customEndFightEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.CUSTOM_END_FIGHT)) {
             // Custom end fight will handle this, don't announce team race winner
             return;
         }
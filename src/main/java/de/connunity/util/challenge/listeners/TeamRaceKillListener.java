@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -21,8 +22,7 @@ public class TeamRaceKillListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerDeath(PlayerDeathEvent event) {
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
@@ -49,7 +49,7 @@ public class TeamRaceKillListener implements Listener {
         }
         
         // Increment kill count for killer
-        plugin.getDataManager().incrementTeamRaceKills(killer.getUniqueId());
+        plugin.getDataManager().incrementTeamRaceKills(killer.getUniqueId(), killerTeam);
         
         // Update killer's suffix
         plugin.getTeamRaceManager().updatePlayerSuffix(killer);
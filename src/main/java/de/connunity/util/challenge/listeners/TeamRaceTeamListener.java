@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -23,14 +24,12 @@ public class TeamRaceTeamListener implements Listener {
     @EventHandler
     public void onPlayerDamage(EntityDamageByEntityEvent event) {
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
         // Check if friendly fire challenge is enabled - if so, allow team damage
-        Boolean friendlyFireEnabled = plugin.getDataManager().getSavedChallenge("friendly_fire_item");
-        if (friendlyFireEnabled != null && friendlyFireEnabled) {
+        if (plugin.getDataManager().isChallengeEnabled(Challenge.FRIENDLY_FIRE_ITEM)) {
             return; // Allow damage when friendly fire challenge is active
         }
         
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
 import de.connunity.util.challenge.gui.TeamSelectionGUI;
 import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -53,8 +54,7 @@ public class TeamSelectionItemListener implements Listener {
         event.setCancelled(true);
         
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             player.sendMessage(lang.getComponent("teamrace.menu-item.mode-not-active"));
             return;
         }
@@ -135,8 +135,7 @@ public class TeamSelectionItemListener implements Listener {
      */
     private void ensureItemInSlot0(Player player) {
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
         
@@ -1,6 +1,8 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.MatchRandom;
 import de.connunity.util.challenge.lang.LanguageManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -28,7 +30,7 @@ public class TimedRandomItemListener implements Listener {
     
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
-    private final Random random = new Random();
+    private final MatchRandom matchRandom; // Seed-derived streams: same world seed, same items
     
     // Task that runs every second to check timer
     private BukkitTask itemTask = null;
@@ -51,6 +53,7 @@ public class TimedRandomItemListener implements Listener {
     public TimedRandomItemListener(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.matchRandom = plugin.getMatchRandom();
         initializeExcludedItems();
         initializeLootPools();
     }
@@ -415,8 +418,7 @@ public class TimedRandomItemListener implements Listener {
      */
     private void checkAndGiveItems() {
         // Check if challenge is enabled
-        Boolean challengeEnabled = plugin.getDataManager().getSavedChallenge("timed_random_item");
-        if (challengeEnabled == null || !challengeEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TIMED_RANDOM_ITEM)) {
             return;
         }
         
@@ -441,8 +443,7 @@ public class TimedRandomItemListener implements Listener {
      */
     private void giveItemsToAllPlayers() {
         // Check if challenge is enabled
-        Boolean challengeEnabled = plugin.getDataManager().getSavedChallenge("timed_random_item");
-        if (challengeEnabled == null || !challengeEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TIMED_RANDOM_ITEM)) {
             return;
         }
         
@@ -455,6 +456,9 @@ public class TimedRandomItemListener implements Listener {
         long elapsedMillis = System.currentTimeMillis() - challengeStartTime;
         long elapsedMinutes = elapsedMillis / (60 * 1000);
         
+        // Pool blending is decided once per round for everyone, from the challenge's own stream
+        SplittableRandom random = matchRandom.forChallenge(Challenge.TIMED_RANDOM_ITEM);
+        
         // Determine which loot pool(s) to use with smooth transitions
         // Transition windows: 25-35 min (early->mid), 40-50 min (mid->late), 85-95 min (late->end)
         List<LootItem> pool;
@@ -516,13 +520,13 @@ public class TimedRandomItemListener implements Listener {
         }
         
         // Check if Connunity Hunt mode is enabled
-        Boolean connunityHuntEnabled = plugin.getDataManager().getSavedChallenge("connunity_hunt_mode");
+        boolean connunityHuntEnabled = plugin.getDataManager().isChallengeEnabled(Challenge.CONNUNITY_HUNT_MODE);
         
         // Give an item to each online player
         for (Player player : Bukkit.getOnlinePlayers()) {
             if (player.isOnline() && !player.isDead()) {
                 // In Connunity Hunt mode, only give items to Streamers
-                if (connunityHuntEnabled != null && connunityHuntEnabled) {
+                if (connunityHuntEnabled) {
                     String team = plugin.getDataManager().getPlayerTeam(player.getUniqueId());
                     if (!"Streamer".equals(team)) {
                         continue; // Skip Viewers
@@ -538,6 +542,8 @@ public class TimedRandomItemListener implements Listener {
      * Give a random item from the specified pool to a player
      */
     private void giveRandomItem(Player player, List<LootItem> pool, String poolKey) {
+        SplittableRandom random = matchRandom.forPlayer(Challenge.TIMED_RANDOM_ITEM, player.getUniqueId());
+        
         // Try to get an item that should drop (respect drop chances)
         LootItem lootItem = null;
         int maxAttempts = 10; // Try up to 10 times to find an item that should drop
@@ -556,14 +562,19 @@ public class TimedRandomItemListener implements Listener {
         
         ItemStack item = lootItem.createItemStack(random);
         
-        // Try to add to inventory (handles stacking automatically)
-        HashMap<Integer, ItemStack> leftover = player.getInventory().addItem(item);
-        
-        // Drop any items that couldn't fit
-        if (!leftover.isEmpty()) {
+        // Check the shared capacity index first - only an inventory without any room skips the addItem attempt
+        InventoryCapacityTracker capacity = plugin.getInventoryCapacityTracker();
+        if (capacity.hasRoom(player, item)) {
+            // Try to add to inventory (handles stacking automatically)
+            HashMap<Integer, ItemStack> leftover = player.getInventory().addItem(item);
+            capacity.recordAdded(player, item, !leftover.isEmpty());
+            
+            // Drop any items that couldn't fit
             for (ItemStack drop : leftover.values()) {
                 player.getWorld().dropItemNaturally(player.getLocation(), drop);
             }
+        } else {
+            player.getWorld().dropItemNaturally(player.getLocation(), item);
         }
         
         // Send chat message with item name and amount
@@ -634,11 +645,11 @@ public class TimedRandomItemListener implements Listener {
             return this;
         }
         
-        public boolean shouldDrop(Random random) {
+        public boolean shouldDrop(SplittableRandom random) {
             return random.nextInt(dropChance) == 0;
         }
         
-        public ItemStack createItemStack(Random random) {
+        public ItemStack createItemStack(SplittableRandom random) {
             int amount = minAmount == maxAmount ? minAmount : 
                          minAmount + random.nextInt(maxAmount - minAmount + 1);
             ItemStack item = new ItemStack(material, amount);
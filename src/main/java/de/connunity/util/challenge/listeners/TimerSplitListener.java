@@ -0,0 +1,53 @@
+package de.connunity.util.challenge.listeners;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.timer.Split;
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+
+/**
+ * Records run splits (first Nether entry, first End entry, dragon kill) on the timer.
+ * The egg pickup split is recorded by the custom end fight itself.
+ */
+public class TimerSplitListener implements Listener {
+    
+    private final ChallengeUtil plugin;
+    
+    public TimerSplitListener(ChallengeUtil plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        if (player.getGameMode() == GameMode.SPECTATOR) {
+            return; // Spectators do not count as reaching a dimension
+        }
+        
+        World.Environment environment = player.getWorld().getEnvironment();
+        if (environment == World.Environment.NETHER) {
+            plugin.getTimerManager().recordSplit(Split.NETHER_ENTRY);
+        } else if (environment == World.Environment.THE_END) {
+            plugin.getTimerManager().recordSplit(Split.END_ENTRY);
+        }
+    }
+    
+    /**
+     * Runs before the win handlers, which stop the timer
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onEnderDragonDeath(EntityDeathEvent event) {
+        if (event.getEntityType() != EntityType.ENDER_DRAGON) {
+            return;
+        }
+        
+        plugin.getTimerManager().recordSplit(Split.DRAGON_KILL);
+    }
+}
@@ -1,6 +1,7 @@
 package de.connunity.util.challenge.listeners;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.movement.MoveType;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.attribute.Attribute;
@@ -15,6 +16,7 @@ import org.bukkit.event.entity.EntitySpawnEvent;
 import org.bukkit.event.entity.FoodLevelChangeEvent;
 import org.bukkit.event.entity.ItemSpawnEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
@@ -78,17 +80,9 @@ public class WaitingRoomListener implements Listener {
 
     /**
      * Monitor player movement in case they fall below the world border in the waiting room
-     * OPTIMIZED: Only checks if player actually moved position and is in waiting room
+     * OPTIMIZED: Only called by the movement dispatcher when a move crosses WAITING_ROOM_MIN_Y
      */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        // CRITICAL PERFORMANCE: Check if player actually moved position (not just head rotation)
-        if (event.getFrom().getX() == event.getTo().getX() &&
-            event.getFrom().getY() == event.getTo().getY() &&
-            event.getFrom().getZ() == event.getTo().getZ()) {
-            return; // Player didn't move, just rotated head - skip all checks
-        }
-        
+    public void onCrossKillHeight(PlayerMoveEvent event, MoveType type) {
         Player player = event.getPlayer();
         
         // CRITICAL PERFORMANCE: Only check if player is in waiting room world
@@ -99,6 +93,24 @@ public class WaitingRoomListener implements Listener {
         checkAndKillIfBelow(player);
     }
 
+    /**
+     * A player who crossed the kill height in creative/spectator never crosses it again - check when
+     * they switch to a mode that can die
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        GameMode mode = event.getNewGameMode();
+        if (mode == GameMode.SPECTATOR || mode == GameMode.CREATIVE) {
+            return;
+        }
+        Player player = event.getPlayer();
+        if (!player.getWorld().getName().equals(waitingRoomName)) {
+            return;
+        }
+        // The new mode is applied after the event
+        org.bukkit.Bukkit.getScheduler().runTaskLater(plugin, () -> checkAndKillIfBelow(player), 1L);
+    }
+
     /**
      * Monitor teleports (e.g., ender pearl, commands) to ensure teleporting below threshold is handled
      * IMPORTANT: Only applies to the waiting room world!
@@ -241,7 +253,7 @@ public class WaitingRoomListener implements Listener {
     }
 
     // Minimum Y coordinate allowed in the waiting room; falling below this kills the player
-    private static final double WAITING_ROOM_MIN_Y = -10.0;
+    public static final double WAITING_ROOM_MIN_Y = -10.0;
 
     /**
      * Kill the player if they are in the waiting room and below the minimum Y threshold
@@ -1,10 +1,13 @@
 package de.connunity.util.challenge.manhunt;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.TeamRoster;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.tracking.TrackingClient;
+import de.connunity.util.challenge.tracking.TrackingFrame;
 import net.kyori.adventure.text.Component;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -19,20 +22,25 @@ import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
  * Manages manhunt mode mechanics: blindness for hunters, compass tracking
  * system
  */
-public class ManhuntManager {
+public class ManhuntManager implements TrackingClient {
 
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
+
+    // Online hunters/runners by interned team id (maintained by DataManager)
+    private final TeamRoster roster;
+    private final int hunterTeam;
+    private final int runnerTeam;
+
     private BukkitRunnable blindnessTask;
     private BukkitRunnable compassChargeTask;
-    private BukkitRunnable compassUpdateTask;
+    private boolean compassTracking = false; // Compasses are pointed by the shared tracking engine
     private BukkitRunnable glassPlacementTask;
     private long startTime;
     private static final long TWO_MINUTES = 2 * 60 * 1000; // 2 minutes in milliseconds (blindness duration)
@@ -49,12 +57,8 @@ public class ManhuntManager {
     // Track last known runner position for each hunter (to prevent compass spinning)
     private final Map<UUID, Location> lastKnownRunnerPosition = new HashMap<>();
 
-    // Cache portal fallback scans to avoid heavy world block scanning every second
-    private final Map<UUID, Location> cachedPortalTarget = new HashMap<>();
-    private final Map<UUID, Location> portalScanOrigin = new HashMap<>();
-    private final Map<UUID, Long> portalScanTime = new HashMap<>();
-    private static final long PORTAL_SCAN_CACHE_MS = 10000; // 10 seconds
-    private static final double PORTAL_SCAN_MOVE_THRESHOLD_SQ = 24 * 24;
+    // Portal fallback radius - lookups go through the shared portal index, so no per-player cache is needed
+    private static final int PORTAL_SEARCH_RADIUS = 128;
     
     // Track glass blocks placed under hunters during blindness period
     private final java.util.Set<Location> placedGlassBlocks = new java.util.HashSet<>();
@@ -62,6 +66,9 @@ public class ManhuntManager {
     public ManhuntManager(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.roster = plugin.getDataManager().getTeamRoster();
+        this.hunterTeam = roster.intern("hunter");
+        this.runnerTeam = roster.intern("runner");
     }
 
     /**
@@ -97,8 +104,7 @@ public class ManhuntManager {
      */
     public void start() {
         // Check if manhunt mode is enabled
-        Boolean manhuntEnabled = plugin.getDataManager().getSavedChallenge("manhunt_mode");
-        if (manhuntEnabled == null || !manhuntEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.MANHUNT_MODE)) {
             return;
         }
 
@@ -109,9 +115,6 @@ public class ManhuntManager {
         compassCharged.clear();
         compassLastTarget.clear();
         lastKnownRunnerPosition.clear();
-        cachedPortalTarget.clear();
-        portalScanOrigin.clear();
-        portalScanTime.clear();
         placedGlassBlocks.clear();
 
         // Start blindness task for hunters (first 2 minutes)
@@ -123,7 +126,7 @@ public class ManhuntManager {
         // Give all hunters compasses and start compass tracking
         giveHuntersCompasses();
         startCompassChargeTask();
-        startCompassUpdateTask();
+        compassTracking = true;
     }
 
     /**
@@ -140,10 +143,7 @@ public class ManhuntManager {
             compassChargeTask = null;
         }
 
-        if (compassUpdateTask != null) {
-            compassUpdateTask.cancel();
-            compassUpdateTask = null;
-        }
+        compassTracking = false;
         
         if (glassPlacementTask != null) {
             glassPlacementTask.cancel();
@@ -167,9 +167,6 @@ public class ManhuntManager {
         compassCharged.clear();
         compassLastTarget.clear();
         lastKnownRunnerPosition.clear();
-        cachedPortalTarget.clear();
-        portalScanOrigin.clear();
-        portalScanTime.clear();
         placedGlassBlocks.clear();
     }
 
@@ -188,17 +185,14 @@ public class ManhuntManager {
                     removeBlindnessFromHunters();
 
                     // Notify hunters
-                    Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-                    for (UUID hunterId : hunters) {
-                        Player hunter = Bukkit.getPlayer(hunterId);
-                        if (hunter != null && hunter.isOnline()) {
-                            hunter.sendMessage(lang.getComponent("manhunt.blindness-over"));
-                            hunter.sendMessage(lang.getComponent("manhunt.can-see-and-move"));
-                            hunter.playSound(hunter.getLocation(), org.bukkit.Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
-                            
-                            // Remove invincibility
-                            hunter.setInvulnerable(false);
-                        }
+                    for (int i = 0; i < roster.size(hunterTeam); i++) {
+                        Player hunter = roster.get(hunterTeam, i);
+                        hunter.sendMessage(lang.getComponent("manhunt.blindness-over"));
+                        hunter.sendMessage(lang.getComponent("manhunt.can-see-and-move"));
+                        hunter.playSound(hunter.getLocation(), org.bukkit.Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
+                        
+                        // Remove invincibility
+                        hunter.setInvulnerable(false);
                     }
 
                     cancel();
@@ -206,17 +200,14 @@ public class ManhuntManager {
                 }
 
                 // Apply blindness and invincibility to all hunters
-                Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-                for (UUID hunterId : hunters) {
-                    Player hunter = Bukkit.getPlayer(hunterId);
-                    if (hunter != null && hunter.isOnline()) {
-                        // Apply blindness effect (2 minutes duration, but we reapply every second)
-                        hunter.addPotionEffect(
-                                new PotionEffect(PotionEffectType.BLINDNESS, 60, 0, false, false, false));
-                        
-                        // Make hunter invulnerable to prevent mob deaths
-                        hunter.setInvulnerable(true);
-                    }
+                for (int i = 0; i < roster.size(hunterTeam); i++) {
+                    Player hunter = roster.get(hunterTeam, i);
+                    // Apply blindness effect (2 minutes duration, but we reapply every second)
+                    hunter.addPotionEffect(
+                            new PotionEffect(PotionEffectType.BLINDNESS, 60, 0, false, false, false));
+                    
+                    // Make hunter invulnerable to prevent mob deaths
+                    hunter.setInvulnerable(true);
                 }
             }
         };
@@ -229,13 +220,10 @@ public class ManhuntManager {
      * Remove blindness from all hunters
      */
     private void removeBlindnessFromHunters() {
-        Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-        for (UUID hunterId : hunters) {
-            Player hunter = Bukkit.getPlayer(hunterId);
-            if (hunter != null && hunter.isOnline()) {
-                hunter.removePotionEffect(PotionEffectType.BLINDNESS);
-                hunter.setInvulnerable(false);
-            }
+        for (int i = 0; i < roster.size(hunterTeam); i++) {
+            Player hunter = roster.get(hunterTeam, i);
+            hunter.removePotionEffect(PotionEffectType.BLINDNESS);
+            hunter.setInvulnerable(false);
         }
     }
     
@@ -258,18 +246,15 @@ public class ManhuntManager {
                 }
 
                 // Place glass beneath all hunters
-                Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-                for (UUID hunterId : hunters) {
-                    Player hunter = Bukkit.getPlayer(hunterId);
-                    if (hunter != null && hunter.isOnline()) {
-                        Location hunterLoc = hunter.getLocation();
-                        Location blockBelow = hunterLoc.clone().subtract(0, 1, 0);
-                        
-                        // Only place glass if the block below is air
-                        if (blockBelow.getBlock().getType() == Material.AIR) {
-                            blockBelow.getBlock().setType(Material.GLASS);
-                            placedGlassBlocks.add(blockBelow.clone());
-                        }
+                for (int i = 0; i < roster.size(hunterTeam); i++) {
+                    Player hunter = roster.get(hunterTeam, i);
+                    Location hunterLoc = hunter.getLocation();
+                    Location blockBelow = hunterLoc.clone().subtract(0, 1, 0);
+                    
+                    // Only place glass if the block below is air
+                    if (blockBelow.getBlock().getType() == Material.AIR) {
+                        blockBelow.getBlock().setType(Material.GLASS);
+                        placedGlassBlocks.add(blockBelow.clone());
                     }
                 }
             }
@@ -295,12 +280,9 @@ public class ManhuntManager {
      * Give all hunters tracking compasses
      */
     private void giveHuntersCompasses() {
-        Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-        for (UUID hunterId : hunters) {
-            Player hunter = Bukkit.getPlayer(hunterId);
-            if (hunter != null && hunter.isOnline()) {
-                giveCompass(hunter, false);
-            }
+        for (int i = 0; i < roster.size(hunterTeam); i++) {
+            Player hunter = roster.get(hunterTeam, i);
+            giveCompass(hunter, false);
         }
     }
 
@@ -416,14 +398,11 @@ public class ManhuntManager {
         compassChargeTask = new BukkitRunnable() {
             @Override
             public void run() {
-                Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
                 long currentTime = System.currentTimeMillis();
 
-                for (UUID hunterId : hunters) {
-                    Player hunter = Bukkit.getPlayer(hunterId);
-                    if (hunter == null || !hunter.isOnline()) {
-                        continue;
-                    }
+                for (int i = 0; i < roster.size(hunterTeam); i++) {
+                    Player hunter = roster.get(hunterTeam, i);
+                    UUID hunterId = hunter.getUniqueId();
 
                     // Check if compass should be charged (using real-world milliseconds)
                     Long lastCharged = compassLastCharged.get(hunterId);
@@ -466,75 +445,50 @@ public class ManhuntManager {
         compassChargeTask.runTaskTimer(plugin, 0L, 20L);
     }
 
+    @Override
+    public boolean isTracking() {
+        return compassTracking;
+    }
+
     /**
-     * Start task that updates compass direction to point to nearest runner
-     * OPTIMIZED: Runs less frequently to reduce lag, independent of game ticks
+     * Point every hunter's compass at the nearest runner (called by the tracking engine every second)
      */
-    private void startCompassUpdateTask() {
-        compassUpdateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Only update compasses while timer is running
-                if (!plugin.getTimerManager().isRunning() || plugin.getTimerManager().isPaused()) {
-                    return;
-                }
-
-                Set<UUID> hunters = plugin.getDataManager().getPlayersInTeam("hunter");
-                Set<UUID> runners = plugin.getDataManager().getPlayersInTeam("runner");
-
-                if (hunters.isEmpty() || runners.isEmpty()) {
-                    return;
-                }
-
-                for (UUID hunterId : hunters) {
-                    Player hunter = Bukkit.getPlayer(hunterId);
-                    if (hunter == null || !hunter.isOnline()) {
-                        continue;
-                    }
+    @Override
+    public void onTrackingUpdate(TrackingFrame frame) {
+        // Only update compasses while timer is running
+        if (!plugin.getTimerManager().isRunning() || plugin.getTimerManager().isPaused()) {
+            return;
+        }
 
-                    // Find nearest runner in same world
-                    Player nearestRunner = null;
-                    double nearestDistance = Double.MAX_VALUE;
+        if (roster.size(hunterTeam) == 0 || roster.size(runnerTeam) == 0) {
+            return;
+        }
 
-                    for (UUID runnerId : runners) {
-                        Player runner = Bukkit.getPlayer(runnerId);
-                        if (runner == null || !runner.isOnline()) {
-                            continue;
-                        }
+        for (int i = 0; i < roster.size(hunterTeam); i++) {
+            Player hunter = roster.get(hunterTeam, i);
+            UUID hunterId = hunter.getUniqueId();
 
-                        // Only track runners in same world
-                        if (hunter.getWorld().equals(runner.getWorld())) {
-                            double distance = hunter.getLocation().distanceSquared(runner.getLocation());
-                            if (distance < nearestDistance) {
-                                nearestDistance = distance;
-                                nearestRunner = runner;
-                            }
-                        }
-                    }
+            // Find nearest runner in same world (answered from the shared grid)
+            int nearest = frame.nearest(hunter.getLocation(), runnerTeam);
 
-                    // Update compass to point to nearest runner or last known position
-                    if (nearestRunner != null) {
-                        Location targetLoc = nearestRunner.getLocation();
-                        // Update compass needle (doesn't cause flickering)
-                        hunter.setCompassTarget(targetLoc);
-                        // Store this as the last known position for this hunter
-                        lastKnownRunnerPosition.put(hunterId, targetLoc.clone());
-                    } else {
-                        // No runner in same dimension - point to last known position or portal
-                        Location fallbackTarget = findFallbackCompassTarget(hunter, hunterId);
-                        if (fallbackTarget != null) {
-                            hunter.setCompassTarget(fallbackTarget);
-                        }
-                        // If no fallback found, compass keeps pointing to last set target
-                    }
+            // Update compass to point to nearest runner or last known position
+            if (nearest != TrackingFrame.NONE) {
+                Location targetLoc = frame.getLocation(nearest);
+                // Update compass needle (doesn't cause flickering)
+                hunter.setCompassTarget(targetLoc);
+                // Store this as the last known position for this hunter
+                lastKnownRunnerPosition.put(hunterId, targetLoc.clone());
+            } else {
+                // No runner in same dimension - point to last known position or portal
+                Location fallbackTarget = findFallbackCompassTarget(hunter, hunterId);
+                if (fallbackTarget != null) {
+                    hunter.setCompassTarget(fallbackTarget);
                 }
+                // If no fallback found, compass keeps pointing to last set target
             }
-        };
-
-        // OPTIMIZED: Run every 20 ticks (1 second) - independent of server lag
-        compassUpdateTask.runTaskTimer(plugin, 0L, 20L);
+        }
     }
-    
+
     /**
      * Find a fallback target for compass when no runners are in same dimension
      * Returns last known runner position, or nearest portal, or null
@@ -547,7 +501,7 @@ public class ManhuntManager {
         }
         
         // Otherwise, try to find a portal to point to
-        Location portalTarget = getCachedNearestPortal(hunter, hunterId);
+        Location portalTarget = plugin.getPortalIndex().findNearest(hunter.getLocation(), PORTAL_SEARCH_RADIUS);
         if (portalTarget != null) {
             return portalTarget;
         }
@@ -562,81 +516,6 @@ public class ManhuntManager {
         return null;
     }
 
-    private Location getCachedNearestPortal(Player hunter, UUID hunterId) {
-        long now = System.currentTimeMillis();
-        Location current = hunter.getLocation();
-        Location scanOrigin = portalScanOrigin.get(hunterId);
-        Long lastScan = portalScanTime.get(hunterId);
-
-        if (lastScan != null && (now - lastScan) < PORTAL_SCAN_CACHE_MS && scanOrigin != null
-                && scanOrigin.getWorld() != null && scanOrigin.getWorld().equals(current.getWorld())
-                && scanOrigin.distanceSquared(current) <= PORTAL_SCAN_MOVE_THRESHOLD_SQ) {
-            return cachedPortalTarget.get(hunterId);
-        }
-
-        Location nearest = findNearestPortal(current, current.getWorld());
-        portalScanTime.put(hunterId, now);
-        portalScanOrigin.put(hunterId, current.clone());
-
-        if (nearest != null) {
-            cachedPortalTarget.put(hunterId, nearest);
-        } else {
-            cachedPortalTarget.remove(hunterId);
-        }
-
-        return nearest;
-    }
-    
-    /**
-     * Find the nearest portal (Nether or End) to the hunter
-     * Returns the portal location or null if none found nearby
-     */
-    private Location findNearestPortal(Location hunterLoc, org.bukkit.World world) {
-        
-        // Search radius for portals (in blocks)
-        int searchRadius = 128;
-        int baseX = hunterLoc.getBlockX();
-        int baseY = hunterLoc.getBlockY();
-        int baseZ = hunterLoc.getBlockZ();
-        int minY = Math.max(world.getMinHeight(), baseY - searchRadius);
-        int maxY = Math.min(world.getMaxHeight() - 1, baseY + searchRadius);
-        
-        int nearestX = 0;
-        int nearestY = 0;
-        int nearestZ = 0;
-        double nearestDistanceSq = Double.MAX_VALUE;
-        boolean found = false;
-        
-        // Search for nether portals (obsidian frame)
-        for (int x = baseX - searchRadius; x <= baseX + searchRadius; x += 4) {
-            for (int y = minY; y <= maxY; y += 4) {
-                for (int z = baseZ - searchRadius; z <= baseZ + searchRadius; z += 4) {
-                    Material blockType = world.getBlockAt(x, y, z).getType();
-                    
-                    // Check for nether portal or end portal frame
-                    if (blockType == Material.NETHER_PORTAL || blockType == Material.END_PORTAL_FRAME || blockType == Material.END_PORTAL) {
-                        double distanceSq = (x - baseX) * (double) (x - baseX)
-                                + (y - baseY) * (double) (y - baseY)
-                                + (z - baseZ) * (double) (z - baseZ);
-                        if (distanceSq < nearestDistanceSq) {
-                            nearestDistanceSq = distanceSq;
-                            nearestX = x;
-                            nearestY = y;
-                            nearestZ = z;
-                            found = true;
-                        }
-                    }
-                }
-            }
-        }
-        
-        if (!found) {
-            return null;
-        }
-
-        return new Location(world, nearestX + 0.5, nearestY, nearestZ + 0.5);
-    }
-
     /**
      * Use compass charge (called when hunter right-clicks compass)
      * Returns true if successful, false if not charged
@@ -653,10 +532,8 @@ public class ManhuntManager {
         compassLastCharged.put(hunter.getUniqueId(), System.currentTimeMillis());
         updateCompassInInventory(hunter, false);
 
-        // Get all runners
-        Set<UUID> runners = plugin.getDataManager().getPlayersInTeam("runner");
-
-        if (runners.isEmpty()) {
+        // Any runners online?
+        if (roster.size(runnerTeam) == 0) {
             return true; // Still consume charge even if no runners
         }
 
@@ -664,23 +541,21 @@ public class ManhuntManager {
         boolean allRunnersInDifferentDimension = true;
         String runnerDimension = null; // Track which dimension runners are in
         
-        for (UUID runnerId : runners) {
-            Player runner = Bukkit.getPlayer(runnerId);
-            if (runner != null && runner.isOnline()) {
-                if (hunter.getWorld().equals(runner.getWorld())) {
-                    allRunnersInDifferentDimension = false;
-                    break;
-                }
-                // Determine which dimension the runner is in
-                if (runnerDimension == null) {
-                    String worldName = runner.getWorld().getName().toLowerCase();
-                    if (worldName.contains("nether") || runner.getWorld().getEnvironment() == org.bukkit.World.Environment.NETHER) {
-                        runnerDimension = "nether";
-                    } else if (worldName.contains("end") || runner.getWorld().getEnvironment() == org.bukkit.World.Environment.THE_END) {
-                        runnerDimension = "end";
-                    } else {
-                        runnerDimension = "overworld";
-                    }
+        for (int i = 0; i < roster.size(runnerTeam); i++) {
+            Player runner = roster.get(runnerTeam, i);
+            if (hunter.getWorld().equals(runner.getWorld())) {
+                allRunnersInDifferentDimension = false;
+                break;
+            }
+            // Determine which dimension the runner is in
+            if (runnerDimension == null) {
+                String worldName = runner.getWorld().getName().toLowerCase();
+                if (worldName.contains("nether") || runner.getWorld().getEnvironment() == org.bukkit.World.Environment.NETHER) {
+                    runnerDimension = "nether";
+                } else if (worldName.contains("end") || runner.getWorld().getEnvironment() == org.bukkit.World.Environment.THE_END) {
+                    runnerDimension = "end";
+                } else {
+                    runnerDimension = "overworld";
                 }
             }
         }
@@ -731,28 +606,24 @@ public class ManhuntManager {
      * Apply glowing effect to all runners (in team color if possible)
      */
     private void applyGlowToRunners(Player hunter) {
-        Set<UUID> runners = plugin.getDataManager().getPlayersInTeam("runner");
-
-        for (UUID runnerId : runners) {
-            Player runner = Bukkit.getPlayer(runnerId);
-            if (runner != null && runner.isOnline()) {
-                // Apply glowing effect for 10 seconds
-                runner.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, 200, 0, false, false, true));
-
-                // Only play sound and notify if hunter is within 25 blocks and in same world
-                boolean isClose = false;
-                if (hunter.getWorld().equals(runner.getWorld())) {
-                    double distanceSq = hunter.getLocation().distanceSquared(runner.getLocation());
-                    if (distanceSq <= 625.0) {
-                        isClose = true;
-                    }
+        for (int i = 0; i < roster.size(runnerTeam); i++) {
+            Player runner = roster.get(runnerTeam, i);
+            // Apply glowing effect for 10 seconds
+            runner.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, 200, 0, false, false, true));
+
+            // Only play sound and notify if hunter is within 25 blocks and in same world
+            boolean isClose = false;
+            if (hunter.getWorld().equals(runner.getWorld())) {
+                double distanceSq = hunter.getLocation().distanceSquared(runner.getLocation());
+                if (distanceSq <= 625.0) {
+                    isClose = true;
                 }
+            }
 
-                if (isClose) {
-                    // Notify runner they're glowing
-                    runner.sendMessage(lang.getComponent("manhunt.you-are-glowing"));
-                    runner.playSound(runner.getLocation(), org.bukkit.Sound.ENTITY_ENDERMAN_STARE, 1.0f, 0.8f);
-                }
+            if (isClose) {
+                // Notify runner they're glowing
+                runner.sendMessage(lang.getComponent("manhunt.you-are-glowing"));
+                runner.playSound(runner.getLocation(), org.bukkit.Sound.ENTITY_ENDERMAN_STARE, 1.0f, 0.8f);
             }
         }
     }
@@ -761,12 +632,9 @@ public class ManhuntManager {
      * Remove glow effect from all runners
      */
     private void removeGlowFromRunners() {
-        Set<UUID> runners = plugin.getDataManager().getPlayersInTeam("runner");
-        for (UUID runnerId : runners) {
-            Player runner = Bukkit.getPlayer(runnerId);
-            if (runner != null && runner.isOnline()) {
-                runner.removePotionEffect(PotionEffectType.GLOWING);
-            }
+        for (int i = 0; i < roster.size(runnerTeam); i++) {
+            Player runner = roster.get(runnerTeam, i);
+            runner.removePotionEffect(PotionEffectType.GLOWING);
         }
     }
 
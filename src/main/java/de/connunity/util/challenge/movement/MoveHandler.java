@@ -0,0 +1,12 @@
+package de.connunity.util.challenge.movement;
+
+import org.bukkit.event.player.PlayerMoveEvent;
+
+/**
+ * Receives the moves it subscribed to from the {@link MovementDispatcher}
+ */
+@FunctionalInterface
+public interface MoveHandler {
+
+    void onMove(PlayerMoveEvent event, MoveType type);
+}
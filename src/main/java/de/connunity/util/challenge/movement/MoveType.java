@@ -0,0 +1,18 @@
+package de.connunity.util.challenge.movement;
+
+/**
+ * Classification of a player move. Each type includes the ones before it: a move into a new chunk
+ * is also a move to a new block, and so on.
+ */
+public enum MoveType {
+    /** Only the head turned */
+    LOOK,
+    /** Position changed inside the same block */
+    SAME_BLOCK,
+    /** Entered a different block in the same chunk */
+    NEW_BLOCK,
+    /** Entered a different chunk in the same world */
+    NEW_CHUNK,
+    /** Entered a different world */
+    NEW_WORLD
+}
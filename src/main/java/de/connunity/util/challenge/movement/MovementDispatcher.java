@@ -0,0 +1,157 @@
+package de.connunity.util.challenge.movement;
+
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import java.util.Arrays;
+
+/**
+ * Single PlayerMoveEvent listener for the whole plugin. Each move is classified once
+ * (look only, same block, new block, new chunk, new world) and handed only to the handlers
+ * that subscribed to that kind of move, so the common look-only move costs one comparison
+ * instead of one per feature.
+ *
+ * Handlers that may change or cancel the move run in {@link Phase#RESTRICT} (LOW priority);
+ * handlers that only react to where the player ended up run in {@link Phase#OBSERVE} (MONITOR).
+ * Main thread only.
+ */
+public class MovementDispatcher implements Listener {
+
+    public enum Phase {
+        /** May change the destination or cancel the move (LOW priority) */
+        RESTRICT,
+        /** Sees the final move, must not change it (MONITOR priority) */
+        OBSERVE
+    }
+
+    private final Subscribers restrict = new Subscribers();
+    private final Subscribers observe = new Subscribers();
+
+    // Classification of the event currently being dispatched, reused by the OBSERVE phase
+    private PlayerMoveEvent classifiedEvent;
+    private MoveType classifiedType;
+    private boolean destinationMayHaveChanged;
+
+    /**
+     * Call the handler for every move of the given type or a larger one
+     * (e.g. NEW_CHUNK also receives NEW_WORLD moves)
+     */
+    public void subscribe(MoveType minimum, Phase phase, MoveHandler handler) {
+        subscribers(phase).add(handler, minimum.ordinal(), Double.NaN);
+    }
+
+    /**
+     * Call the handler when a move inside one world crosses the given height in either direction
+     */
+    public void subscribeYCrossing(double y, Phase phase, MoveHandler handler) {
+        subscribers(phase).add(handler, MoveType.NEW_WORLD.ordinal() + 1, y);
+    }
+
+    private Subscribers subscribers(Phase phase) {
+        return phase == Phase.RESTRICT ? restrict : observe;
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onMoveRestrict(PlayerMoveEvent event) {
+        MoveType type = classify(event);
+        classifiedEvent = event;
+        classifiedType = type;
+        destinationMayHaveChanged = restrict.dispatch(event, type);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMoveObserve(PlayerMoveEvent event) {
+        // Reuse the LOW classification unless a restricting handler ran and may have changed the destination
+        MoveType type = event == classifiedEvent && !destinationMayHaveChanged ? classifiedType : classify(event);
+        classifiedEvent = null; // Do not keep the event alive until the next move
+        observe.dispatch(event, type);
+    }
+
+    /**
+     * Classify a move from its from/to locations
+     */
+    public static MoveType classify(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) {
+            return MoveType.LOOK;
+        }
+        if (from.getWorld() != to.getWorld()) {
+            return MoveType.NEW_WORLD;
+        }
+        if (from.getX() == to.getX() && from.getY() == to.getY() && from.getZ() == to.getZ()) {
+            return MoveType.LOOK;
+        }
+        int fromX = from.getBlockX();
+        int fromZ = from.getBlockZ();
+        int toX = to.getBlockX();
+        int toZ = to.getBlockZ();
+        if ((fromX >> 4) != (toX >> 4) || (fromZ >> 4) != (toZ >> 4)) {
+            return MoveType.NEW_CHUNK;
+        }
+        if (fromX != toX || fromZ != toZ || from.getBlockY() != to.getBlockY()) {
+            return MoveType.NEW_BLOCK;
+        }
+        return MoveType.SAME_BLOCK;
+    }
+
+    /**
+     * Handlers of one phase in flat arrays (registration happens once on startup)
+     */
+    private static final class Subscribers {
+
+        private MoveHandler[] handlers = new MoveHandler[0];
+        private int[] minimums = new int[0];          // Smallest MoveType ordinal, or past NEW_WORLD for Y crossings
+        private double[] yThresholds = new double[0]; // NaN for type subscriptions
+        private int lowestMinimum = Integer.MAX_VALUE;
+        private boolean hasYThresholds = false;
+
+        void add(MoveHandler handler, int minimum, double yThreshold) {
+            int size = handlers.length;
+            handlers = Arrays.copyOf(handlers, size + 1);
+            minimums = Arrays.copyOf(minimums, size + 1);
+            yThresholds = Arrays.copyOf(yThresholds, size + 1);
+            handlers[size] = handler;
+            minimums[size] = minimum;
+            yThresholds[size] = yThreshold;
+            if (Double.isNaN(yThreshold)) {
+                lowestMinimum = Math.min(lowestMinimum, minimum);
+            } else {
+                hasYThresholds = true;
+            }
+        }
+
+        /**
+         * @return true if any handler was called
+         */
+        boolean dispatch(PlayerMoveEvent event, MoveType type) {
+            int ordinal = type.ordinal();
+            boolean checkY = hasYThresholds && type != MoveType.LOOK && type != MoveType.NEW_WORLD;
+            if (ordinal < lowestMinimum && !checkY) {
+                return false; // Nobody wants this kind of move
+            }
+
+            boolean called = false;
+            double fromY = event.getFrom().getY();
+            double toY = checkY ? event.getTo().getY() : fromY;
+            for (int i = 0; i < handlers.length; i++) {
+                double threshold = yThresholds[i];
+                boolean wanted = Double.isNaN(threshold)
+                        ? ordinal >= minimums[i]
+                        : checkY && (fromY < threshold) != (toY < threshold);
+                if (!wanted) {
+                    continue;
+                }
+                handlers[i].onMove(event, type);
+                called = true;
+                if (event.isCancelled()) {
+                    break; // Same as ignoreCancelled for the remaining handlers
+                }
+            }
+            return called;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package de.connunity.util.challenge.scan;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Searches loaded chunks for a few block types off the main thread, and applies edits to the hits.
+ * OPTIMIZED: replaces main-thread getBlockAt sweeps (millions of reads in one tick for a 200 block
+ * End sweep). A scan runs as a pipeline:
+ * - ChunkSnapshots are captured on the main thread in small batches, within a per-tick time budget
+ * - the batches are searched in parallel on a small worker pool; chunks whose block palettes hold
+ *   none of the targets and empty sections are skipped without reading a single block
+ * - the hits come back to the main thread, and edits are applied under the same per-tick budget
+ *
+ * Callbacks and edits run on the main thread. Scans see the world as it was when each chunk was
+ * captured, so edits should re-check the block.
+ */
+public class ChunkScanner {
+
+    private static final long TICK_BUDGET_NANOS = 2_000_000L; // 2 ms of main thread time per tick
+    private static final int CHUNKS_PER_BATCH = 8;
+    private static final int[] NO_HITS = new int[0];
+
+    private final ChallengeUtil plugin;
+    private final ExecutorService workers;
+
+    // Finished worker batches, merged on the main thread
+    private final ConcurrentLinkedQueue<Runnable> finished = new ConcurrentLinkedQueue<>();
+
+    // Main thread only
+    private final ArrayDeque<ScanJob> capturing = new ArrayDeque<>();
+    private final ArrayDeque<EditJob> edits = new ArrayDeque<>();
+    private int runningScans = 0;
+    private BukkitTask ticker = null;
+
+    public ChunkScanner(ChallengeUtil plugin) {
+        this.plugin = plugin;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ChallengeUtil-ChunkScan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Find all blocks of the given types in the loaded chunks of a region.
+     * The callback runs on the main thread once every chunk has been searched.
+     */
+    public void scan(ScanRegion region, Set<Material> targets, Consumer<ScanResult> callback) {
+        capturing.add(new ScanJob(region, targets.toArray(new Material[0]), callback));
+        runningScans++;
+        ensureTicking();
+    }
+
+    /**
+     * Run an edit on every hit of a scan (in loaded chunks), a few per tick within the time budget.
+     * The done callback (may be null) runs on the main thread after the last edit.
+     */
+    public void applyEdits(ScanResult result, Consumer<Block> edit, Runnable done) {
+        edits.add(new EditJob(result, edit, done));
+        ensureTicking();
+    }
+
+    /**
+     * Drop all pending work and stop the workers (e.g. on plugin disable)
+     */
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+        capturing.clear();
+        edits.clear();
+        finished.clear();
+        runningScans = 0;
+        workers.shutdownNow();
+    }
+
+    private void ensureTicking() {
+        if (ticker == null) {
+            ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+
+        Runnable merge;
+        while ((merge = finished.poll()) != null) {
+            merge.run();
+        }
+
+        // Always make some progress, even if the merges used up the budget
+        boolean first = true;
+        while (!capturing.isEmpty() && (first || System.nanoTime() < deadline)) {
+            first = false;
+            ScanJob job = capturing.peek();
+            if (!job.captureBatch()) {
+                capturing.poll(); // Everything captured - the job finishes when its batches come back
+            }
+        }
+
+        first = true;
+        while (!edits.isEmpty() && (first || System.nanoTime() < deadline)) {
+            first = false;
+            EditJob job = edits.peek();
+            if (!job.applyNext()) {
+                edits.poll();
+                job.finish();
+            }
+        }
+
+        if (runningScans == 0 && edits.isEmpty() && ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Search one chunk snapshot (runs on a worker). Returns (packed local position, target index) pairs.
+     */
+    static int[] scanChunk(ChunkSnapshot snapshot, int fromX, int toX, int fromZ, int toZ, int minY, int maxY,
+                           int worldMinY, Material[] targets, BlockData[] paletteData, boolean matchesAir) {
+        if (paletteData != null) {
+            // Palette check: no target in any section's palette means nothing to find here
+            boolean present = false;
+            for (BlockData data : paletteData) {
+                if (snapshot.contains(data)) {
+                    present = true;
+                    break;
+                }
+            }
+            if (!present) {
+                return NO_HITS;
+            }
+        }
+
+        int[] hits = NO_HITS;
+        int count = 0;
+        for (int section = (minY - worldMinY) >> 4; section <= (maxY - worldMinY) >> 4; section++) {
+            if (!matchesAir && snapshot.isSectionEmpty(section)) {
+                continue;
+            }
+            int sectionMinY = Math.max(minY, worldMinY + (section << 4));
+            int sectionMaxY = Math.min(maxY, worldMinY + (section << 4) + 15);
+            for (int y = sectionMinY; y <= sectionMaxY; y++) {
+                for (int x = fromX; x <= toX; x++) {
+                    for (int z = fromZ; z <= toZ; z++) {
+                        Material type = snapshot.getBlockType(x, y, z);
+                        for (int target = 0; target < targets.length; target++) {
+                            if (targets[target] == type) {
+                                if (count + 2 > hits.length) {
+                                    hits = Arrays.copyOf(hits, Math.max(16, hits.length * 2));
+                                }
+                                hits[count++] = ((y + 32768) << 8) | (x << 4) | z;
+                                hits[count++] = target;
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return count == hits.length ? hits : Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * One scan: chunks are captured in order, searched in batches and merged back by chunk index
+     */
+    private final class ScanJob {
+
+        private final ScanRegion region;
+        private final World world;
+        private final Material[] targets;
+        private final BlockData[] paletteData; // null if a target has block states (palette check not exact)
+        private final boolean matchesAir;
+        private final Consumer<ScanResult> callback;
+        private final int minY;
+        private final int maxY;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int chunksZ;
+        private final int[][] chunkHits;
+        private int nextChunk = 0;
+        private int batchesInFlight = 0;
+
+        ScanJob(ScanRegion region, Material[] targets, Consumer<ScanResult> callback) {
+            this.region = region;
+            this.world = region.getWorld();
+            this.targets = targets;
+            this.callback = callback;
+
+            boolean air = false;
+            BlockData[] data = new BlockData[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                air |= targets[i].isAir();
+                data[i] = targets[i].createBlockData();
+                if (data[i].getAsString().indexOf('[') >= 0) {
+                    data = null; // contains() matches exact states only
+                    break;
+                }
+            }
+            this.matchesAir = air;
+            this.paletteData = air ? null : data;
+
+            this.minY = Math.max(region.getMinY(), world.getMinHeight());
+            this.maxY = Math.min(region.getMaxY(), world.getMaxHeight() - 1);
+            this.minChunkX = region.getMinX() >> 4;
+            this.minChunkZ = region.getMinZ() >> 4;
+            this.chunksZ = (region.getMaxZ() >> 4) - minChunkZ + 1;
+            int chunksX = (region.getMaxX() >> 4) - minChunkX + 1;
+            this.chunkHits = new int[minY > maxY ? 0 : chunksX * chunksZ][];
+        }
+
+        /**
+         * Capture the next batch of loaded chunks and hand it to the workers. False once all are captured.
+         */
+        boolean captureBatch() {
+            if (Bukkit.getWorld(world.getUID()) == null) {
+                nextChunk = chunkHits.length; // World unloaded - finish with what was found
+            }
+            int[] indices = new int[CHUNKS_PER_BATCH];
+            ChunkSnapshot[] snapshots = new ChunkSnapshot[CHUNKS_PER_BATCH];
+            int size = 0;
+            while (nextChunk < chunkHits.length && size < CHUNKS_PER_BATCH) {
+                int index = nextChunk++;
+                int chunkX = minChunkX + index / chunksZ;
+                int chunkZ = minChunkZ + index % chunksZ;
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    continue;
+                }
+                indices[size] = index;
+                snapshots[size] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+                size++;
+            }
+            if (size > 0) {
+                submit(Arrays.copyOf(indices, size), Arrays.copyOf(snapshots, size));
+            }
+            boolean more = nextChunk < chunkHits.length;
+            if (!more && batchesInFlight == 0) {
+                complete();
+            }
+            return more;
+        }
+
+        private void submit(int[] indices, ChunkSnapshot[] snapshots) {
+            int worldMinY = world.getMinHeight();
+            batchesInFlight++;
+            try {
+                workers.execute(() -> {
+                    int[][] results = new int[indices.length][];
+                    try {
+                        for (int i = 0; i < indices.length; i++) {
+                            int chunkX = minChunkX + indices[i] / chunksZ;
+                            int chunkZ = minChunkZ + indices[i] % chunksZ;
+                            int baseX = chunkX << 4;
+                            int baseZ = chunkZ << 4;
+                            results[i] = scanChunk(snapshots[i],
+                                    Math.max(region.getMinX(), baseX) - baseX, Math.min(region.getMaxX(), baseX + 15) - baseX,
+                                    Math.max(region.getMinZ(), baseZ) - baseZ, Math.min(region.getMaxZ(), baseZ + 15) - baseZ,
+                                    minY, maxY, worldMinY, targets, paletteData, matchesAir);
+                        }
+                    } catch (Throwable t) {
+                        finished.add(() -> plugin.logWarning("Chunk scan failed: " + t.getMessage()));
+                    }
+                    finished.add(() -> merge(indices, results));
+                });
+            } catch (RejectedExecutionException e) {
+                batchesInFlight--; // Shutting down
+            }
+        }
+
+        private void merge(int[] indices, int[][] results) {
+            for (int i = 0; i < indices.length; i++) {
+                chunkHits[indices[i]] = results[i];
+            }
+            batchesInFlight--;
+            if (batchesInFlight == 0 && nextChunk >= chunkHits.length) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            runningScans--;
+            int total = 0;
+            for (int[] hits : chunkHits) {
+                if (hits != null) {
+                    total += hits.length / 2;
+                }
+            }
+            int[] xs = new int[total];
+            int[] ys = new int[total];
+            int[] zs = new int[total];
+            Material[] types = new Material[total];
+            int hit = 0;
+            for (int index = 0; index < chunkHits.length; index++) {
+                int[] hits = chunkHits[index];
+                if (hits == null) {
+                    continue;
+                }
+                int baseX = (minChunkX + index / chunksZ) << 4;
+                int baseZ = (minChunkZ + index % chunksZ) << 4;
+                for (int i = 0; i < hits.length; i += 2) {
+                    int local = hits[i];
+                    xs[hit] = baseX + ((local >> 4) & 15);
+                    ys[hit] = (local >>> 8) - 32768;
+                    zs[hit] = baseZ + (local & 15);
+                    types[hit] = targets[hits[i + 1]];
+                    hit++;
+                }
+            }
+            try {
+                callback.accept(new ScanResult(world, xs, ys, zs, types));
+            } catch (Exception e) {
+                plugin.logWarning("Error handling chunk scan result: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Edits over the hits of one scan, resumed across ticks
+     */
+    private final class EditJob {
+
+        private final ScanResult result;
+        private final Consumer<Block> edit;
+        private final Runnable done;
+        private int next = 0;
+
+        EditJob(ScanResult result, Consumer<Block> edit, Runnable done) {
+            this.result = result;
+            this.edit = edit;
+            this.done = done;
+        }
+
+        /**
+         * Apply the next edit. False once all hits are done (or the world is gone).
+         */
+        boolean applyNext() {
+            World world = result.getWorld();
+            if (next >= result.size() || Bukkit.getWorld(world.getUID()) == null) {
+                return false;
+            }
+            int hit = next++;
+            if (world.isChunkLoaded(result.getX(hit) >> 4, result.getZ(hit) >> 4)) {
+                try {
+                    edit.accept(result.getBlock(hit));
+                } catch (Exception e) {
+                    plugin.logWarning("Error applying chunk scan edit: " + e.getMessage());
+                }
+            }
+            return true;
+        }
+
+        void finish() {
+            if (done != null) {
+                done.run();
+            }
+        }
+    }
+}
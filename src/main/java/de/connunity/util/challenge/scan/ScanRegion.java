@@ -0,0 +1,68 @@
+package de.connunity.util.challenge.scan;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Block box to search with the {@link ChunkScanner} (bounds inclusive).
+ * Only chunks that are loaded when the scan reaches them are searched.
+ */
+public final class ScanRegion {
+
+    private final World world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    public ScanRegion(World world, int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.world = world;
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    /**
+     * Box of the given radii around a location
+     */
+    public static ScanRegion around(Location center, int radiusXZ, int radiusY) {
+        int x = center.getBlockX();
+        int y = center.getBlockY();
+        int z = center.getBlockZ();
+        return new ScanRegion(center.getWorld(), x - radiusXZ, y - radiusY, z - radiusXZ,
+                x + radiusXZ, y + radiusY, z + radiusXZ);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
@@ -0,0 +1,61 @@
+package de.connunity.util.challenge.scan;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Blocks found by a {@link ChunkScanner} scan, in chunk order (x, then z) and bottom-up within a chunk.
+ * Types are as seen in the snapshot - re-check the block before editing it.
+ */
+public final class ScanResult {
+
+    private final World world;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final Material[] types;
+
+    ScanResult(World world, int[] xs, int[] ys, int[] zs, Material[] types) {
+        this.world = world;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.types = types;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public boolean isEmpty() {
+        return xs.length == 0;
+    }
+
+    public int getX(int hit) {
+        return xs[hit];
+    }
+
+    public int getY(int hit) {
+        return ys[hit];
+    }
+
+    public int getZ(int hit) {
+        return zs[hit];
+    }
+
+    public Material getType(int hit) {
+        return types[hit];
+    }
+
+    /**
+     * The live block of a hit (main thread only)
+     */
+    public Block getBlock(int hit) {
+        return world.getBlockAt(xs[hit], ys[hit], zs[hit]);
+    }
+}
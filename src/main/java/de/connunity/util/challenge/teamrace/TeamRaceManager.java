@@ -1,8 +1,13 @@
 package de.connunity.util.challenge.teamrace;
 
 import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.Challenge;
+import de.connunity.util.challenge.data.KillCounters;
+import de.connunity.util.challenge.data.TeamRoster;
 import de.connunity.util.challenge.endfight.CustomEndFightManager;
 import de.connunity.util.challenge.lang.LanguageManager;
+import de.connunity.util.challenge.tracking.TrackingClient;
+import de.connunity.util.challenge.tracking.TrackingFrame;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
@@ -13,21 +18,22 @@ import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Manages team race mode mechanics: multiple teams racing to kill the Ender Dragon
  * Each team has a compass tracking the nearest player from the closest enemy team
  */
-public class TeamRaceManager {
+public class TeamRaceManager implements TrackingClient {
 
     private final ChallengeUtil plugin;
     private final LanguageManager lang;
-    private BukkitRunnable compassUpdateTask;
-    private static final long COMPASS_UPDATE_INTERVAL = 20L; // 1 second
+    private final TeamRoster roster; // Online members by interned team id (maintained by DataManager)
+    private boolean compassTracking = false; // Compasses are pointed by the shared tracking engine
     
     // Track which team each player is currently tracking (defaults to nearest team)
     private final Map<UUID, String> playerTrackedTeam = new HashMap<>();
@@ -35,6 +41,13 @@ public class TeamRaceManager {
     // Track end portal location once someone enters the End
     private Location endPortalLocation = null;
 
+    // Rendered compass name + lore per look (e.g. own team, target team, closest flag)
+    private final Map<LookKey, CompassLook> compassLooks = new HashMap<>();
+
+    // Compass slots and currently shown look of each player, so unchanged compasses are not rewritten
+    private final Map<UUID, CompassState> compassStates = new HashMap<>();
+    private static final long COMPASS_REFRESH_TICKS = 600L; // Rewrite anyway after 30 seconds
+
     // German color names mapped to Minecraft colors
     private static final Map<String, TeamColor> TEAM_COLORS = new LinkedHashMap<>();
     
@@ -51,6 +64,63 @@ public class TeamRaceManager {
         TEAM_COLORS.put("Grau", new TeamColor(NamedTextColor.GRAY, "<gray>"));
     }
 
+    /**
+     * Rendered compass name and lore (immutable, shared by every player showing the same look)
+     */
+    private static final class CompassLook {
+        final Component name;
+        final List<Component> lore;
+
+        CompassLook(Component name, List<Component> lore) {
+            this.name = name;
+            this.lore = List.copyOf(lore);
+        }
+    }
+
+    /**
+     * What a compass shows: the kind of target plus the teams/player it names
+     */
+    private static final class LookKey {
+        static final int TEAM = 0;
+        static final int EGG = 1;
+        static final int PORTAL = 2;
+
+        final int kind;
+        final String playerTeam;
+        final String target;
+        final String targetTeam;
+        final boolean closest;
+
+        LookKey(int kind, String playerTeam, String target, String targetTeam, boolean closest) {
+            this.kind = kind;
+            this.playerTeam = playerTeam;
+            this.target = target;
+            this.targetTeam = targetTeam;
+            this.closest = closest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LookKey)) return false;
+            LookKey other = (LookKey) o;
+            return kind == other.kind && closest == other.closest && Objects.equals(playerTeam, other.playerTeam)
+                    && Objects.equals(target, other.target) && Objects.equals(targetTeam, other.targetTeam);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, playerTeam, target, targetTeam, closest);
+        }
+    }
+
+    private static final class CompassState {
+        int[] slots = new int[0];
+        boolean rescan = true; // A compass may have been added or swapped since the last scan
+        LookKey key;
+        int writtenAtTick;
+    }
+
     private static class TeamColor {
         final TextColor textColor;
         final String colorCode;
@@ -64,6 +134,7 @@ public class TeamRaceManager {
     public TeamRaceManager(ChallengeUtil plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.roster = plugin.getDataManager().getTeamRoster();
     }
 
     /**
@@ -71,8 +142,7 @@ public class TeamRaceManager {
      */
     public void start() {
         // Check if team race mode is enabled
-        Boolean teamRaceEnabled = plugin.getDataManager().getSavedChallenge("team_race_mode");
-        if (teamRaceEnabled == null || !teamRaceEnabled) {
+        if (!plugin.getDataManager().isChallengeEnabled(Challenge.TEAM_RACE_MODE)) {
             return;
         }
 
@@ -86,22 +156,38 @@ public class TeamRaceManager {
         updateAllPlayerSuffixes();
         
         // Start compass tracking
-        startCompassUpdateTask();
+        compassTracking = true;
     }
 
     /**
      * Stop all team race tasks
      */
     public void stop() {
-        if (compassUpdateTask != null) {
-            compassUpdateTask.cancel();
-            compassUpdateTask = null;
-        }
+        compassTracking = false;
         playerTrackedTeam.clear();
         endPortalLocation = null;
+        compassLooks.clear(); // Rendered again on the next start (the language may have been reloaded)
+        compassStates.clear();
         clearAllPlayerSuffixes();
     }
 
+    /**
+     * Forget a player's compass state (called on quit)
+     */
+    public void removePlayer(Player player) {
+        compassStates.remove(player.getUniqueId());
+    }
+
+    /**
+     * Find the player's compasses again on the next update (called when a compass is picked up or moved)
+     */
+    public void markCompassesMoved(Player player) {
+        CompassState state = compassStates.get(player.getUniqueId());
+        if (state != null) {
+            state.rescan = true;
+        }
+    }
+
     /**
      * Give all team players tracking compasses
      */
@@ -109,12 +195,10 @@ public class TeamRaceManager {
         List<String> teamNames = getActiveTeamNames();
         
         for (String teamName : teamNames) {
-            Set<UUID> teamMembers = plugin.getDataManager().getPlayersInTeam(teamName);
-            for (UUID memberId : teamMembers) {
-                Player player = Bukkit.getPlayer(memberId);
-                if (player != null && player.isOnline()) {
-                    giveCompassToPlayer(player, teamName);
-                }
+            int teamId = roster.intern(teamName);
+            for (int i = 0; i < roster.size(teamId); i++) {
+                Player player = roster.get(teamId, i);
+                giveCompassToPlayer(player, teamName);
             }
         }
     }
@@ -152,191 +236,189 @@ public class TeamRaceManager {
 
         if (!hasCompass) {
             player.getInventory().addItem(compass);
+            compassStates.remove(player.getUniqueId()); // The new compass needs the current look
         }
     }
 
-    /**
-     * Start task that updates compass direction to point to nearest enemy team member
-     * or to the end portal once someone has entered the End
-     */
-    private void startCompassUpdateTask() {
-        compassUpdateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                List<String> teamNames = getActiveTeamNames();
-
-                for (String teamName : teamNames) {
-                    Set<UUID> teamMembers = plugin.getDataManager().getPlayersInTeam(teamName);
-                    
-                    for (UUID memberId : teamMembers) {
-                        Player player = Bukkit.getPlayer(memberId);
-                        if (player == null || !player.isOnline()) {
-                            continue;
-                        }
-
-                        // --- Custom End Fight: egg holder tracking in The End ---
-                        CustomEndFightManager endFight = plugin.getCustomEndFightManager();
-                        boolean endFightActive = endFight != null && endFight.isActive() && endFight.isEggCollected();
-                        Player currentEggHolder = endFightActive ? endFight.getEggHolder() : null;
-
-                        // Skip updating compass for the egg holder (they hold the egg, not a compass)
-                        if (currentEggHolder != null && memberId.equals(currentEggHolder.getUniqueId())) {
-                            continue;
-                        }
-
-                        // Players in The End should track the egg holder
-                        if (endFightActive && currentEggHolder != null && currentEggHolder.isOnline()
-                                && player.getWorld().getEnvironment() == World.Environment.THE_END) {
-                            player.setCompassTarget(currentEggHolder.getLocation());
-                            updateCompassDisplayForEggHolder(player, teamName, currentEggHolder);
-                            continue;
-                        }
-
-                        // If someone has entered the End, point compass to end portal (Overworld behaviour)
-                        if (endPortalLocation != null) {
-                            player.setCompassTarget(endPortalLocation);
-                            updateCompassDisplayForEndPortal(player, teamName);
-                            continue;
-                        }
-
-                        // Get the team this player is tracking (or find nearest)
-                        String trackedTeam = playerTrackedTeam.get(memberId);
-                        String nearestTeam = findNearestEnemyTeam(player, teamName, teamNames);
-                        
-                        // If no tracked team set, or tracked team has no players, use nearest
-                        if (trackedTeam == null || trackedTeam.equals(teamName) || 
-                            plugin.getDataManager().getPlayersInTeam(trackedTeam).isEmpty()) {
-                            trackedTeam = nearestTeam;
-                            playerTrackedTeam.put(memberId, trackedTeam);
-                        }
-                        
-                        // Find nearest member of the tracked team
-                        Player nearestEnemy = findNearestMemberOfTeam(player, trackedTeam);
-                        
-                        if (nearestEnemy != null) {
-                            // Update compass to point to tracked enemy
-                            Location targetLoc = nearestEnemy.getLocation();
-                            player.setCompassTarget(targetLoc);
-                            
-                            // Update compass display
-                            boolean isClosest = trackedTeam != null && trackedTeam.equals(nearestTeam);
-                            updateCompassDisplay(player, teamName, trackedTeam, isClosest);
-                        }
-                    }
-                }
-            }
-        };
-
-        // Run every second
-        compassUpdateTask.runTaskTimer(plugin, 0L, COMPASS_UPDATE_INTERVAL);
+    @Override
+    public boolean isTracking() {
+        return compassTracking;
     }
 
     /**
-     * Find the nearest enemy team (not the player's own team)
-     * Returns the team name of the nearest enemy team
+     * Point compasses at the nearest member of the tracked enemy team, at the egg holder in The End,
+     * or at the end portal once someone has entered the End (called by the tracking engine every second)
      */
-    private String findNearestEnemyTeam(Player player, String playerTeam, List<String> allTeams) {
-        String nearestTeam = null;
-        double nearestDistance = Double.MAX_VALUE;
+    @Override
+    public void onTrackingUpdate(TrackingFrame frame) {
+        List<String> teamNames = getActiveTeamNames();
+        int[] teamIds = new int[teamNames.size()];
+        for (int t = 0; t < teamIds.length; t++) {
+            teamIds[t] = roster.intern(teamNames.get(t));
+        }
 
-        for (String enemyTeam : allTeams) {
-            if (enemyTeam.equals(playerTeam)) {
-                continue; // Skip own team
-            }
+        // --- Custom End Fight: egg holder tracking in The End ---
+        CustomEndFightManager endFight = plugin.getCustomEndFightManager();
+        boolean endFightActive = endFight != null && endFight.isActive() && endFight.isEggCollected();
+        Player currentEggHolder = endFightActive ? endFight.getEggHolder() : null;
 
-            Set<UUID> enemyMembers = plugin.getDataManager().getPlayersInTeam(enemyTeam);
-            
-            // Find the closest member of this team
-            for (UUID enemyId : enemyMembers) {
-                Player enemy = Bukkit.getPlayer(enemyId);
-                if (enemy == null || !enemy.isOnline()) {
+        for (int t = 0; t < teamIds.length; t++) {
+            String teamName = teamNames.get(t);
+            int teamId = teamIds[t];
+
+            for (int i = 0; i < roster.size(teamId); i++) {
+                Player player = roster.get(teamId, i);
+                UUID memberId = player.getUniqueId();
+
+                // Skip updating compass for the egg holder (they hold the egg, not a compass)
+                if (currentEggHolder != null && memberId.equals(currentEggHolder.getUniqueId())) {
+                    continue;
+                }
+
+                // Players in The End should track the egg holder
+                if (endFightActive && currentEggHolder != null && currentEggHolder.isOnline()
+                        && player.getWorld().getEnvironment() == World.Environment.THE_END) {
+                    player.setCompassTarget(currentEggHolder.getLocation());
+                    updateCompassDisplayForEggHolder(player, teamName, currentEggHolder);
                     continue;
                 }
 
-                // Only track enemies in same world
-                if (player.getWorld().equals(enemy.getWorld())) {
-                    double distance = player.getLocation().distanceSquared(enemy.getLocation());
-                    if (distance < nearestDistance) {
-                        nearestDistance = distance;
-                        nearestTeam = enemyTeam;
-                    }
+                // If someone has entered the End, point compass to end portal (Overworld behaviour)
+                if (endPortalLocation != null) {
+                    player.setCompassTarget(endPortalLocation);
+                    updateCompassDisplayForEndPortal(player, teamName);
+                    continue;
+                }
+
+                // Nearest member of any enemy team, answered from the shared grid
+                Location location = player.getLocation();
+                int nearestEnemy = frame.nearestExcept(location, teamId, teamIds);
+                String nearestTeam = nearestEnemy == TrackingFrame.NONE ? null : roster.getName(frame.getTeamId(nearestEnemy));
+
+                // Get the team this player is tracking (or find nearest)
+                String trackedTeam = playerTrackedTeam.get(memberId);
+
+                // If no tracked team set, or tracked team has no players, use nearest
+                if (trackedTeam == null || trackedTeam.equals(teamName) || !teamNames.contains(trackedTeam)) {
+                    trackedTeam = nearestTeam;
+                    playerTrackedTeam.put(memberId, trackedTeam);
+                }
+
+                // Find nearest member of the tracked team (already known if it is the nearest team)
+                int target;
+                if (trackedTeam == null) {
+                    target = TrackingFrame.NONE;
+                } else if (trackedTeam.equals(nearestTeam)) {
+                    target = nearestEnemy;
+                } else {
+                    target = frame.nearest(location, roster.intern(trackedTeam));
+                }
+
+                if (target != TrackingFrame.NONE) {
+                    // Update compass to point to tracked enemy
+                    player.setCompassTarget(frame.getLocation(target));
+
+                    // Update compass display
+                    boolean isClosest = trackedTeam.equals(nearestTeam);
+                    updateCompassDisplay(player, teamName, trackedTeam, isClosest);
                 }
             }
         }
+    }
 
-        return nearestTeam;
+    /**
+     * Update compass display with target team color and closest indicator
+     */
+    private void updateCompassDisplay(Player player, String playerTeam, String targetTeam, boolean isClosest) {
+        LookKey key = new LookKey(LookKey.TEAM, playerTeam, targetTeam, null, isClosest);
+        applyCompassLook(player, key, () -> {
+            TeamColor targetColor = getTeamColor(targetTeam);
+            TeamColor playerColor = getTeamColor(playerTeam);
+
+            // Set compass name to team name in team color (without "tracking" text)
+            Component compassName = Component.text("Team " + targetTeam, targetColor.textColor, TextDecoration.BOLD);
+            if (isClosest) {
+                // Add danger symbol if this is the closest team
+                compassName = Component.text("⚠ ", NamedTextColor.RED, TextDecoration.BOLD)
+                        .append(compassName);
+            }
+
+            List<Component> lore = new ArrayList<>();
+            lore.add(lang.getComponent("teamrace.compass-points-label")
+                    .append(Component.text("Team " + targetTeam, targetColor.textColor)));
+            if (isClosest) {
+                lore.add(Component.text("⚠ Closest Team", NamedTextColor.RED, TextDecoration.BOLD));
+            }
+            lore.add(Component.text(""));
+            lore.add(lang.getComponent("teamrace.compass-your-team")
+                    .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
+            lore.add(Component.text(""));
+            lore.add(lang.getComponent("teamrace.compass-switch-hint"));
+            return new CompassLook(compassName, lore);
+        });
     }
 
     /**
-     * Find the nearest member of a specific team
+     * Show a look on all of the player's compasses. The look is rendered once per key and only written
+     * to the items when the player's compasses show a different look (setItemMeta resyncs the slot).
+     * The compass slots are remembered, so the inventory is only scanned when a compass has moved
+     * (a remembered slot lost its compass, or a compass was picked up or clicked in an inventory).
      */
-    private Player findNearestMemberOfTeam(Player player, String targetTeam) {
-        if (targetTeam == null) {
-            return null;
+    private void applyCompassLook(Player player, LookKey key, Supplier<CompassLook> render) {
+        PlayerInventory inventory = player.getInventory();
+        CompassState state = compassStates.computeIfAbsent(player.getUniqueId(), id -> new CompassState());
+        int tick = Bukkit.getCurrentTick();
+        boolean inPlace = !state.rescan && compassesInPlace(inventory, state.slots);
+        if (inPlace && key.equals(state.key) && tick - state.writtenAtTick < COMPASS_REFRESH_TICKS) {
+            return;
         }
-        
-        Player nearestEnemy = null;
-        double nearestDistance = Double.MAX_VALUE;
-        
-        Set<UUID> enemyMembers = plugin.getDataManager().getPlayersInTeam(targetTeam);
-        
-        for (UUID enemyId : enemyMembers) {
-            Player enemy = Bukkit.getPlayer(enemyId);
-            if (enemy == null || !enemy.isOnline()) {
-                continue;
-            }
 
-            // Only track enemies in same world
-            if (player.getWorld().equals(enemy.getWorld())) {
-                double distance = player.getLocation().distanceSquared(enemy.getLocation());
-                if (distance < nearestDistance) {
-                    nearestDistance = distance;
-                    nearestEnemy = enemy;
+        if (!inPlace) {
+            int[] slots = new int[inventory.getSize()];
+            int count = 0;
+            for (int i = 0; i < slots.length; i++) {
+                ItemStack item = inventory.getItem(i);
+                if (item != null && item.getType() == Material.COMPASS) {
+                    slots[count++] = i;
                 }
             }
+            state.slots = Arrays.copyOf(slots, count);
+            state.rescan = false;
+            state.key = null; // Whatever is found needs the look written
+            if (count == 0) {
+                return; // No compass to update
+            }
         }
 
-        return nearestEnemy;
+        CompassLook look = compassLooks.computeIfAbsent(key, k -> render.get());
+        for (int slot : state.slots) {
+            ItemStack compass = inventory.getItem(slot);
+            ItemMeta meta = compass.getItemMeta();
+            if (meta == null) {
+                continue;
+            }
+            meta.displayName(look.name);
+            meta.lore(look.lore);
+            compass.setItemMeta(meta);
+        }
+        state.key = key;
+        state.writtenAtTick = tick;
     }
 
     /**
-     * Update compass display with target team color and closest indicator
+     * Whether every remembered slot still holds a compass
      */
-    private void updateCompassDisplay(Player player, String playerTeam, String targetTeam, boolean isClosest) {
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (item != null && item.getType() == Material.COMPASS) {
-                ItemMeta meta = item.getItemMeta();
-                if (meta != null) {
-                    TeamColor targetColor = getTeamColor(targetTeam);
-                    TeamColor playerColor = getTeamColor(playerTeam);
-                    
-                    // Set compass name to team name in team color (without "tracking" text)
-                    Component compassName = Component.text("Team " + targetTeam, targetColor.textColor, TextDecoration.BOLD);
-                    if (isClosest) {
-                        // Add danger symbol if this is the closest team
-                        compassName = Component.text("⚠ ", NamedTextColor.RED, TextDecoration.BOLD)
-                                .append(compassName);
-                    }
-                    meta.displayName(compassName);
-
-                    List<Component> lore = new ArrayList<>();
-                    lore.add(lang.getComponent("teamrace.compass-points-label")
-                            .append(Component.text("Team " + targetTeam, targetColor.textColor)));
-                    if (isClosest) {
-                        lore.add(Component.text("⚠ Closest Team", NamedTextColor.RED, TextDecoration.BOLD));
-                    }
-                    lore.add(Component.text(""));
-                    lore.add(lang.getComponent("teamrace.compass-your-team")
-                            .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
-                    lore.add(Component.text(""));
-                    lore.add(lang.getComponent("teamrace.compass-switch-hint"));
-
-                    meta.lore(lore);
-                    item.setItemMeta(meta);
-                }
+    private static boolean compassesInPlace(PlayerInventory inventory, int[] slots) {
+        if (slots.length == 0) {
+            return false;
+        }
+        for (int slot : slots) {
+            ItemStack item = slot < inventory.getSize() ? inventory.getItem(slot) : null;
+            if (item == null || item.getType() != Material.COMPASS) {
+                return false;
             }
         }
+        return true;
     }
 
     /**
@@ -395,7 +477,7 @@ public class TeamRaceManager {
      */
     public boolean checkTeamWin(String winningTeam) {
         // Stop the timer
-        plugin.getTimerManager().stop();
+        plugin.getTimerManager().finish();
         
         // Stop team race manager
         stop();
@@ -413,6 +495,7 @@ public class TeamRaceManager {
         Component subtitle = lang.getComponent("teamrace.dragon-defeated-subtitle");
         NamedTextColor winColor = NamedTextColor.GREEN;
         NamedTextColor loseColor = NamedTextColor.RED;
+        List<Component> leaderboard = buildKillLeaderboard();
         
         // Show personalized messages to each player
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -450,6 +533,9 @@ public class TeamRaceManager {
             player.sendMessage(lang.getComponent("teamrace.game-over-title"));
             player.sendMessage(Component.text(""));
             player.sendMessage(message);
+            for (Component line : leaderboard) {
+                player.sendMessage(line);
+            }
             player.sendMessage(lang.getComponent("teamrace.game-over-divider"));
             player.sendMessage(Component.text(""));
             
@@ -458,6 +544,44 @@ public class TeamRaceManager {
         }
     }
 
+    /**
+     * Build the top killers / top teams lines for the game over screen.
+     * Kill counts are read from the in-memory counters, so this does no disk access.
+     */
+    private List<Component> buildKillLeaderboard() {
+        List<Component> lines = new ArrayList<>();
+        
+        List<KillCounters.Entry<UUID>> topKillers = plugin.getDataManager().getTopTeamRaceKillers(3);
+        if (!topKillers.isEmpty()) {
+            lines.add(Component.text(""));
+            lines.add(lang.getComponent("teamrace.top-killers-header"));
+            int rank = 1;
+            for (KillCounters.Entry<UUID> entry : topKillers) {
+                String name = Bukkit.getOfflinePlayer(entry.getKey()).getName();
+                lines.add(leaderboardEntry(rank++, name != null ? name : entry.getKey().toString(), entry.getKills()));
+            }
+        }
+        
+        List<KillCounters.Entry<String>> topTeams = plugin.getDataManager().getTopTeamRaceTeams(3);
+        if (!topTeams.isEmpty()) {
+            lines.add(Component.text(""));
+            lines.add(lang.getComponent("teamrace.top-teams-header"));
+            int rank = 1;
+            for (KillCounters.Entry<String> entry : topTeams) {
+                lines.add(leaderboardEntry(rank++, entry.getKey().toUpperCase(), entry.getKills()));
+            }
+        }
+        return lines;
+    }
+    
+    private Component leaderboardEntry(int rank, String name, long kills) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("rank", String.valueOf(rank));
+        placeholders.put("name", name);
+        placeholders.put("kills", String.valueOf(kills));
+        return lang.getComponent("teamrace.top-kills-entry", placeholders);
+    }
+
     /**
      * Get the number of active teams
      */
@@ -563,13 +687,11 @@ public class TeamRaceManager {
             // Notify all team race players
             List<String> teamNames = getActiveTeamNames();
             for (String teamName : teamNames) {
-                Set<UUID> teamMembers = plugin.getDataManager().getPlayersInTeam(teamName);
-                for (UUID memberId : teamMembers) {
-                    Player player = Bukkit.getPlayer(memberId);
-                    if (player != null && player.isOnline()) {
-                        player.sendMessage(lang.getComponent("teamrace.compass-now-points-to-portal"));
-                        player.playSound(player.getLocation(), org.bukkit.Sound.BLOCK_END_PORTAL_SPAWN, 1.0f, 1.0f);
-                    }
+                int teamId = roster.intern(teamName);
+                for (int i = 0; i < roster.size(teamId); i++) {
+                    Player player = roster.get(teamId, i);
+                    player.sendMessage(lang.getComponent("teamrace.compass-now-points-to-portal"));
+                    player.playSound(player.getLocation(), org.bukkit.Sound.BLOCK_END_PORTAL_SPAWN, 1.0f, 1.0f);
                 }
             }
         }
@@ -579,64 +701,47 @@ public class TeamRaceManager {
      * Update compass display to show it's pointing to the egg holder in The End
      */
     private void updateCompassDisplayForEggHolder(Player player, String playerTeam, Player eggHolder) {
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (item != null && item.getType() == Material.COMPASS) {
-                ItemMeta meta = item.getItemMeta();
-                if (meta != null) {
-                    TeamColor playerColor = getTeamColor(playerTeam);
-                    String holderTeamName = plugin.getDataManager().getPlayerTeam(eggHolder.getUniqueId());
-                    TeamColor holderColor = holderTeamName != null ? getTeamColor(holderTeamName) : getTeamColor("Weiß");
-
-                    Component compassName = Component.text("☽ ", NamedTextColor.WHITE, TextDecoration.BOLD)
-                            .append(Component.text(eggHolder.getName(), holderColor.textColor, TextDecoration.BOLD))
-                            .append(Component.text(" (Egg)", NamedTextColor.YELLOW, TextDecoration.BOLD));
-                    meta.displayName(compassName);
-
-                    List<Component> lore = new ArrayList<>();
-                    lore.add(Component.text("Points to: ", NamedTextColor.GRAY)
-                            .append(Component.text(eggHolder.getName(), NamedTextColor.GOLD))
-                            .append(Component.text(" — Egg Holder", NamedTextColor.DARK_PURPLE)));
-                    lore.add(Component.text(""));
-                    lore.add(lang.getComponent("teamrace.compass-your-team")
-                            .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
-
-                    meta.lore(lore);
-                    item.setItemMeta(meta);
-                }
-            }
-        }
+        String holderTeamName = plugin.getDataManager().getPlayerTeam(eggHolder.getUniqueId());
+        LookKey key = new LookKey(LookKey.EGG, playerTeam, eggHolder.getName(), holderTeamName, false);
+        applyCompassLook(player, key, () -> {
+            TeamColor playerColor = getTeamColor(playerTeam);
+            TeamColor holderColor = holderTeamName != null ? getTeamColor(holderTeamName) : getTeamColor("Weiß");
+
+            Component compassName = Component.text("☽ ", NamedTextColor.WHITE, TextDecoration.BOLD)
+                    .append(Component.text(eggHolder.getName(), holderColor.textColor, TextDecoration.BOLD))
+                    .append(Component.text(" (Egg)", NamedTextColor.YELLOW, TextDecoration.BOLD));
+
+            List<Component> lore = new ArrayList<>();
+            lore.add(Component.text("Points to: ", NamedTextColor.GRAY)
+                    .append(Component.text(eggHolder.getName(), NamedTextColor.GOLD))
+                    .append(Component.text(" — Egg Holder", NamedTextColor.DARK_PURPLE)));
+            lore.add(Component.text(""));
+            lore.add(lang.getComponent("teamrace.compass-your-team")
+                    .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
+            return new CompassLook(compassName, lore);
+        });
     }
 
     /**
      * Update compass display to show it's pointing to the end portal
      */
     private void updateCompassDisplayForEndPortal(Player player, String playerTeam) {
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-            ItemStack item = player.getInventory().getItem(i);
-            if (item != null && item.getType() == Material.COMPASS) {
-                ItemMeta meta = item.getItemMeta();
-                if (meta != null) {
-                    TeamColor playerColor = getTeamColor(playerTeam);
-                    
-                    // Set compass name to show end portal
-                    Component compassName = Component.text("◆ ", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD)
-                            .append(Component.text("End Portal", NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD))
-                            .append(Component.text(" ◆", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD));
-                    meta.displayName(compassName);
-
-                    List<Component> lore = new ArrayList<>();
-                    lore.add(Component.text("Points to: ", NamedTextColor.GRAY)
-                            .append(Component.text("Activated End Portal", NamedTextColor.LIGHT_PURPLE)));
-                    lore.add(Component.text(""));
-                    lore.add(lang.getComponent("teamrace.compass-your-team")
-                            .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
-
-                    meta.lore(lore);
-                    item.setItemMeta(meta);
-                }
-            }
-        }
+        applyCompassLook(player, new LookKey(LookKey.PORTAL, playerTeam, null, null, false), () -> {
+            TeamColor playerColor = getTeamColor(playerTeam);
+
+            // Set compass name to show end portal
+            Component compassName = Component.text("◆ ", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD)
+                    .append(Component.text("End Portal", NamedTextColor.LIGHT_PURPLE, TextDecoration.BOLD))
+                    .append(Component.text(" ◆", NamedTextColor.DARK_PURPLE, TextDecoration.BOLD));
+
+            List<Component> lore = new ArrayList<>();
+            lore.add(Component.text("Points to: ", NamedTextColor.GRAY)
+                    .append(Component.text("Activated End Portal", NamedTextColor.LIGHT_PURPLE)));
+            lore.add(Component.text(""));
+            lore.add(lang.getComponent("teamrace.compass-your-team")
+                    .append(Component.text("Team " + playerTeam, playerColor.textColor, TextDecoration.BOLD)));
+            return new CompassLook(compassName, lore);
+        });
     }
     
     /**
@@ -0,0 +1,64 @@
+package de.connunity.util.challenge.timer;
+
+import java.util.Arrays;
+
+/**
+ * Pause/resume history of one run, stored as (run time at pause, pause duration) pairs
+ * in a single growable long array - no object per interval.
+ */
+class PauseIntervals {
+
+    private long[] intervals = new long[8]; // [atMillis, durationMillis, atMillis, durationMillis, ...]
+    private int size = 0;                   // Number of longs in use (2 per interval)
+    private boolean open = false;           // Last interval has not been resumed yet
+
+    /**
+     * Start a pause at the given run time
+     */
+    void open(long atMillis) {
+        if (open) {
+            return;
+        }
+        if (size + 2 > intervals.length) {
+            intervals = Arrays.copyOf(intervals, intervals.length * 2);
+        }
+        intervals[size] = atMillis;
+        intervals[size + 1] = 0L;
+        size += 2;
+        open = true;
+    }
+
+    /**
+     * End the current pause after it lasted the given time
+     */
+    void close(long durationMillis) {
+        if (!open) {
+            return;
+        }
+        intervals[size - 1] = Math.max(0L, durationMillis);
+        open = false;
+    }
+
+    void clear() {
+        size = 0;
+        open = false;
+    }
+
+    /**
+     * Number of pauses in this run (including one still in progress)
+     */
+    int count() {
+        return size / 2;
+    }
+
+    /**
+     * Sum of all finished pauses (ms)
+     */
+    long totalMillis() {
+        long total = 0L;
+        for (int i = 1; i < size; i += 2) {
+            total += intervals[i];
+        }
+        return total;
+    }
+}
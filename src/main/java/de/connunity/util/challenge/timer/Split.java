@@ -0,0 +1,24 @@
+package de.connunity.util.challenge.timer;
+
+/**
+ * Run milestones recorded by the timer. Only the first occurrence of each split counts.
+ */
+public enum Split {
+    NETHER_ENTRY("nether-entry"),
+    END_ENTRY("end-entry"),
+    DRAGON_KILL("dragon-kill"),
+    EGG_PICKUP("egg-pickup");
+
+    private final String key;
+
+    Split(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Key used in data.yml (timer.splits.<key>) and the language files (timer.split-<key>)
+     */
+    public String getKey() {
+        return key;
+    }
+}
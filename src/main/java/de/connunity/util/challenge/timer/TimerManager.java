@@ -1,35 +1,60 @@
 package de.connunity.util.challenge.timer;
 
 import de.connunity.util.challenge.ChallengeUtil;
-import de.connunity.util.challenge.ColorUtil;
 import de.connunity.util.challenge.data.DataManager;
+import de.connunity.util.challenge.hud.HudLayer;
+import de.connunity.util.challenge.hud.HudManager;
+import de.connunity.util.challenge.lang.LanguageManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 
-public class TimerManager {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Challenge timer. Time is advanced and the action bar rendered by the HUD frame
+ * (one pass per tick shared with the other HUD layers) instead of separate timer and blink tasks.
+ * Run time is measured with the monotonic System.nanoTime clock at millisecond precision, so NTP
+ * corrections and wall-clock jumps on the host do not shift it.
+ */
+public class TimerManager implements HudLayer {
+    
+    public static final int HUD_PRIORITY = 0; // Base layer - anything more urgent may replace the timer
     
     private final Plugin plugin;
     private final DataManager dataManager;
-    private BukkitTask timerTask;
-    private BukkitTask blinkTask;
-    private BukkitTask saveTask;
+    private BukkitTask checkpointTask;
     
-    private long totalSeconds = 0;
     private boolean running = false;
     private boolean paused = false;
     private boolean blinkState = false; // For blinking effect when paused
-    private int gradientOffset = 0; // For animated gradient effect
     
-    // Real-world time tracking (not game ticks)
-    private long lastUpdateTime = 0;
+    // Run time = baseMillis + time since segmentStartNanos while running and not paused
+    private long baseMillis = 0;
+    private long segmentStartNanos = 0;
+    private long pauseStartNanos = 0;
+    private final PauseIntervals pauses = new PauseIntervals();
+    
+    // Run time (ms) at which each split was first reached, indexed by ordinal; -1 = not reached
+    private final long[] splits = new long[Split.values().length];
     
-    public TimerManager(Plugin plugin, DataManager dataManager) {
+    // Builds and caches the action bar Components (no MiniMessage parsing per update)
+    private final TimerRenderer renderer = new TimerRenderer();
+    private Component currentBar = null; // Rendered once per frame and shared by all players
+    
+    public TimerManager(Plugin plugin, DataManager dataManager, HudManager hud) {
         this.plugin = plugin;
         this.dataManager = dataManager;
+        hud.register(this, HUD_PRIORITY);
+        Arrays.fill(splits, -1L);
         
         // Load saved state on initialization
         loadSavedState();
@@ -39,92 +64,149 @@ public class TimerManager {
      * Load timer state from disk (called on server start)
      */
     private void loadSavedState() {
-        totalSeconds = dataManager.getTimerSeconds();
+        baseMillis = dataManager.getTimerMillis();
+        long totalSeconds = baseMillis / 1000;
+        for (Split split : Split.values()) {
+            splits[split.ordinal()] = dataManager.getTimerSplit(split.getKey());
+        }
         boolean wasRunning = dataManager.wasTimerRunning();
         boolean wasPaused = dataManager.wasTimerPaused();
+        boolean cleanShutdown = dataManager.wasCleanShutdown();
+        dataManager.setCleanShutdown(false); // Until this session shuts down cleanly
         
         if (wasRunning) {
             if (wasPaused) {
-                running = true;
-                paused = true;
-                startBlinking();
-                updateActionBar();
+                // Paused time does not advance, so the checkpoint is exact even after a crash
+                restorePaused();
                 ((ChallengeUtil) plugin).logDebug("Restored paused timer: " + formatTime(totalSeconds));
-            } else {
-                // Timer was running when server stopped - resume it
+            } else if (cleanShutdown) {
+                // State was saved on shutdown - resume exactly where it stopped
                 start();
                 ((ChallengeUtil) plugin).logDebug("Restored running timer: " + formatTime(totalSeconds));
+            } else {
+                recoverFromCrash();
             }
         } else if (totalSeconds > 0) {
-            // Timer was stopped but had time - just display it
-            updateActionBar();
+            // Timer was stopped but had time - shown again once it is started
             ((ChallengeUtil) plugin).logDebug("Restored stopped timer: " + formatTime(totalSeconds));
         }
     }
     
     /**
-     * Start auto-save task to persist timer state every 10 seconds (real-world time)
+     * The server went down without a clean shutdown while the timer was running. The last checkpoint
+     * is up to one checkpoint interval old; timer.crash-recovery decides how to continue from it.
+     */
+    private void recoverFromCrash() {
+        String mode = plugin.getConfig().getString("timer.crash-recovery", "pause").toLowerCase();
+        long lastSaved = dataManager.getTimerLastSaved();
+        long downtimeMillis = lastSaved > 0 ? Math.max(0L, System.currentTimeMillis() - lastSaved) : 0L;
+        String restored = formatTime(baseMillis / 1000);
+        
+        switch (mode) {
+            case "resume":
+                start();
+                ((ChallengeUtil) plugin).logWarning("Server was not shut down cleanly - timer resumed from the last checkpoint ("
+                        + restored + ")");
+                break;
+            case "compensate":
+                long maxMillis = Math.max(0L, plugin.getConfig().getLong("timer.max-compensation-seconds", 300L)) * 1000L;
+                long compensated = Math.min(downtimeMillis, maxMillis);
+                baseMillis += compensated;
+                start();
+                ((ChallengeUtil) plugin).logWarning("Server was not shut down cleanly - timer resumed from the last checkpoint ("
+                        + restored + ") plus " + formatPrecise(compensated) + " of downtime");
+                break;
+            default:
+                // Keep the checkpoint and let the host confirm with /start
+                restorePaused();
+                checkpoint();
+                ((ChallengeUtil) plugin).logWarning("Server was not shut down cleanly - timer restored from the last checkpoint ("
+                        + restored + ") and paused. Use /start to resume it.");
+                break;
+        }
+    }
+    
+    private void restorePaused() {
+        running = true;
+        paused = true;
+        pauseStartNanos = System.nanoTime();
+        pauses.open(baseMillis);
+    }
+    
+    /**
+     * Write the current timer state. Runs on the main thread so the data config is never mutated
+     * concurrently - this only updates memory, file I/O happens on the data writer thread.
      */
-    private void startAutoSave() {
-        if (saveTask != null) {
+    private void checkpoint() {
+        dataManager.saveTimerState(getElapsedMillis(), running, paused);
+    }
+    
+    /**
+     * Checkpoint the running timer periodically. Only a running timer changes over time - pausing,
+     * resuming and stopping write their state immediately, so nothing is written while paused or stopped.
+     */
+    private void startCheckpoints() {
+        if (checkpointTask != null) {
             return; // Already running
         }
         
-        // Use async task for file I/O to not block main thread
-        saveTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            dataManager.saveTimerState(totalSeconds, running, paused);
-        }, 200L, 200L); // Check every 10 seconds (200 ticks) - but uses real time
+        long interval = Math.max(20L, plugin.getConfig().getLong("timer.checkpoint-interval-ticks", 100L));
+        checkpointTask = Bukkit.getScheduler().runTaskTimer(plugin, this::checkpoint, interval, interval);
     }
     
     /**
-     * Stop auto-save task
+     * Stop periodic checkpoints
      */
-    private void stopAutoSave() {
-        if (saveTask != null) {
-            saveTask.cancel();
-            saveTask = null;
+    private void stopCheckpoints() {
+        if (checkpointTask != null) {
+            checkpointTask.cancel();
+            checkpointTask = null;
         }
     }
     
     /**
-     * Start the timer from current time (uses real-world milliseconds, not game ticks)
+     * Start the timer from current time (uses the monotonic clock, not game ticks)
      */
     public void start() {
         if (running && !paused) {
             return; // Already running
         }
         
+        if (paused) {
+            pauses.close((System.nanoTime() - pauseStartNanos) / 1_000_000L);
+        }
         running = true;
         paused = false;
-        stopBlinking();
-        startAutoSave(); // Start auto-saving
+        blinkState = false;
         
-        // Track real-world time instead of relying on ticks
-        lastUpdateTime = System.currentTimeMillis();
+        // Track real time instead of relying on ticks
+        segmentStartNanos = System.nanoTime();
+        checkpoint();
+        startCheckpoints();
+    }
+    
+    /**
+     * Advance the timer and render the action bar (HUD frame, once per tick)
+     */
+    @Override
+    public void tick(long frame) {
+        if (!running) {
+            currentBar = null;
+            return;
+        }
         
-        // Update immediately on start
-        updateActionBar();
+        if (paused) {
+            // Blink every 0.5 seconds (10 ticks)
+            blinkState = (frame / 10) % 2 == 0;
+        }
         
-        timerTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (!paused) {
-                long currentTime = System.currentTimeMillis();
-                long elapsedMillis = currentTime - lastUpdateTime;
-                
-                // Check if at least 1 second has passed
-                if (elapsedMillis >= 1000) {
-                    // Add elapsed seconds (allows for lag compensation if multiple seconds passed)
-                    long elapsedSeconds = elapsedMillis / 1000;
-                    totalSeconds += elapsedSeconds;
-                    // Keep remainder for accuracy - this ensures we stay synced to real time
-                    lastUpdateTime = currentTime - (elapsedMillis % 1000);
-                    // Cycle gradient offset for animation every 10 seconds
-                    if (totalSeconds % 10 == 0) {
-                        gradientOffset = (gradientOffset + 1) % 10;
-                    }
-                    updateActionBar();
-                }
-            }
-        }, 2L, 2L); // Check every 0.1 seconds (2 ticks) for smooth, responsive updates
+        // Cached by the renderer, so this is the same instance until the second or blink phase changes
+        currentBar = renderer.render(getElapsedMillis() / 1000, paused, blinkState);
+    }
+    
+    @Override
+    public Component actionBar(Player player) {
+        return currentBar;
     }
     
     /**
@@ -134,8 +216,12 @@ public class TimerManager {
         if (!running || paused) {
             return;
         }
+        baseMillis = getElapsedMillis(); // Freeze the run time
         paused = true;
-        startBlinking();
+        pauseStartNanos = System.nanoTime();
+        pauses.open(baseMillis);
+        stopCheckpoints();
+        checkpoint();
     }
     
     /**
@@ -147,26 +233,41 @@ public class TimerManager {
         }
         paused = false;
         
-        // CRITICAL: Reset lastUpdateTime to prevent skipping paused time
-        lastUpdateTime = System.currentTimeMillis();
-        
-        stopBlinking();
-        updateActionBar();
+        // CRITICAL: Start a new segment so paused time is not counted
+        segmentStartNanos = System.nanoTime();
+        pauses.close((segmentStartNanos - pauseStartNanos) / 1_000_000L);
+        blinkState = false;
+        checkpoint();
+        startCheckpoints();
     }
     
     /**
      * Stop the timer completely
      */
     public void stop() {
-        if (timerTask != null) {
-            timerTask.cancel();
-            timerTask = null;
+        stopCheckpoints();
+        baseMillis = getElapsedMillis(); // Freeze the run time
+        if (paused) {
+            pauses.close((System.nanoTime() - pauseStartNanos) / 1_000_000L);
         }
-        stopBlinking();
-        stopAutoSave(); // Stop auto-saving
-        dataManager.saveTimerState(totalSeconds, false, false); // Final save
+        dataManager.saveTimerState(baseMillis, false, false); // Final save
+        ((ChallengeUtil) plugin).logDebug("Timer render cache: " + renderer.getHits() + " hits, "
+                + renderer.getMisses() + " misses (" + Math.round(getRenderCacheHitRate() * 100) + "% hit rate)");
         running = false;
         paused = false;
+        blinkState = false;
+    }
+    
+    /**
+     * Save the exact timer state on server shutdown and mark it as clean, so a running or paused
+     * timer continues exactly where it was on the next start
+     */
+    public void shutdown() {
+        stopCheckpoints();
+        checkpoint();
+        dataManager.setCleanShutdown(true);
+        ((ChallengeUtil) plugin).logDebug("Timer render cache: " + renderer.getHits() + " hits, "
+                + renderer.getMisses() + " misses (" + Math.round(getRenderCacheHitRate() * 100) + "% hit rate)");
     }
     
     /**
@@ -174,8 +275,10 @@ public class TimerManager {
      */
     public void reset() {
         stop();
-        totalSeconds = 0;
-        dataManager.clearTimerData(); // Clear saved data
+        clearRun();
+        dataManager.clearTimerData(); // Clear saved data (including splits)
+        renderer.clear();
+        currentBar = null;
         clearActionBar();
     }
     
@@ -184,71 +287,97 @@ public class TimerManager {
      */
     public void restart() {
         stop();
-        totalSeconds = 0;
+        clearRun();
+        dataManager.clearTimerSplits();
         start();
     }
     
     /**
-     * Start blinking effect when paused (real-world timing)
+     * Forget the run time, pauses and splits of the current run
      */
-    private void startBlinking() {
-        if (blinkTask != null) {
-            return; // Already blinking
-        }
-        
-        blinkTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            blinkState = !blinkState;
-            updateActionBar();
-        }, 0L, 10L); // Blink every 0.5 seconds - uses real time
+    private void clearRun() {
+        baseMillis = 0;
+        pauses.clear();
+        Arrays.fill(splits, -1L);
     }
     
     /**
-     * Stop blinking effect
+     * Stop the timer because the run is over and show the results screen to all players.
+     * The results are sent a few seconds later so they follow the winner announcement.
      */
-    private void stopBlinking() {
-        if (blinkTask != null) {
-            blinkTask.cancel();
-            blinkTask = null;
+    public void finish() {
+        boolean wasRunning = running;
+        stop();
+        if (!wasRunning) {
+            return;
         }
-        blinkState = false;
+        
+        List<Component> results = buildResults();
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                for (Component line : results) {
+                    player.sendMessage(line);
+                }
+            }
+        }, 60L); // 3 seconds
     }
     
     /**
-     * Update the action bar for all online players
+     * Results screen: final time, every split reached and the pauses of this run
      */
-    private void updateActionBar() {
-        String timeString = formatTime(totalSeconds);
+    private List<Component> buildResults() {
+        LanguageManager lang = ((ChallengeUtil) plugin).getLanguageManager();
+        List<Component> lines = new ArrayList<>();
+        Map<String, String> placeholders = new HashMap<>();
         
-        Component message;
-        
-        if (paused) {
-            // Blinking red when paused
-            if (blinkState) {
-                message = ColorUtil.parse("<bold><red>⏸ " + timeString + "</red></bold>");
-            } else {
-                // Darker red during blink off state
-                message = ColorUtil.parse("<bold><dark_red>⏸ " + timeString + "</dark_red></bold>");
+        lines.add(Component.text(""));
+        lines.add(Component.text("═══════════════════════════════════", NamedTextColor.GOLD, TextDecoration.STRIKETHROUGH));
+        lines.add(lang.getComponent("timer.results-header"));
+        lines.add(Component.text(""));
+        placeholders.put("time", formatPrecise(baseMillis));
+        lines.add(lang.getComponent("timer.results-time", placeholders));
+        for (Split split : Split.values()) {
+            long at = splits[split.ordinal()];
+            if (at < 0) {
+                continue;
             }
-        } else {
-            // Animated gradient between light_purple and purple
-            message = ColorUtil.parse(createGradientTimer(timeString));
+            placeholders.put("split", lang.getMessage("timer.split-" + split.getKey()));
+            placeholders.put("time", formatPrecise(at));
+            lines.add(lang.getComponent("timer.results-split", placeholders));
         }
-        
-        Bukkit.getOnlinePlayers().forEach(player -> player.sendActionBar(message));
+        if (pauses.count() > 0) {
+            placeholders.put("count", String.valueOf(pauses.count()));
+            placeholders.put("time", formatPrecise(pauses.totalMillis()));
+            lines.add(lang.getComponent("timer.results-pauses", placeholders));
+        }
+        lines.add(Component.text("═══════════════════════════════════", NamedTextColor.GOLD, TextDecoration.STRIKETHROUGH));
+        lines.add(Component.text(""));
+        return lines;
     }
     
     /**
-     * Create an animated gradient timer using MiniMessage
-     * Smoothly transitions between light_purple and dark_purple (Minecraft colors)
+     * Record the current run time for a split. Only the first time each split is reached counts,
+     * and nothing is recorded while the timer is stopped or paused.
+     * O(1): an array slot and one journaled value.
+     *
+     * @return true if the split was recorded
      */
-    private String createGradientTimer(String timeString) {
-        // Use MiniMessage's gradient tag for smooth color interpolation
-        // Reverse gradient direction based on offset for pulsing animation effect
-        if (gradientOffset % 2 == 0) {
-            return "<bold><gradient:light_purple:dark_purple>" + timeString + "</gradient></bold>";
-        } else {
-            return "<bold><gradient:light_purple:dark_purple>" + timeString + "</gradient></bold>";        
+    public boolean recordSplit(Split split) {
+        if (!running || paused || splits[split.ordinal()] >= 0) {
+            return false;
         }
+        long at = getElapsedMillis();
+        splits[split.ordinal()] = at;
+        dataManager.saveTimerSplit(split.getKey(), at);
+        ((ChallengeUtil) plugin).logDebug("Split " + split.getKey() + " reached at " + formatPrecise(at));
+        return true;
+    }
+    
+    /**
+     * Run time (ms) at which a split was reached, or -1 if it was not reached in this run
+     */
+    public long getSplitMillis(Split split) {
+        return splits[split.ordinal()];
     }
     
     /**
@@ -263,7 +392,7 @@ public class TimerManager {
      * Format seconds into xd xh xm xs format
      * Only shows days when >= 1 day, hours when >= 1 hour, minutes when >= 1 minute
      */
-    private String formatTime(long seconds) {
+    static String formatTime(long seconds) {
         long days = seconds / 86400;
         long hours = (seconds % 86400) / 3600;
         long minutes = (seconds % 3600) / 60;
@@ -285,6 +414,15 @@ public class TimerManager {
         return result.toString();
     }
     
+    /**
+     * Format milliseconds like {@link #formatTime(long)} with the seconds to millisecond precision
+     * (e.g. 1h 2m 3.456s)
+     */
+    public static String formatPrecise(long millis) {
+        String seconds = formatTime(millis / 1000);
+        return seconds.substring(0, seconds.length() - 1) + String.format(".%03ds", millis % 1000);
+    }
+    
     // Getters
     public boolean isRunning() {
         return running;
@@ -295,6 +433,37 @@ public class TimerManager {
     }
     
     public long getTotalSeconds() {
-        return totalSeconds;
+        return getElapsedMillis() / 1000;
+    }
+    
+    /**
+     * Run time in milliseconds (monotonic clock, pauses excluded)
+     */
+    public long getElapsedMillis() {
+        if (running && !paused) {
+            return baseMillis + (System.nanoTime() - segmentStartNanos) / 1_000_000L;
+        }
+        return baseMillis;
+    }
+    
+    /**
+     * Number of pauses in the current run
+     */
+    public int getPauseCount() {
+        return pauses.count();
+    }
+    
+    /**
+     * Total time (ms) the current run spent paused
+     */
+    public long getPausedMillis() {
+        return pauses.totalMillis();
+    }
+    
+    /**
+     * Share of action bar renders answered from the Component cache (0.0 - 1.0)
+     */
+    public double getRenderCacheHitRate() {
+        return renderer.getHitRate();
     }
 }
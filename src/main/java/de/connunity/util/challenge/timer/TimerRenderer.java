@@ -0,0 +1,98 @@
+package de.connunity.util.challenge.timer;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * Renders the timer action bar.
+ * OPTIMIZED: the running gradient is built directly from colored text children instead of parsing
+ * a MiniMessage string, and the last few rendered Components are kept keyed by (time, state, blink
+ * phase) - the paused blink alternates between two cached Components, and repeated updates within
+ * the same second are free. Lookups are a scan over a few primitive keys, so a hit allocates nothing.
+ */
+class TimerRenderer {
+
+    private static final int CACHE_SIZE = 4;
+    private static final TextColor GRADIENT_START = NamedTextColor.LIGHT_PURPLE;
+    private static final TextColor GRADIENT_END = NamedTextColor.DARK_PURPLE;
+
+    // Small ring of recently rendered Components (main thread only)
+    private final long[] keys = new long[CACHE_SIZE];
+    private final Component[] components = new Component[CACHE_SIZE];
+    private int nextSlot = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Get the action bar Component for a timer state
+     */
+    Component render(long totalSeconds, boolean paused, boolean blinkState) {
+        long key = (totalSeconds << 2) | (paused ? 2L : 0L) | (paused && blinkState ? 1L : 0L);
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (components[i] != null && keys[i] == key) {
+                hits++;
+                return components[i];
+            }
+        }
+
+        misses++;
+        String timeString = TimerManager.formatTime(totalSeconds);
+        Component component;
+        if (paused) {
+            // Blinking red when paused, darker red during the blink off state
+            component = Component.text("⏸ " + timeString, blinkState ? NamedTextColor.RED : NamedTextColor.DARK_RED)
+                    .decoration(TextDecoration.BOLD, true);
+        } else {
+            component = gradient(timeString);
+        }
+
+        keys[nextSlot] = key;
+        components[nextSlot] = component;
+        nextSlot = (nextSlot + 1) % CACHE_SIZE;
+        return component;
+    }
+
+    /**
+     * Bold light_purple -> dark_purple gradient, one child per character (same output as
+     * MiniMessage's {@code <gradient:light_purple:dark_purple>})
+     */
+    private static Component gradient(String text) {
+        TextComponent.Builder builder = Component.text().decoration(TextDecoration.BOLD, true);
+        int last = text.length() - 1;
+        for (int i = 0; i <= last; i++) {
+            float progress = last == 0 ? 0f : (float) i / last;
+            builder.append(Component.text(String.valueOf(text.charAt(i)),
+                    TextColor.lerp(progress, GRADIENT_START, GRADIENT_END)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Drop all cached Components (e.g. after a reset)
+     */
+    void clear() {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            components[i] = null;
+        }
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Share of renders answered from the cache (0.0 - 1.0)
+     */
+    double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
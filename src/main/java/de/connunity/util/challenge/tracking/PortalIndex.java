@@ -0,0 +1,443 @@
+package de.connunity.util.challenge.tracking;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.PortalCreateEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-world registry of portal blocks (nether portals, end portals and end portal frames),
+ * bucketed by chunk, for the hunt compasses' "point to the nearest portal" fallback.
+ * OPTIMIZED: replaces a 257x257x257 getBlockAt sweep per lookup. A query walks the chunk grid in
+ * rings around the player and stops as soon as no closer ring can beat the best hit, so it only
+ * touches a few hundred map cells.
+ *
+ * The index is fed by portal/block events and filled lazily: a chunk is scanned the first time a
+ * query reaches it (or when it loads within query range of a player in a world that has been
+ * queried). Scans take a ChunkSnapshot on the main thread in small batches, search it
+ * asynchronously - skipping empty sections - and merge the hits back on the main thread. The scan
+ * queue is capped and unloaded chunks are forgotten, so the index only covers chunks around players.
+ * Portals destroyed without a break event (e.g. a frame broken by an explosion) are dropped when a
+ * query finds them missing.
+ */
+public class PortalIndex implements Listener {
+
+    private static final int SNAPSHOTS_PER_TICK = 4;
+    private static final int MAX_STALE_RETRIES = 8;
+    private static final int MAX_QUEUED_SCANS = 256;
+
+    private final ChallengeUtil plugin;
+
+    // Main thread only
+    private final Map<UUID, WorldPortals> worlds = new HashMap<>();
+    private final ArrayDeque<PendingChunk> scanQueue = new ArrayDeque<>();
+    private boolean drainScheduled = false;
+    private int queryRadiusChunks = 0; // Largest radius asked for so far
+
+    public PortalIndex(ChallengeUtil plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Block types that count as a portal for the compass fallback
+     */
+    static boolean isPortal(Material type) {
+        return type == Material.NETHER_PORTAL || type == Material.END_PORTAL || type == Material.END_PORTAL_FRAME;
+    }
+
+    /**
+     * Find the nearest indexed portal block within a horizontal radius (in blocks).
+     * Returns the center of the block, or null if none is known yet.
+     */
+    public Location findNearest(Location from, int radius) {
+        World world = from.getWorld();
+        if (world == null) {
+            return null;
+        }
+        WorldPortals portals = worlds.computeIfAbsent(world.getUID(), id -> new WorldPortals());
+        queryRadiusChunks = Math.max(queryRadiusChunks, radius >> 4);
+        for (int attempt = 0; attempt < MAX_STALE_RETRIES; attempt++) {
+            long hit = portals.nearest(world, from.getBlockX(), from.getBlockY(), from.getBlockZ(), radius >> 4);
+            if (hit == Long.MIN_VALUE) {
+                return null;
+            }
+            int x = unpackX(hit);
+            int y = unpackY(hit);
+            int z = unpackZ(hit);
+            if (!world.isChunkLoaded(x >> 4, z >> 4) || isPortal(world.getBlockAt(x, y, z).getType())) {
+                return new Location(world, x + 0.5, y, z + 0.5);
+            }
+            portals.remove(x, y, z); // Gone without a break event - forget it and look again
+        }
+        return null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPortalCreate(PortalCreateEvent event) {
+        WorldPortals portals = worlds.get(event.getWorld().getUID());
+        if (portals == null) {
+            return; // Not queried yet - the chunks are scanned on first use
+        }
+        for (BlockState state : event.getBlocks()) {
+            if (isPortal(state.getType())) {
+                portals.add(state.getX(), state.getY(), state.getZ());
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Block block = event.getBlockPlaced();
+        if (!isPortal(block.getType())) {
+            return;
+        }
+        WorldPortals portals = worlds.get(block.getWorld().getUID());
+        if (portals != null) {
+            portals.add(block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        if (!isPortal(block.getType())) {
+            return;
+        }
+        WorldPortals portals = worlds.get(block.getWorld().getUID());
+        if (portals != null) {
+            portals.remove(block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        WorldPortals portals = worlds.get(chunk.getWorld().getUID());
+        if (portals != null && isNearPlayer(chunk.getWorld(), chunk.getX(), chunk.getZ())) {
+            queueScan(chunk.getWorld(), portals, chunk.getX(), chunk.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        WorldPortals portals = worlds.get(chunk.getWorld().getUID());
+        if (portals != null) {
+            portals.forget(chunkKey(chunk.getX(), chunk.getZ())); // Scanned again if a query reaches it after reloading
+        }
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID()); // Full resets delete and regenerate the world
+    }
+
+    /**
+     * Forget everything (e.g. on plugin disable)
+     */
+    public void clear() {
+        worlds.clear();
+        scanQueue.clear();
+    }
+
+    /**
+     * Whether a chunk is within query range of a player in its world (chunks elsewhere are only scanned on demand)
+     */
+    private boolean isNearPlayer(World world, int chunkX, int chunkZ) {
+        for (Player player : world.getPlayers()) {
+            Location location = player.getLocation();
+            if (Math.abs((location.getBlockX() >> 4) - chunkX) <= queryRadiusChunks
+                    && Math.abs((location.getBlockZ() >> 4) - chunkZ) <= queryRadiusChunks) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void queueScan(World world, WorldPortals portals, int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        if (portals.scanned.contains(key) || scanQueue.size() >= MAX_QUEUED_SCANS || !portals.pending.add(key)) {
+            return; // A full queue drops the request - the next query that reaches the chunk asks again
+        }
+        scanQueue.add(new PendingChunk(world.getUID(), chunkX, chunkZ));
+        if (!drainScheduled) {
+            drainScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::drainScanQueue);
+        }
+    }
+
+    /**
+     * Take a few snapshots per tick and scan them off the main thread
+     */
+    private void drainScanQueue() {
+        drainScheduled = false;
+        List<PendingChunk> batch = new ArrayList<>(SNAPSHOTS_PER_TICK);
+        List<ChunkSnapshot> snapshots = new ArrayList<>(SNAPSHOTS_PER_TICK);
+        int minY = 0;
+        int maxY = 0;
+        while (!scanQueue.isEmpty() && snapshots.size() < SNAPSHOTS_PER_TICK) {
+            PendingChunk pending = scanQueue.poll();
+            World world = Bukkit.getWorld(pending.worldId);
+            WorldPortals portals = worlds.get(pending.worldId);
+            if (world == null || portals == null) {
+                continue;
+            }
+            if (!world.isChunkLoaded(pending.chunkX, pending.chunkZ)) {
+                portals.pending.remove(chunkKey(pending.chunkX, pending.chunkZ)); // Rescanned when it loads again
+                continue;
+            }
+            if (!snapshots.isEmpty() && (world.getMinHeight() != minY || world.getMaxHeight() != maxY)) {
+                scanQueue.addFirst(pending); // Keep one height range per batch
+                break;
+            }
+            minY = world.getMinHeight();
+            maxY = world.getMaxHeight();
+            batch.add(pending);
+            snapshots.add(world.getChunkAt(pending.chunkX, pending.chunkZ).getChunkSnapshot(false, false, false));
+        }
+        if (!scanQueue.isEmpty()) {
+            drainScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::drainScanQueue);
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        int scanMinY = minY;
+        int scanMaxY = maxY;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<int[]> results = new ArrayList<>(snapshots.size());
+            for (ChunkSnapshot snapshot : snapshots) {
+                results.add(scanSnapshot(snapshot, scanMinY, scanMaxY));
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingChunk pending = batch.get(i);
+                    WorldPortals portals = worlds.get(pending.worldId);
+                    World world = Bukkit.getWorld(pending.worldId);
+                    if (portals != null && world != null && world.isChunkLoaded(pending.chunkX, pending.chunkZ)) {
+                        portals.merge(pending.chunkX, pending.chunkZ, results.get(i));
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Find all portal blocks in a snapshot (runs async). Returns packed local positions.
+     */
+    static int[] scanSnapshot(ChunkSnapshot snapshot, int minY, int maxY) {
+        int[] found = new int[8];
+        int count = 0;
+        for (int sectionY = minY; sectionY < maxY; sectionY += 16) {
+            if (snapshot.isSectionEmpty((sectionY - minY) >> 4)) {
+                continue;
+            }
+            for (int y = sectionY; y < sectionY + 16; y++) {
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        if (isPortal(snapshot.getBlockType(x, y, z))) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = packLocal(x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    // Position within a chunk: 16 bits y (offset so negative heights stay positive) | 4 bits x | 4 bits z
+    static int packLocal(int x, int y, int z) {
+        return ((y + 32768) << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    // Absolute position: 26 bits x | 12 bits y | 26 bits z (same layout as Minecraft's BlockPos)
+    static long packBlock(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * Portal blocks of one world, bucketed by chunk
+     */
+    private final class WorldPortals {
+
+        private final Map<Long, PortalCell> cells = new HashMap<>();
+        private final Set<Long> scanned = new HashSet<>();
+        private final Set<Long> pending = new HashSet<>();
+
+        /**
+         * Ring search over the chunk grid. Returns the packed block position, or Long.MIN_VALUE
+         */
+        long nearest(World world, int x, int y, int z, int radiusChunks) {
+            int centerX = x >> 4;
+            int centerZ = z >> 4;
+            long best = Long.MIN_VALUE;
+            long bestDistanceSq = Long.MAX_VALUE;
+            for (int ring = 0; ring <= radiusChunks; ring++) {
+                if (ring > 1) {
+                    // Every block in this ring is at least (ring - 1) chunks away horizontally
+                    long minDistance = (ring - 1) * 16L;
+                    if (minDistance * minDistance > bestDistanceSq) {
+                        break;
+                    }
+                }
+                for (int dx = -ring; dx <= ring; dx++) {
+                    boolean edge = dx == -ring || dx == ring;
+                    for (int dz = -ring; dz <= ring; dz += edge ? 1 : 2 * ring) {
+                        int chunkX = centerX + dx;
+                        int chunkZ = centerZ + dz;
+                        long key = chunkKey(chunkX, chunkZ);
+                        if (!scanned.contains(key)) {
+                            if (world.isChunkLoaded(chunkX, chunkZ)) {
+                                queueScan(world, this, chunkX, chunkZ);
+                            }
+                        }
+                        PortalCell cell = cells.get(key);
+                        if (cell == null) {
+                            continue;
+                        }
+                        int baseX = chunkX << 4;
+                        int baseZ = chunkZ << 4;
+                        for (int i = 0; i < cell.size; i++) {
+                            int local = cell.positions[i];
+                            long px = baseX + ((local >> 4) & 15);
+                            long py = (local >>> 8) - 32768;
+                            long pz = baseZ + (local & 15);
+                            long distanceSq = (px - x) * (px - x) + (py - y) * (py - y) + (pz - z) * (pz - z);
+                            if (distanceSq < bestDistanceSq) {
+                                bestDistanceSq = distanceSq;
+                                best = packBlock((int) px, (int) py, (int) pz);
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        void add(int x, int y, int z) {
+            cells.computeIfAbsent(chunkKey(x >> 4, z >> 4), key -> new PortalCell()).add(packLocal(x, y, z));
+        }
+
+        void remove(int x, int y, int z) {
+            long key = chunkKey(x >> 4, z >> 4);
+            PortalCell cell = cells.get(key);
+            if (cell != null && cell.remove(packLocal(x, y, z)) && cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+
+        /**
+         * Drop everything known about an unloaded chunk
+         */
+        void forget(long key) {
+            cells.remove(key);
+            scanned.remove(key);
+            pending.remove(key);
+        }
+
+        /**
+         * Add a finished scan (union with anything the events added meanwhile)
+         */
+        void merge(int chunkX, int chunkZ, int[] found) {
+            long key = chunkKey(chunkX, chunkZ);
+            pending.remove(key);
+            scanned.add(key);
+            if (found.length == 0) {
+                return;
+            }
+            PortalCell cell = cells.computeIfAbsent(key, k -> new PortalCell());
+            for (int local : found) {
+                cell.add(local);
+            }
+        }
+    }
+
+    /**
+     * Portal blocks of one chunk (a handful, or a few hundred for a large nether portal)
+     */
+    private static final class PortalCell {
+
+        private int[] positions = new int[4];
+        private int size = 0;
+
+        void add(int local) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == local) {
+                    return;
+                }
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = local;
+        }
+
+        boolean remove(int local) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == local) {
+                    positions[i] = positions[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class PendingChunk {
+
+        private final UUID worldId;
+        private final int chunkX;
+        private final int chunkZ;
+
+        PendingChunk(UUID worldId, int chunkX, int chunkZ) {
+            this.worldId = worldId;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
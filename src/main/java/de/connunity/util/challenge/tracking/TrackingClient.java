@@ -0,0 +1,18 @@
+package de.connunity.util.challenge.tracking;
+
+/**
+ * A game mode whose compasses follow players. The tracking engine calls every active client
+ * once per update with the same frame, so team positions are read and indexed only once.
+ */
+public interface TrackingClient {
+
+    /**
+     * Whether this mode wants compass updates right now
+     */
+    boolean isTracking();
+
+    /**
+     * Point this mode's compasses using the shared frame
+     */
+    void onTrackingUpdate(TrackingFrame frame);
+}
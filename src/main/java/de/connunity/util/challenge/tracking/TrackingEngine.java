@@ -0,0 +1,80 @@
+package de.connunity.util.challenge.tracking;
+
+import de.connunity.util.challenge.ChallengeUtil;
+import de.connunity.util.challenge.data.TeamRoster;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared compass tracking for Manhunt, Connunity Hunt and Team Race.
+ * OPTIMIZED: instead of each mode running its own task that compares every tracker against every
+ * target (O(trackers x targets) distance checks, plus a Location copy per check), one task builds a
+ * {@link TrackingFrame} per update. Target positions are read once per player and bucketed into a
+ * per-world grid, and every active mode answers its nearest-target queries from that frame.
+ */
+public class TrackingEngine {
+
+    private static final long UPDATE_INTERVAL = 20L; // 1 second
+
+    private final ChallengeUtil plugin;
+    private final TeamRoster roster;
+    private final List<TrackingClient> clients = new ArrayList<>();
+    private BukkitRunnable updateTask;
+
+    public TrackingEngine(ChallengeUtil plugin) {
+        this.plugin = plugin;
+        this.roster = plugin.getDataManager().getTeamRoster();
+    }
+
+    /**
+     * Add a game mode to the update (in registration order)
+     */
+    public void register(TrackingClient client) {
+        clients.add(client);
+    }
+
+    /**
+     * Start the update task
+     */
+    public void start() {
+        if (updateTask != null) {
+            return;
+        }
+        updateTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                update();
+            }
+        };
+        updateTask.runTaskTimer(plugin, 0L, UPDATE_INTERVAL);
+    }
+
+    /**
+     * Stop the update task (plugin disable)
+     */
+    public void stop() {
+        if (updateTask != null) {
+            updateTask.cancel();
+            updateTask = null;
+        }
+    }
+
+    /**
+     * Run one update for every active mode, sharing a single frame
+     */
+    private void update() {
+        TrackingFrame frame = null;
+        for (int i = 0; i < clients.size(); i++) {
+            TrackingClient client = clients.get(i);
+            if (!client.isTracking()) {
+                continue;
+            }
+            if (frame == null) {
+                frame = new TrackingFrame(roster); // Only built when some mode is tracking
+            }
+            client.onTrackingUpdate(frame);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package de.connunity.util.challenge.tracking;
+
+import de.connunity.util.challenge.data.TeamRoster;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Target positions of one tracking update, shared by every game mode that tracks players.
+ * Teams are indexed on first use: each member's position is read once and bucketed per world
+ * into a uniform grid, so a nearest-target query only visits the cells around the tracker instead
+ * of every target. Worlds with only a few targets skip the grid and are scanned directly.
+ *
+ * Targets are addressed by small int handles (NONE if nothing was found). Main thread only,
+ * valid for the update it was handed out in.
+ */
+public final class TrackingFrame {
+
+    public static final int NONE = -1;
+
+    private static final int CELL_SHIFT = 6; // 64-block cells
+    private static final int GRID_THRESHOLD = 16; // Fewer targets in a world are scanned directly
+
+    private final TeamRoster roster;
+    private final BitSet indexedTeams = new BitSet();
+    private final List<WorldTargets> worlds = new ArrayList<>(4);
+
+    private Player[] players = new Player[32];
+    private World[] targetWorlds = new World[32];
+    private int[] teamIds = new int[32];
+    private double[] xs = new double[32];
+    private double[] ys = new double[32];
+    private double[] zs = new double[32];
+    private int count = 0;
+
+    TrackingFrame(TeamRoster roster) {
+        this.roster = roster;
+    }
+
+    /**
+     * Add the online members of a team as targets (no-op if already indexed this update)
+     */
+    public void index(int teamId) {
+        if (teamId == TeamRoster.NO_TEAM || indexedTeams.get(teamId)) {
+            return;
+        }
+        indexedTeams.set(teamId);
+        for (int i = 0; i < roster.size(teamId); i++) {
+            Player player = roster.get(teamId, i);
+            Location location = player.getLocation();
+            int target = add(player, location, teamId);
+            worldTargets(location.getWorld()).add(target, xs[target], zs[target]);
+        }
+    }
+
+    /**
+     * Nearest online member of a team in the same world as the given location
+     */
+    public int nearest(Location from, int teamId) {
+        index(teamId);
+        return search(from, teamId, null);
+    }
+
+    /**
+     * Nearest online member of any of the given teams except one (e.g. the nearest enemy of a team)
+     */
+    public int nearestExcept(Location from, int excludedTeamId, int[] teamIds) {
+        for (int teamId : teamIds) {
+            index(teamId);
+        }
+        return search(from, excludedTeamId, teamIds);
+    }
+
+    public Player getPlayer(int target) {
+        return players[target];
+    }
+
+    public int getTeamId(int target) {
+        return teamIds[target];
+    }
+
+    /**
+     * Position of a target as read at the start of this update (a fresh Location)
+     */
+    public Location getLocation(int target) {
+        return new Location(targetWorlds[target], xs[target], ys[target], zs[target]);
+    }
+
+    private int add(Player player, Location location, int teamId) {
+        if (count == players.length) {
+            int capacity = count * 2;
+            players = Arrays.copyOf(players, capacity);
+            targetWorlds = Arrays.copyOf(targetWorlds, capacity);
+            teamIds = Arrays.copyOf(teamIds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            zs = Arrays.copyOf(zs, capacity);
+        }
+        players[count] = player;
+        targetWorlds[count] = location.getWorld();
+        teamIds[count] = teamId;
+        xs[count] = location.getX();
+        ys[count] = location.getY();
+        zs[count] = location.getZ();
+        return count++;
+    }
+
+    private WorldTargets worldTargets(World world) {
+        for (int i = 0; i < worlds.size(); i++) {
+            if (worlds.get(i).world == world) {
+                return worlds.get(i);
+            }
+        }
+        WorldTargets targets = new WorldTargets(world);
+        worlds.add(targets);
+        return targets;
+    }
+
+    /**
+     * Nearest target in the same world. With teamFilter null only targets of teamId match,
+     * otherwise targets of any listed team except teamId.
+     */
+    private int search(Location from, int teamId, int[] teamFilter) {
+        WorldTargets targets = null;
+        for (int i = 0; i < worlds.size(); i++) {
+            if (worlds.get(i).world == from.getWorld()) {
+                targets = worlds.get(i);
+                break;
+            }
+        }
+        if (targets == null || targets.size == 0) {
+            return NONE;
+        }
+
+        double x = from.getX();
+        double y = from.getY();
+        double z = from.getZ();
+        Best best = new Best();
+        if (targets.size <= GRID_THRESHOLD) {
+            for (int i = 0; i < targets.size; i++) {
+                consider(targets.members[i], x, y, z, teamId, teamFilter, best);
+            }
+            return best.target;
+        }
+
+        targets.buildGrid();
+        int centerX = (int) Math.floor(x) >> CELL_SHIFT;
+        int centerZ = (int) Math.floor(z) >> CELL_SHIFT;
+        int lastRing = Math.max(Math.max(centerX - targets.minCellX, targets.maxCellX - centerX),
+                Math.max(centerZ - targets.minCellZ, targets.maxCellZ - centerZ));
+        for (int ring = 0; ring <= lastRing; ring++) {
+            if (ring > 1) {
+                // Every target in this ring is at least (ring - 1) cells away horizontally
+                double minDistance = (double) ((ring - 1) << CELL_SHIFT);
+                if (minDistance * minDistance > best.distanceSq) {
+                    break;
+                }
+            }
+            // Only the part of the ring that overlaps the occupied cells is visited
+            int fromX = Math.max(centerX - ring, targets.minCellX);
+            int toX = Math.min(centerX + ring, targets.maxCellX);
+            int fromZ = Math.max(centerZ - ring + 1, targets.minCellZ);
+            int toZ = Math.min(centerZ + ring - 1, targets.maxCellZ);
+            boolean top = targets.hasRow(centerZ - ring);
+            boolean bottom = ring > 0 && targets.hasRow(centerZ + ring);
+            boolean left = ring > 0 && targets.hasColumn(centerX - ring);
+            boolean right = ring > 0 && targets.hasColumn(centerX + ring);
+            for (int cellX = fromX; cellX <= toX && (top || bottom); cellX++) {
+                if (top) {
+                    searchCell(targets, cellX, centerZ - ring, x, y, z, teamId, teamFilter, best);
+                }
+                if (bottom) {
+                    searchCell(targets, cellX, centerZ + ring, x, y, z, teamId, teamFilter, best);
+                }
+            }
+            for (int cellZ = fromZ; cellZ <= toZ && (left || right); cellZ++) {
+                if (left) {
+                    searchCell(targets, centerX - ring, cellZ, x, y, z, teamId, teamFilter, best);
+                }
+                if (right) {
+                    searchCell(targets, centerX + ring, cellZ, x, y, z, teamId, teamFilter, best);
+                }
+            }
+        }
+        return best.target;
+    }
+
+    private void searchCell(WorldTargets targets, int cellX, int cellZ, double x, double y, double z,
+                            int teamId, int[] teamFilter, Best best) {
+        int[] cell = targets.cells.get(cellKey(cellX, cellZ));
+        if (cell == null) {
+            return;
+        }
+        for (int i = 1; i <= cell[0]; i++) {
+            consider(cell[i], x, y, z, teamId, teamFilter, best);
+        }
+    }
+
+    private void consider(int target, double x, double y, double z, int teamId, int[] teamFilter, Best best) {
+        int targetTeam = teamIds[target];
+        if (teamFilter == null ? targetTeam != teamId : (targetTeam == teamId || !contains(teamFilter, targetTeam))) {
+            return;
+        }
+        double dx = xs[target] - x;
+        double dy = ys[target] - y;
+        double dz = zs[target] - z;
+        double distanceSq = dx * dx + dy * dy + dz * dz;
+        if (distanceSq < best.distanceSq) {
+            best.distanceSq = distanceSq;
+            best.target = target;
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static final class Best {
+        private int target = NONE;
+        private double distanceSq = Double.MAX_VALUE;
+    }
+
+    /**
+     * Targets of one world; the grid is (re)built on the first query after new targets were added
+     */
+    private static final class WorldTargets {
+
+        private final World world;
+        private int[] members = new int[16];
+        private int size = 0;
+        private boolean gridStale = true;
+
+        // Cell arrays hold their length in slot 0
+        private final Map<Long, int[]> cells = new HashMap<>();
+        private int minCellX;
+        private int maxCellX;
+        private int minCellZ;
+        private int maxCellZ;
+        private double[] cellXs = new double[16];
+        private double[] cellZs = new double[16];
+
+        WorldTargets(World world) {
+            this.world = world;
+        }
+
+        void add(int target, double x, double z) {
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+                cellXs = Arrays.copyOf(cellXs, size * 2);
+                cellZs = Arrays.copyOf(cellZs, size * 2);
+            }
+            members[size] = target;
+            cellXs[size] = x;
+            cellZs[size] = z;
+            size++;
+            gridStale = true;
+        }
+
+        boolean hasRow(int cellZ) {
+            return cellZ >= minCellZ && cellZ <= maxCellZ;
+        }
+
+        boolean hasColumn(int cellX) {
+            return cellX >= minCellX && cellX <= maxCellX;
+        }
+
+        void buildGrid() {
+            if (!gridStale) {
+                return;
+            }
+            gridStale = false;
+            cells.clear();
+            minCellX = Integer.MAX_VALUE;
+            maxCellX = Integer.MIN_VALUE;
+            minCellZ = Integer.MAX_VALUE;
+            maxCellZ = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                int cellX = (int) Math.floor(cellXs[i]) >> CELL_SHIFT;
+                int cellZ = (int) Math.floor(cellZs[i]) >> CELL_SHIFT;
+                minCellX = Math.min(minCellX, cellX);
+                maxCellX = Math.max(maxCellX, cellX);
+                minCellZ = Math.min(minCellZ, cellZ);
+                maxCellZ = Math.max(maxCellZ, cellZ);
+                long key = cellKey(cellX, cellZ);
+                int[] cell = cells.get(key);
+                if (cell == null) {
+                    cell = new int[4];
+                } else if (cell[0] + 1 == cell.length) {
+                    cell = Arrays.copyOf(cell, cell.length * 2);
+                }
+                cell[++cell[0]] = members[i];
+                cells.put(key, cell);
+            }
+        }
+    }
+}